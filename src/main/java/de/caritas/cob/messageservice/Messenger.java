@@ -1,6 +1,9 @@
 package de.caritas.cob.messageservice;
 
 import static de.caritas.cob.messageservice.api.model.MessageType.MASTER_KEY_LOST;
+import static de.caritas.cob.messageservice.api.model.outbox.OutboxEventType.CREATE_MESSAGE_STATISTICS;
+import static de.caritas.cob.messageservice.api.model.outbox.OutboxEventType.LIVE_EVENT;
+import static de.caritas.cob.messageservice.api.model.outbox.OutboxEventType.NEW_MESSAGE_EMAIL;
 import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 import static org.apache.commons.lang3.BooleanUtils.isTrue;
@@ -8,7 +11,6 @@ import static org.apache.commons.lang3.BooleanUtils.isTrue;
 import de.caritas.cob.messageservice.api.exception.BadRequestException;
 import de.caritas.cob.messageservice.api.exception.CustomCryptoException;
 import de.caritas.cob.messageservice.api.exception.InternalServerErrorException;
-import de.caritas.cob.messageservice.api.exception.RocketChatPostMarkGroupAsReadException;
 import de.caritas.cob.messageservice.api.exception.RocketChatSendMessageException;
 import de.caritas.cob.messageservice.api.facade.EmailNotificationFacade;
 import de.caritas.cob.messageservice.api.helper.AuthenticatedUser;
@@ -20,25 +22,32 @@ import de.caritas.cob.messageservice.api.model.MessageResponseDTO;
 import de.caritas.cob.messageservice.api.model.MessageType;
 import de.caritas.cob.messageservice.api.model.ReassignStatus;
 import de.caritas.cob.messageservice.api.model.VideoCallMessageDTO;
+import de.caritas.cob.messageservice.api.model.outbox.OutboxPayload;
+import de.caritas.cob.messageservice.api.model.outbox.entity.OutboxEvent;
 import de.caritas.cob.messageservice.api.model.rocket.chat.message.SendMessageResponseDTO;
 import de.caritas.cob.messageservice.api.service.DraftMessageService;
 import de.caritas.cob.messageservice.api.service.LiveEventNotificationService;
 import de.caritas.cob.messageservice.api.service.LogService;
+import de.caritas.cob.messageservice.api.service.MarkAsReadCoalescer;
 import de.caritas.cob.messageservice.api.service.MessageMapper;
 import de.caritas.cob.messageservice.api.service.RocketChatService;
 import de.caritas.cob.messageservice.api.service.SessionService;
+import de.caritas.cob.messageservice.api.service.SideEffectPipeline;
 import de.caritas.cob.messageservice.api.service.dto.Message;
+import de.caritas.cob.messageservice.api.service.outbox.OutboxService;
 import de.caritas.cob.messageservice.api.service.statistics.StatisticsService;
 import de.caritas.cob.messageservice.api.service.statistics.event.CreateMessageStatisticsEvent;
 import de.caritas.cob.messageservice.api.tenant.TenantContext;
 import de.caritas.cob.messageservice.statisticsservice.generated.web.model.UserRole;
-import de.caritas.cob.messageservice.userservice.generated.web.model.SessionUserDTO;
+import java.util.ArrayList;
 import java.util.Optional;
+import java.util.function.Supplier;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
 
 /*
  * Facade to encapsulate the steps for posting a (group) message to Rocket.Chat
@@ -48,6 +57,12 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class Messenger {
 
+  private static final String DRAFT_STEP = "draft";
+  private static final String LIVE_EVENT_STEP = "liveEvent";
+  private static final String EMAIL_STEP = "email";
+  private static final String STATISTICS_STEP = "statistics";
+  private static final String OUTBOX_STEP = "outbox";
+
   private final @NonNull RocketChatService rocketChatService;
   private final @NonNull EmailNotificationFacade emailNotificationFacade;
   private final @NonNull LiveEventNotificationService liveEventNotificationService;
@@ -55,12 +70,21 @@ public class Messenger {
   private final @NonNull StatisticsService statisticsService;
   private final @NonNull AuthenticatedUser authenticatedUser;
   private final @NonNull MessageMapper mapper;
+  private final @NonNull MarkAsReadCoalescer markAsReadCoalescer;
+  private final @NonNull SideEffectPipeline sideEffectPipeline;
+  private final @NonNull OutboxService outboxService;
 
   private final @NonNull SessionService sessionService;
 
   @Value("${rocket.systemuser.id}")
   private String rocketChatSystemUserId;
 
+  @Value("${outbox.enabled}")
+  private boolean outboxEnabled;
+
+  @Value("${statistics.enabled}")
+  private boolean statisticsEnabled;
+
   /**
    * Posts a message to the given Rocket.Chat group id and sends out a notification e-mail via the
    * UserService (because we need to get the user information).
@@ -76,45 +100,111 @@ public class Messenger {
     return response;
   }
 
+  /**
+   * The notifications and the statistics event are independent of each other and are dispatched
+   * first, to run concurrently on their executors. Only the draft is deleted on the request thread
+   * meanwhile. The request scoped user and the tenant are read here, before leaving the thread.
+   * With the outbox enabled, the notifications are stored instead and delivered by the relay, or
+   * all side effects are dispatched directly if they could not be stored. The statistics event is
+   * stored asynchronously, once its receiver was looked up off the request thread.
+   */
   private void notifyAndClearDraft(ChatMessage chatMessage) {
-    draftMessageService.deleteDraftMessageIfExist(chatMessage.getRcGroupId());
+    var rcGroupId = chatMessage.getRcGroupId();
 
-    if (!this.rocketChatSystemUserId.equals(chatMessage.getRcUserId())) {
-      liveEventNotificationService.sendLiveEvent(
-          chatMessage.getRcGroupId(),
-          authenticatedUser.getAccessToken(),
-          TenantContext.getCurrentTenantOption()
-      );
+    if (!outboxEnabled || !enqueueSideEffects(chatMessage)) {
+      dispatchSideEffects(chatMessage);
+    }
+
+    sideEffectPipeline.run(DRAFT_STEP,
+        () -> draftMessageService.deleteDraftMessageIfExist(rcGroupId));
+  }
+
+  private void dispatchSideEffects(ChatMessage chatMessage) {
+    var rcGroupId = chatMessage.getRcGroupId();
+    var accessToken = authenticatedUser.getAccessToken();
+    var tenantId = TenantContext.getCurrentTenantOption();
+
+    if (isLiveEventRequired(chatMessage)) {
+      sideEffectPipeline.dispatch(LIVE_EVENT_STEP,
+          () -> liveEventNotificationService.sendLiveEvent(rcGroupId, accessToken, tenantId));
     }
     if (isTrue(chatMessage.isSendNotification())) {
-      emailNotificationFacade.sendEmailAboutNewChatMessage(
-          chatMessage.getRcGroupId(),
-          TenantContext.getCurrentTenantOption(),
-          authenticatedUser.getAccessToken());
+      sideEffectPipeline.dispatch(EMAIL_STEP,
+          () -> emailNotificationFacade.sendEmailAboutNewChatMessage(rcGroupId, tenantId,
+              accessToken));
     }
 
-    statisticsService.fireEvent(new CreateMessageStatisticsEvent(authenticatedUser.getUserId(),
-        resolveUserRole(authenticatedUser), chatMessage.getRcGroupId(), false,
-        resolveAdviceseekerUserId(chatMessage), TenantContext.getCurrentTenant()));
+    var statisticsEvent = new CreateMessageStatisticsEvent(authenticatedUser.getUserId(),
+        resolveUserRole(authenticatedUser), rcGroupId, false,
+        resolveAdviceseekerUserId(chatMessage), TenantContext.getCurrentTenant());
+    sideEffectPipeline.dispatch(STATISTICS_STEP,
+        () -> statisticsService.fireEvent(statisticsEvent));
   }
 
-  private String resolveAdviceseekerUserId(ChatMessage chatMessage) {
-    if (authenticatedUser.isConsultant()) {
-      de.caritas.cob.messageservice.userservice.generated.web.model.GroupSessionListResponseDTO sessionBelongingToRcGroupId = sessionService.findSessionBelongingToRcGroupId(
-          chatMessage.getRcToken(), chatMessage.getRcGroupId());
-      if (sessionBelongingToRcGroupId != null
-          && sessionBelongingToRcGroupId.getSessions() != null) {
-        var optionalSession = sessionBelongingToRcGroupId.getSessions().stream().findFirst();
-        return optionalSession.isPresent() ? getUserId(optionalSession.get()) : null;
-      }
+  private boolean enqueueSideEffects(ChatMessage chatMessage) {
+    var rcGroupId = chatMessage.getRcGroupId();
+    var accessToken = authenticatedUser.getAccessToken();
+    var tenantId = TenantContext.getCurrentTenantOption();
+    var notificationPayload = new OutboxPayload(accessToken, null, null, null);
+
+    try {
+      sideEffectPipeline.run(OUTBOX_STEP, () -> {
+        var events = new ArrayList<OutboxEvent>();
+        if (isLiveEventRequired(chatMessage)) {
+          events.add(outboxService.eventOf(LIVE_EVENT, rcGroupId, tenantId, notificationPayload));
+        }
+        if (isTrue(chatMessage.isSendNotification())) {
+          events.add(outboxService.eventOf(NEW_MESSAGE_EMAIL, rcGroupId, tenantId,
+              notificationPayload));
+        }
+        if (!events.isEmpty()) {
+          outboxService.enqueue(events);
+        }
+      });
+    } catch (RuntimeException e) {
+      LogService.logInternalServerError(String.format(
+          "Could not store side effects of message in rc group %s, dispatching them directly",
+          rcGroupId), e);
+      return false;
     }
-    return null;
+
+    if (statisticsEnabled) {
+      var userId = authenticatedUser.getUserId();
+      var userRole = resolveUserRole(authenticatedUser);
+      var receiverId = resolveAdviceseekerUserId(chatMessage);
+      sideEffectPipeline.dispatch(STATISTICS_STEP,
+          () -> outboxService.enqueueAsync(CREATE_MESSAGE_STATISTICS, rcGroupId, tenantId,
+              () -> new OutboxPayload(null, userId, userRole, receiverId.get())));
+    }
+    return true;
   }
 
-  private String getUserId(
-      de.caritas.cob.messageservice.userservice.generated.web.model.GroupSessionResponseDTO session) {
-    SessionUserDTO user = session.getUser();
-    return user != null ? user.getId() : null;
+  private boolean isLiveEventRequired(ChatMessage chatMessage) {
+    return !this.rocketChatSystemUserId.equals(chatMessage.getRcUserId());
+  }
+
+  /**
+   * The adviceseeker is only needed as receiver of the statistics event, so it is looked up when
+   * the event is processed asynchronously, with the credentials of the current request. Events of
+   * the outbox are stored asynchronously with the receiver looked up already, so the Rocket.Chat
+   * token of the consultant is never stored.
+   */
+  private Supplier<String> resolveAdviceseekerUserId(ChatMessage chatMessage) {
+    if (!authenticatedUser.isConsultant()) {
+      return () -> null;
+    }
+
+    var accessToken = authenticatedUser.getAccessToken();
+    var tenantId = TenantContext.getCurrentTenantOption();
+    return () -> {
+      try {
+        return sessionService.findAdviceseekerUserIdOfRcGroupId(chatMessage.getRcToken(),
+            chatMessage.getRcGroupId(), accessToken, tenantId).orElse(null);
+      } catch (RestClientException e) {
+        LogService.logStatisticsEventError(e);
+        return null;
+      }
+    };
   }
 
   private UserRole resolveUserRole(AuthenticatedUser authenticatedUser) {
@@ -134,12 +224,10 @@ public class Messenger {
       if (isNull(response) || !response.isSuccess()) {
         throw new InternalServerErrorException();
       }
-      // Set all messages as read for system message user
-      rocketChatService.markGroupAsReadForSystemUser(groupMessage.getRcGroupId());
+      // Set all messages as read for system message user, off the request path
+      markAsReadCoalescer.markGroupAsRead(groupMessage.getRcGroupId());
       return mapper.messageResponseOf(response);
-    } catch (RocketChatSendMessageException
-             | RocketChatPostMarkGroupAsReadException
-             | CustomCryptoException ex) {
+    } catch (RocketChatSendMessageException | CustomCryptoException ex) {
       throw new InternalServerErrorException(ex, LogService::logInternalServerError);
     }
   }
@@ -4,6 +4,7 @@ import de.caritas.cob.messageservice.api.exception.BadRequestException;
 import de.caritas.cob.messageservice.api.exception.CustomCryptoException;
 import de.caritas.cob.messageservice.api.exception.InternalServerErrorException;
 import de.caritas.cob.messageservice.api.exception.KeycloakException;
+import de.caritas.cob.messageservice.api.exception.MessageStreamAbortedException;
 import de.caritas.cob.messageservice.api.exception.NoMasterKeyException;
 import de.caritas.cob.messageservice.api.exception.RocketChatBadRequestException;
 import de.caritas.cob.messageservice.api.service.LogService;
@@ -123,4 +124,17 @@ public class ApiResponseEntityExceptionHandler extends ResponseEntityExceptionHa
 
     return handleExceptionInternal(null, null, new HttpHeaders(), HttpStatus.BAD_REQUEST, request);
   }
+
+  /**
+   * Aborted message streams. The response is already committed, so no error response is written.
+   * The exception is passed on to the servlet container, which closes the connection, so the client
+   * sees a broken response instead of a body that merely looks complete.
+   *
+   * @param ex the exception to be handled
+   */
+  @ExceptionHandler({MessageStreamAbortedException.class})
+  public void handleAbortedStream(final MessageStreamAbortedException ex) {
+    LogService.logInternalServerError("Message stream aborted", ex);
+    throw ex;
+  }
 }
@@ -24,6 +24,7 @@ import de.caritas.cob.messageservice.api.service.EncryptionService;
 import de.caritas.cob.messageservice.api.service.LogService;
 import de.caritas.cob.messageservice.api.service.MessageMapper;
 import de.caritas.cob.messageservice.api.service.RocketChatService;
+import de.caritas.cob.messageservice.api.service.dto.MessageCursor;
 import de.caritas.cob.messageservice.generated.api.controller.MessagesApi;
 import io.swagger.annotations.Api;
 import java.time.Instant;
@@ -31,9 +32,13 @@ import java.util.Optional;
 import jakarta.validation.Valid;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 /**
  * Controller for message requests.
@@ -49,23 +54,36 @@ public class MessageController implements MessagesApi {
   private final @NonNull DraftMessageService draftMessageService;
   private final @NonNull MessageMapper mapper;
 
+  @Value("${message.streaming.enabled}")
+  private boolean messageStreamingEnabled;
 
   /**
-   * Returns a list of {@link MessageStreamDTO}s from the specified Rocket.Chat group.
+   * Returns a list of {@link MessageStreamDTO}s from the specified Rocket.Chat group. With enabled
+   * message streaming the messages are written directly to the response while they are read from
+   * Rocket.Chat. Polls of all messages are still answered from the page cache of the service, which
+   * already holds the decrypted messages and only fetches new ones, unless the group has more
+   * messages than the cache can hold.
    *
    * @param rcToken   (required) Rocket.Chat token of the user
    * @param rcUserId  (required) Rocket.Chat user ID
    * @param rcGroupId (required) Rocket.Chat group ID
+   * @param cursor    the next cursor of the previous page, replaces the offset
    * @return {@link ResponseEntity} containing {@link MessageStreamDTO}
    */
   @Override
   public ResponseEntity<MessageStreamDTO> findMessages(String rcToken, String rcUserId,
-      String rcGroupId, Integer offset, Integer count, Instant since) {
+      String rcGroupId, Integer offset, Integer count, Instant since, String cursor) {
     if (isNull(since)) {
       since = Instant.MIN;
     }
+    var messageCursor = isNull(cursor) ? null : mapper.messageCursorOf(cursor);
+    if (messageStreamingEnabled
+        && !rocketChatService.isServedFromPageCache(rcGroupId, offset, count, messageCursor)) {
+      streamMessages(rcToken, rcUserId, rcGroupId, offset, count, since, messageCursor);
+      return null;
+    }
     var message = rocketChatService.getGroupMessages(
-        rcToken, rcUserId, rcGroupId, offset, count, since
+        rcToken, rcUserId, rcGroupId, offset, count, since, messageCursor
     );
 
     return (message != null)
@@ -73,6 +91,20 @@ public class MessageController implements MessagesApi {
         : new ResponseEntity<>(HttpStatus.NO_CONTENT);
   }
 
+  private void streamMessages(String rcToken, String rcUserId, String rcGroupId, Integer offset,
+      Integer count, Instant since, MessageCursor cursor) {
+    var response = ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes())
+        .getResponse();
+
+    rocketChatService.streamGroupMessages(
+        rcToken, rcUserId, rcGroupId, offset, count, since, cursor, () -> {
+          response.setStatus(HttpStatus.OK.value());
+          response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+          return response.getOutputStream();
+        }
+    );
+  }
+
   /**
    * Updates the Master-Key Fragment for the en-/decryption of messages.
    *
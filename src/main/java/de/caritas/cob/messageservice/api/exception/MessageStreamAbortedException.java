@@ -0,0 +1,19 @@
+package de.caritas.cob.messageservice.api.exception;
+
+/**
+ * Signals that streaming messages failed after the response status and parts of the body have
+ * already been sent. The response can not be turned into an error anymore, so the connection has
+ * to be closed without completing the body.
+ */
+public class MessageStreamAbortedException extends RuntimeException {
+
+  /**
+   * Creates the exception for the cause the stream was aborted for.
+   *
+   * @param cause the caused exception
+   */
+  public MessageStreamAbortedException(Exception cause) {
+    super(cause);
+  }
+
+}
@@ -1,14 +1,19 @@
 package de.caritas.cob.messageservice.api.facade;
 
+import static de.caritas.cob.messageservice.config.AsyncExecutorConfig.EMAIL_NOTIFICATION_EXECUTOR;
+
 import de.caritas.cob.messageservice.api.model.AliasArgs;
 import de.caritas.cob.messageservice.api.model.ReassignStatus;
 import de.caritas.cob.messageservice.api.service.helper.ServiceHelper;
 import de.caritas.cob.messageservice.api.tenant.TenantContext;
+import de.caritas.cob.messageservice.config.apiclient.ApiClientRequestHeaders;
 import de.caritas.cob.messageservice.config.apiclient.ApiControllerFactory;
-import de.caritas.cob.messageservice.userservice.generated.ApiClient;
+import de.caritas.cob.messageservice.userservice.generated.web.UserControllerApi;
 import de.caritas.cob.messageservice.userservice.generated.web.model.NewMessageNotificationDTO;
 import de.caritas.cob.messageservice.userservice.generated.web.model.ReassignmentNotificationDTO;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
@@ -34,26 +39,38 @@ public class EmailNotificationFacade {
    * will be read by the UserService, which in turn calls the MessageService).
    *
    * @param rcGroupId - Rocket.Chat group id
+   * @return completes when the notification was sent
+   */
+  @Async(EMAIL_NOTIFICATION_EXECUTOR)
+  public CompletableFuture<Void> sendEmailAboutNewChatMessage(String rcGroupId,
+      Optional<Long> tenantId, String accessToken) {
+    sendEmailAboutNewChatMessageNow(rcGroupId, tenantId, accessToken);
+    return CompletableFuture.completedFuture(null);
+  }
+
+  /**
+   * Sends a new message notification via the UserService on the calling thread.
+   *
+   * @param rcGroupId - Rocket.Chat group id
    */
-  @Async
-  public void sendEmailAboutNewChatMessage(String rcGroupId, Optional<Long> tenantId,
+  public void sendEmailAboutNewChatMessageNow(String rcGroupId, Optional<Long> tenantId,
       String accessToken) {
     if (multitenancy) {
       TenantContext.setCurrentTenant(tenantId.orElseThrow());
     }
 
-    var userControllerApi = clientFactory.userControllerApi();
-    addDefaultHeaders(userControllerApi.getApiClient(), accessToken, tenantId);
-    userControllerApi
-        .sendNewMessageNotification(new NewMessageNotificationDTO().rcGroupId(rcGroupId));
+    callUserService(accessToken, tenantId, userControllerApi -> userControllerApi
+        .sendNewMessageNotification(new NewMessageNotificationDTO().rcGroupId(rcGroupId)));
   }
 
-  private void addDefaultHeaders(ApiClient apiClient, String accessToken, Optional<Long> tenantId) {
+  private void callUserService(String accessToken, Optional<Long> tenantId,
+      Consumer<UserControllerApi> call) {
     var headers = serviceHelper.getKeycloakAndCsrfAndOriginHttpHeaders(accessToken, tenantId);
-    headers.forEach((key, value) -> apiClient.addDefaultHeader(key, value.iterator().next()));
+    var userControllerApi = clientFactory.userControllerApi();
+    ApiClientRequestHeaders.runWith(headers, () -> call.accept(userControllerApi));
   }
 
-  @Async
+  @Async(EMAIL_NOTIFICATION_EXECUTOR)
   public void sendEmailAboutReassignRequest(String rcGroupId, AliasArgs aliasArgs,
       Optional<Long> tenantId, String accessToken) {
 
@@ -62,12 +79,11 @@ public class EmailNotificationFacade {
         .toConsultantId(aliasArgs.getToConsultantId())
         .fromConsultantName(aliasArgs.getFromConsultantName());
 
-    var userControllerApi = clientFactory.userControllerApi();
-    addDefaultHeaders(userControllerApi.getApiClient(), accessToken, tenantId);
-    userControllerApi.sendReassignmentNotification(reassignmentNotification);
+    callUserService(accessToken, tenantId, userControllerApi -> userControllerApi
+        .sendReassignmentNotification(reassignmentNotification));
   }
 
-  @Async
+  @Async(EMAIL_NOTIFICATION_EXECUTOR)
   public void sendEmailAboutReassignDecision(String roomId,
       AliasArgs consultantReassignment, Optional<Long> tenantId, String accessToken) {
     var reassignmentNotification = new ReassignmentNotificationDTO()
@@ -76,8 +92,7 @@ public class EmailNotificationFacade {
         .fromConsultantName(consultantReassignment.getFromConsultantName())
         .isConfirmed(consultantReassignment.getStatus() == ReassignStatus.CONFIRMED);
 
-    var userControllerApi = clientFactory.userControllerApi();
-    addDefaultHeaders(userControllerApi.getApiClient(), accessToken, tenantId);
-    userControllerApi.sendReassignmentNotification(reassignmentNotification);
+    callUserService(accessToken, tenantId, userControllerApi -> userControllerApi
+        .sendReassignmentNotification(reassignmentNotification));
   }
 }
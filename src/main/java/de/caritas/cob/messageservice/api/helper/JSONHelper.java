@@ -1,7 +1,10 @@
 package de.caritas.cob.messageservice.api.helper;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import de.caritas.cob.messageservice.api.helper.json.OffsetDateTimeToStringSerializer;
@@ -12,9 +15,19 @@ import java.time.OffsetDateTime;
 import java.util.Optional;
 import java.util.function.Consumer;
 
-/** Helper class for JSON specific tasks. */
+/**
+ * Helper class for JSON specific tasks. The readers and writers are configured once and shared, as
+ * they are immutable and thread-safe.
+ */
 public class JSONHelper {
 
+  private static final ObjectReader ALIAS_MESSAGE_READER =
+      new ObjectMapper().readerFor(AliasMessageDTO.class);
+  private static final ObjectReader LENIENT_ALIAS_MESSAGE_READER =
+      ALIAS_MESSAGE_READER.without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+  private static final ObjectWriter ALIAS_MESSAGE_WRITER = new ObjectMapper().writer();
+  private static final ObjectWriter OFFSET_DATE_TIME_WRITER = buildObjectMapper().writer();
+
   private JSONHelper() {}
 
   /**
@@ -27,7 +40,7 @@ public class JSONHelper {
     try {
       return Optional.ofNullable(
           UrlEncodingDecodingUtils.urlEncodeString(
-              new ObjectMapper().writeValueAsString(aliasMessageDTO)));
+              ALIAS_MESSAGE_WRITER.writeValueAsString(aliasMessageDTO)));
     } catch (JsonProcessingException jsonEx) {
       LogService.logInternalServerError(
           "Could not convert AliasMessageDTO to alias String", jsonEx);
@@ -44,8 +57,40 @@ public class JSONHelper {
   public static Optional<AliasMessageDTO> convertStringToAliasMessageDTO(String alias) {
     try {
       return Optional.ofNullable(
-          new ObjectMapper()
-              .readValue(UrlEncodingDecodingUtils.urlDecodeString(alias), AliasMessageDTO.class));
+          ALIAS_MESSAGE_READER.readValue(UrlEncodingDecodingUtils.urlDecodeString(alias)));
+
+    } catch (IOException jsonParseEx) {
+      LogService.logInternalServerError(
+          "Could not convert alias String to AliasMessageDTO", jsonParseEx);
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Maps the given, already URL decoded, alias JSON to a {@link AliasMessageDTO}.
+   *
+   * @param json   buffer containing the alias JSON
+   * @param length the length of the alias JSON in the buffer
+   * @return Optional of {@link AliasMessageDTO}
+   */
+  public static Optional<AliasMessageDTO> convertJsonToAliasMessageDTO(char[] json, int length) {
+    return convertJsonToAliasMessageDTO(json, length, false);
+  }
+
+  /**
+   * Maps the given, already URL decoded, alias JSON to a {@link AliasMessageDTO}.
+   *
+   * @param json                    buffer containing the alias JSON
+   * @param length                  the length of the alias JSON in the buffer
+   * @param ignoreUnknownProperties true to read aliases of former versions, e.g. with a
+   *                                forwardMessageDTO
+   * @return Optional of {@link AliasMessageDTO}
+   */
+  public static Optional<AliasMessageDTO> convertJsonToAliasMessageDTO(char[] json, int length,
+      boolean ignoreUnknownProperties) {
+    var reader = ignoreUnknownProperties ? LENIENT_ALIAS_MESSAGE_READER : ALIAS_MESSAGE_READER;
+    try (var parser = reader.createParser(json, 0, length)) {
+      return Optional.ofNullable(reader.readValue(parser));
 
     } catch (IOException jsonParseEx) {
       LogService.logInternalServerError(
@@ -64,7 +109,7 @@ public class JSONHelper {
   public static Optional<String> serializeWithOffsetDateTimeAsString(
       Object object, Consumer<Exception> loggingMethod) {
     try {
-      return Optional.of(buildObjectMapper().writeValueAsString(object));
+      return Optional.of(OFFSET_DATE_TIME_WRITER.writeValueAsString(object));
     } catch (JsonProcessingException jsonProcessingException) {
       loggingMethod.accept(jsonProcessingException);
     }
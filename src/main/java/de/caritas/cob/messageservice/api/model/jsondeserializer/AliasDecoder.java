@@ -0,0 +1,199 @@
+package de.caritas.cob.messageservice.api.model.jsondeserializer;
+
+import static java.util.Objects.nonNull;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import de.caritas.cob.messageservice.api.helper.JSONHelper;
+import de.caritas.cob.messageservice.api.helper.UserHelper;
+import de.caritas.cob.messageservice.api.model.AliasMessageDTO;
+import de.caritas.cob.messageservice.api.model.VideoCallMessageDTO;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Optional;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Decodes the URL encoded alias of Rocket.Chat messages. The alias is URL decoded into a reused
+ * buffer of the current thread and parsed from there, aliases without escapes are parsed as they
+ * are. Decoded aliases are memoized, as system message aliases like USER_MUTED repeat constantly.
+ * The callers get a copy of a memoized alias, as aliases are modified while messages are mapped.
+ * Decoders are created statically, their memo is registered with the
+ * {@link de.caritas.cob.messageservice.config.CacheRegistry} once the application started.
+ */
+public class AliasDecoder {
+
+  private static final int MAX_MEMOIZED_ALIAS_LENGTH = 1024;
+  private static final ThreadLocal<DecodingBuffers> BUFFERS =
+      ThreadLocal.withInitial(DecodingBuffers::new);
+
+  private final UserHelper userHelper;
+  private final boolean ignoreUnknownProperties;
+  private final Cache<String, AliasMessageDTO> decodedAliases;
+
+  /**
+   * @param userHelper         decodes the username of video call aliases
+   * @param maxMemoizedAliases the max number of memoized aliases
+   */
+  public AliasDecoder(UserHelper userHelper, long maxMemoizedAliases) {
+    this(userHelper, maxMemoizedAliases, false);
+  }
+
+  /**
+   * @param userHelper              decodes the username of video call aliases
+   * @param maxMemoizedAliases      the max number of memoized aliases
+   * @param ignoreUnknownProperties true to read aliases of former versions as well
+   */
+  public AliasDecoder(UserHelper userHelper, long maxMemoizedAliases,
+      boolean ignoreUnknownProperties) {
+    this.userHelper = userHelper;
+    this.ignoreUnknownProperties = ignoreUnknownProperties;
+    this.decodedAliases = Caffeine.newBuilder()
+        .maximumSize(maxMemoizedAliases)
+        .recordStats()
+        .build();
+  }
+
+  /**
+   * Returns the memoized aliases, e.g. to register them as cache.
+   *
+   * @return the memoized aliases by their URL encoded JSON
+   */
+  public Cache<String, AliasMessageDTO> getDecodedAliases() {
+    return decodedAliases;
+  }
+
+  /**
+   * Decodes the given alias, with the username of a video call alias decoded.
+   *
+   * @param alias the URL encoded alias JSON
+   * @return the alias, null if blank or not readable
+   * @throws IllegalArgumentException if the alias contains an illegal escape, like
+   *                                  {@link java.net.URLDecoder}
+   */
+  public AliasMessageDTO decode(String alias) {
+    if (StringUtils.isBlank(alias)) {
+      return null;
+    }
+    if (alias.length() > MAX_MEMOIZED_ALIAS_LENGTH) {
+      return parse(alias).orElse(null);
+    }
+
+    var memoized = decodedAliases.getIfPresent(alias);
+    if (memoized == null) {
+      memoized = parse(alias).orElse(null);
+      if (memoized == null) {
+        return null;
+      }
+      decodedAliases.put(alias, memoized);
+    }
+    return copyOf(memoized);
+  }
+
+  private Optional<AliasMessageDTO> parse(String alias) {
+    var buffers = BUFFERS.get();
+    var length = buffers.urlDecode(alias);
+    var decoded = JSONHelper.convertJsonToAliasMessageDTO(buffers.chars, length,
+        ignoreUnknownProperties);
+
+    decoded.map(AliasMessageDTO::getVideoCallMessageDTO).ifPresent(videoCall -> videoCall
+        .setInitiatorUserName(userHelper.decodeUsername(videoCall.getInitiatorUserName())));
+    return decoded;
+  }
+
+  private static AliasMessageDTO copyOf(AliasMessageDTO alias) {
+    var copy = new AliasMessageDTO()
+        .messageType(alias.getMessageType())
+        .content(alias.getContent());
+    var videoCall = alias.getVideoCallMessageDTO();
+    if (nonNull(videoCall)) {
+      copy.setVideoCallMessageDTO(new VideoCallMessageDTO()
+          .eventType(videoCall.getEventType())
+          .initiatorUserName(videoCall.getInitiatorUserName())
+          .rcUserId(videoCall.getRcUserId())
+          .initiatorRcUserId(videoCall.getInitiatorRcUserId()));
+    }
+    return copy;
+  }
+
+  /**
+   * Buffers of one thread, which grow with the longest alias decoded.
+   */
+  private static class DecodingBuffers {
+
+    private final CharsetDecoder utf8Decoder = StandardCharsets.UTF_8.newDecoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private char[] chars = new char[256];
+    private byte[] bytes = new byte[64];
+
+    private char[] chars(int length) {
+      if (chars.length < length) {
+        chars = new char[Math.max(length, chars.length * 2)];
+      }
+      return chars;
+    }
+
+    /**
+     * URL decodes like {@link java.net.URLDecoder} with UTF-8: '+' is a space and consecutive
+     * escaped bytes are decoded as UTF-8 together. Aliases without escapes are only copied.
+     */
+    private int urlDecode(String alias) {
+      var target = chars(alias.length());
+      if (alias.indexOf('%') < 0 && alias.indexOf('+') < 0) {
+        alias.getChars(0, alias.length(), target, 0);
+        return alias.length();
+      }
+
+      var length = 0;
+      var i = 0;
+      while (i < alias.length()) {
+        var c = alias.charAt(i);
+        if (c == '+') {
+          target[length++] = ' ';
+          i++;
+        } else if (c == '%') {
+          var byteCount = 0;
+          while (i < alias.length() && alias.charAt(i) == '%') {
+            if (i + 2 >= alias.length()) {
+              throw new IllegalArgumentException(
+                  "URLDecoder: Incomplete trailing escape (%) pattern");
+            }
+            var high = Character.digit(alias.charAt(i + 1), 16);
+            var low = Character.digit(alias.charAt(i + 2), 16);
+            if (high < 0 || low < 0) {
+              throw new IllegalArgumentException(
+                  "URLDecoder: Illegal hex characters in escape (%) pattern");
+            }
+            bytes(byteCount + 1)[byteCount++] = (byte) ((high << 4) + low);
+            i += 3;
+          }
+          length = decodeUtf8(byteCount, target, length);
+        } else {
+          target[length++] = c;
+          i++;
+        }
+      }
+      return length;
+    }
+
+    private byte[] bytes(int length) {
+      if (bytes.length < length) {
+        bytes = Arrays.copyOf(bytes, Math.max(length, bytes.length * 2));
+      }
+      return bytes;
+    }
+
+    private int decodeUtf8(int byteCount, char[] target, int offset) {
+      var out = CharBuffer.wrap(target, offset, target.length - offset);
+      utf8Decoder.reset();
+      utf8Decoder.decode(ByteBuffer.wrap(bytes, 0, byteCount), out, true);
+      utf8Decoder.flush(out);
+      return out.position();
+    }
+  }
+}
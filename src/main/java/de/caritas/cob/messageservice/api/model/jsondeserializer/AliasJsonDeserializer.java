@@ -1,30 +1,35 @@
 package de.caritas.cob.messageservice.api.model.jsondeserializer;
 
-import static java.util.Objects.nonNull;
-
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
-import de.caritas.cob.messageservice.api.helper.JSONHelper;
 import de.caritas.cob.messageservice.api.helper.UserHelper;
 import de.caritas.cob.messageservice.api.model.AliasMessageDTO;
 import de.caritas.cob.messageservice.api.model.VideoCallMessageDTO;
 import java.io.IOException;
-import org.apache.commons.lang3.StringUtils;
 
 /**
- * Json Deserializer for the alias.
+ * Json Deserializer for the alias. Instances created by Jackson share one {@link AliasDecoder}, so
+ * its memoized aliases are reused across messages.
  */
 public class AliasJsonDeserializer extends JsonDeserializer<AliasMessageDTO> {
 
-  private final UserHelper userHelper;
+  private static final long MAX_MEMOIZED_ALIASES = 1000;
+  private static final AliasDecoder SHARED_DECODER =
+      new AliasDecoder(new UserHelper(), MAX_MEMOIZED_ALIASES);
+
+  private final AliasDecoder aliasDecoder;
 
   public AliasJsonDeserializer() {
-    this.userHelper = new UserHelper();
+    this.aliasDecoder = SHARED_DECODER;
   }
 
   public AliasJsonDeserializer(UserHelper userHelper) {
-    this.userHelper = userHelper;
+    this.aliasDecoder = new AliasDecoder(userHelper, MAX_MEMOIZED_ALIASES);
+  }
+
+  public static AliasDecoder getSharedDecoder() {
+    return SHARED_DECODER;
   }
 
   /**
@@ -43,27 +48,7 @@ public class AliasJsonDeserializer extends JsonDeserializer<AliasMessageDTO> {
   }
 
   public AliasMessageDTO getAliasMessageDTO(String aliasValue) {
-    if (StringUtils.isBlank(aliasValue)) {
-      return null;
-    }
-
-    return buildAliasMessageDTOWithPossibleVideoCallMessageDTO(aliasValue);
-  }
-
-  private AliasMessageDTO buildAliasMessageDTOWithPossibleVideoCallMessageDTO(String aliasValue) {
-    AliasMessageDTO alias = JSONHelper.convertStringToAliasMessageDTO(aliasValue).orElse(null);
-    if (nonNull(alias)) {
-      decodeUsernameOfVideoCallMessageDTOIfNonNull(alias);
-    }
-    return alias;
-  }
-
-  private void decodeUsernameOfVideoCallMessageDTOIfNonNull(AliasMessageDTO alias) {
-    if (nonNull(alias.getVideoCallMessageDTO())) {
-      alias.getVideoCallMessageDTO().setInitiatorUserName(
-          userHelper.decodeUsername(alias.getVideoCallMessageDTO().getInitiatorUserName()));
-    }
+    return aliasDecoder.decode(aliasValue);
   }
 
 }
-
@@ -0,0 +1,10 @@
+package de.caritas.cob.messageservice.api.model.outbox;
+
+/**
+ * Side effects of a posted message, which are relayed from the outbox.
+ */
+public enum OutboxEventType {
+  LIVE_EVENT,
+  NEW_MESSAGE_EMAIL,
+  CREATE_MESSAGE_STATISTICS
+}
@@ -0,0 +1,20 @@
+package de.caritas.cob.messageservice.api.model.outbox;
+
+import de.caritas.cob.messageservice.statisticsservice.generated.web.model.UserRole;
+
+/**
+ * Request data an outbox event is relayed with. It is stored encrypted. Notifications are sent to
+ * the UserService on behalf of the user who posted the message, which identifies the sender by the
+ * access token, so only these events carry it. They can only be delivered as long as the token is
+ * valid; events rejected as unauthorized are dropped instead of retried.
+ *
+ * @param accessToken the access token of the user, only set for notification events
+ * @param userId      the user ID, only set for statistics events
+ * @param userRole    the role of the user, only set for statistics events
+ * @param receiverId  the user ID of the adviceseeker receiving the message, only set for
+ *                    statistics events of messages posted by consultants
+ */
+public record OutboxPayload(String accessToken, String userId, UserRole userRole,
+                            String receiverId) {
+
+}
@@ -0,0 +1,55 @@
+package de.caritas.cob.messageservice.api.model.outbox.entity;
+
+import de.caritas.cob.messageservice.api.model.outbox.OutboxEventType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "outbox_event")
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class OutboxEvent {
+
+  @Id
+  @SequenceGenerator(name = "outbox_id_seq", allocationSize = 1,
+      sequenceName = "sequence_outbox_event")
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_id_seq")
+  @Column(name = "id", updatable = false, nullable = false)
+  private Long id;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "type", nullable = false, length = 50)
+  private OutboxEventType type;
+
+  @Column(name = "rc_group_id", nullable = false)
+  private String rcGroupId;
+
+  @Column(name = "tenant_id")
+  private Long tenantId;
+
+  @Column(name = "payload", nullable = false, columnDefinition = "longtext")
+  private String payload;
+
+  @Column(name = "attempts", nullable = false)
+  private int attempts;
+
+  @Column(name = "next_attempt_date", nullable = false)
+  private LocalDateTime nextAttemptDate;
+
+  @Column(name = "create_date", nullable = false)
+  private LocalDateTime createDate;
+}
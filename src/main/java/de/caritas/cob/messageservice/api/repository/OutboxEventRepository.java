@@ -0,0 +1,24 @@
+package de.caritas.cob.messageservice.api.repository;
+
+import de.caritas.cob.messageservice.api.model.outbox.entity.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.CrudRepository;
+
+public interface OutboxEventRepository extends CrudRepository<OutboxEvent, Long> {
+
+  /**
+   * Locks the next due events, oldest first. Rows locked by another instance are skipped, so
+   * several instances relay disjoint batches.
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+  List<OutboxEvent> findByNextAttemptDateLessThanEqualOrderByIdAsc(LocalDateTime now,
+      Pageable pageable);
+
+}
@@ -1,42 +1,84 @@
 package de.caritas.cob.messageservice.api.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
 import de.caritas.cob.messageservice.api.exception.CustomCryptoException;
 import de.caritas.cob.messageservice.api.exception.NoMasterKeyException;
-import java.io.UnsupportedEncodingException;
+import de.caritas.cob.messageservice.api.service.helper.CipherPool;
+import de.caritas.cob.messageservice.config.CacheRegistry;
+import jakarta.annotation.PostConstruct;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Base64;
+import java.util.List;
 import javax.crypto.BadPaddingException;
 import javax.crypto.Cipher;
 import javax.crypto.spec.SecretKeySpec;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationEventPublisherAware;
 import org.springframework.stereotype.Service;
 
 @Service
-public class EncryptionService {
+@RequiredArgsConstructor
+public class EncryptionService implements ApplicationEventPublisherAware {
 
   private static final String CIPHER_METHODS = "AES/ECB/PKCS5PADDING";
   private static final String SECRET_KEY_SPEC_METHOD = "AES";
   private static final String MESSAGE_DIGEST_METHOD = "SHA-1";
 
+  static final String DERIVED_KEY_CACHE_NAME = "encryption-key";
+
   private static final String INITIAL_MASTER_KEY = "initialMasterKey";
 
   private static final String ENCRYPTED_MESSAGE_FLAG = "enc:";
 
+  private static final int MAX_IDLE_CIPHERS = Runtime.getRuntime().availableProcessors() * 2;
+
+  private final CipherPool cipherPool = new CipherPool(CIPHER_METHODS, MAX_IDLE_CIPHERS);
+
+  private final @NonNull CacheRegistry cacheRegistry;
+
   @Value("${service.encryption.appkey}")
   private String fragment_applicationKey;
 
-  private String fragment_masterKey = INITIAL_MASTER_KEY;
+  private volatile String fragment_masterKey = INITIAL_MASTER_KEY;
+
+  /**
+   * Keys derived from a master-key and a secret. The master-key is part of the cache key, so no key
+   * derived from an outdated master-key is served while it is updated.
+   */
+  private Cache<DerivedKeyId, SecretKeySpec> derivedKeys;
+
+  private ApplicationEventPublisher eventPublisher;
+
+  @PostConstruct
+  public void init() {
+    this.derivedKeys = cacheRegistry.cache(DERIVED_KEY_CACHE_NAME);
+  }
+
+  @Override
+  public void setApplicationEventPublisher(ApplicationEventPublisher eventPublisher) {
+    this.eventPublisher = eventPublisher;
+  }
 
   /**
-   * Updates the Master-Key fragment
+   * Updates the Master-Key fragment. The derived keys of the previous master-key are discarded
+   * together with it, so no key derived from an outdated master-key is used afterwards. A
+   * {@link MasterKeyUpdatedEvent} tells caches of decrypted content to flush.
    * 
    * @param masterKey The master-key fragment
    */
   public void updateMasterKey(String masterKey) {
     this.fragment_masterKey = masterKey;
+    derivedKeys.invalidateAll();
+    eventPublisher.publishEvent(new MasterKeyUpdatedEvent(this));
   }
 
   /**
@@ -58,25 +100,33 @@ public class EncryptionService {
   }
 
   /**
-   * Prepares the SecretKeySpec for a given Key
+   * Returns the SecretKeySpec for a given Key. The key is derived once per master-key and secret
+   * and served from the derived key cache afterwards.
    * 
    * @param secret The Key for the generation
-   * @return The SecretKeySpec based on the key or <null> in aces of an error
-   * @throws NoSuchAlgorithmException
-   * @throws UnsupportedEncodingException
+   * @return The SecretKeySpec based on the key
    */
-  private SecretKeySpec generateSecretKeySpec(String secret)
-      throws UnsupportedEncodingException, NoSuchAlgorithmException {
+  private SecretKeySpec generateSecretKeySpec(String secret) {
+    var masterKey = this.fragment_masterKey;
 
-    if (getMasterKey().equals(INITIAL_MASTER_KEY)) {
+    if (masterKey.equals(INITIAL_MASTER_KEY)) {
       throw new NoMasterKeyException("No MasterKey found - please provide a MasterKey!");
     }
 
-    byte[] keyByte = (getMasterKey() + secret + getApplicationKey()).getBytes("UTF-8");
-    MessageDigest sha = MessageDigest.getInstance(MESSAGE_DIGEST_METHOD);
-    keyByte = sha.digest(keyByte);
-    keyByte = Arrays.copyOf(keyByte, 16);
-    return new SecretKeySpec(keyByte, SECRET_KEY_SPEC_METHOD);
+    return derivedKeys.get(new DerivedKeyId(masterKey, secret),
+        id -> deriveSecretKeySpec(id.masterKey(), id.secret()));
+  }
+
+  private SecretKeySpec deriveSecretKeySpec(String masterKey, String secret) {
+    try {
+      byte[] keyByte = (masterKey + secret + getApplicationKey()).getBytes(StandardCharsets.UTF_8);
+      MessageDigest sha = MessageDigest.getInstance(MESSAGE_DIGEST_METHOD);
+      keyByte = sha.digest(keyByte);
+      keyByte = Arrays.copyOf(keyByte, 16);
+      return new SecretKeySpec(keyByte, SECRET_KEY_SPEC_METHOD);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
   }
 
   /**
@@ -89,11 +139,11 @@ public class EncryptionService {
   public String encrypt(String messageToEncrypt, String secret) throws CustomCryptoException {
     try {
       SecretKeySpec keySpec = generateSecretKeySpec(secret);
-      Cipher cipher = Cipher.getInstance(CIPHER_METHODS);
-      cipher.init(Cipher.ENCRYPT_MODE, keySpec);
-      return ENCRYPTED_MESSAGE_FLAG
-          + Base64.getEncoder().encodeToString(cipher.doFinal(messageToEncrypt.getBytes(
-          StandardCharsets.UTF_8)));
+      byte[] encrypted = cipherPool.execute(cipher -> {
+        cipher.init(Cipher.ENCRYPT_MODE, keySpec);
+        return cipher.doFinal(messageToEncrypt.getBytes(StandardCharsets.UTF_8));
+      });
+      return ENCRYPTED_MESSAGE_FLAG + Base64.getEncoder().encodeToString(encrypted);
     } catch (Exception e) {
       LogService.logEncryptionServiceError(e);
       throw new CustomCryptoException(e);
@@ -109,7 +159,7 @@ public class EncryptionService {
    */
   public String decrypt(String messageToDecrypt, String secret) throws CustomCryptoException {
 
-    if (messageToDecrypt == null || !messageToDecrypt.startsWith(ENCRYPTED_MESSAGE_FLAG)) {
+    if (!isEncrypted(messageToDecrypt)) {
       return messageToDecrypt;
     }
 
@@ -117,9 +167,42 @@ public class EncryptionService {
 
     try {
       SecretKeySpec keySpec = generateSecretKeySpec(secret);
-      Cipher cipher = Cipher.getInstance(CIPHER_METHODS);
-      cipher.init(Cipher.DECRYPT_MODE, keySpec);
-      return new String(cipher.doFinal(Base64.getDecoder().decode(messageToDecrypt)));
+      byte[] encrypted = Base64.getDecoder().decode(messageToDecrypt);
+      byte[] decrypted = cipherPool.execute(cipher -> {
+        cipher.init(Cipher.DECRYPT_MODE, keySpec);
+        return cipher.doFinal(encrypted);
+      });
+      return new String(decrypted);
+    } catch (BadPaddingException e) {
+      LogService.logEncryptionPossibleBadKeyError(e);
+      throw new CustomCryptoException(e);
+    } catch (Exception e) {
+      LogService.logEncryptionServiceError(e);
+      throw new CustomCryptoException(e);
+    }
+  }
+
+  /**
+   * Decrypts all given messages with the given secret. The key is derived once and all messages
+   * are decrypted with one initialized cipher into reused buffers.
+   *
+   * @param messagesToDecrypt The messages to decrypt, not encrypted messages are kept as they are
+   * @param secret            The secret to be used
+   * @return The decrypted messages in the order of the given messages
+   */
+  public List<String> decryptAll(List<String> messagesToDecrypt, String secret)
+      throws CustomCryptoException {
+
+    if (messagesToDecrypt.stream().noneMatch(this::isEncrypted)) {
+      return new ArrayList<>(messagesToDecrypt);
+    }
+
+    try {
+      SecretKeySpec keySpec = generateSecretKeySpec(secret);
+      return cipherPool.execute(cipher -> {
+        cipher.init(Cipher.DECRYPT_MODE, keySpec);
+        return decryptAll(messagesToDecrypt, cipher);
+      });
     } catch (BadPaddingException e) {
       LogService.logEncryptionPossibleBadKeyError(e);
       throw new CustomCryptoException(e);
@@ -129,4 +212,46 @@ public class EncryptionService {
     }
   }
 
+  private List<String> decryptAll(List<String> messagesToDecrypt, Cipher cipher)
+      throws GeneralSecurityException {
+    var decoder = Base64.getDecoder();
+    var decryptedMessages = new ArrayList<String>(messagesToDecrypt.size());
+    var encrypted = new byte[0];
+    var decrypted = new byte[0];
+
+    for (String message : messagesToDecrypt) {
+      if (!isEncrypted(message)) {
+        decryptedMessages.add(message);
+        continue;
+      }
+
+      var encoded = message.substring(ENCRYPTED_MESSAGE_FLAG.length())
+          .getBytes(StandardCharsets.ISO_8859_1);
+      if (encrypted.length < encoded.length) {
+        encrypted = new byte[encoded.length];
+      }
+      var encryptedLength = decoder.decode(encoded, encrypted);
+
+      var decryptedMaxLength = cipher.getOutputSize(encryptedLength);
+      if (decrypted.length < decryptedMaxLength) {
+        decrypted = new byte[decryptedMaxLength];
+      }
+      var decryptedLength = cipher.doFinal(encrypted, 0, encryptedLength, decrypted);
+      decryptedMessages.add(new String(decrypted, 0, decryptedLength, Charset.defaultCharset()));
+    }
+
+    return decryptedMessages;
+  }
+
+  private boolean isEncrypted(String message) {
+    return message != null && message.startsWith(ENCRYPTED_MESSAGE_FLAG);
+  }
+
+  /**
+   * Identifies a key derived from a master-key and a secret.
+   */
+  private record DerivedKeyId(String masterKey, String secret) {
+
+  }
+
 }
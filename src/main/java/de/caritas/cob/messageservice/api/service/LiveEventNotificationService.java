@@ -1,11 +1,13 @@
 package de.caritas.cob.messageservice.api.service;
 
+import static de.caritas.cob.messageservice.config.AsyncExecutorConfig.LIVE_EVENT_EXECUTOR;
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
 
 import de.caritas.cob.messageservice.api.service.helper.ServiceHelper;
+import de.caritas.cob.messageservice.config.apiclient.ApiClientRequestHeaders;
 import de.caritas.cob.messageservice.config.apiclient.ApiControllerFactory;
-import de.caritas.cob.messageservice.userservice.generated.ApiClient;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import org.springframework.scheduling.annotation.Async;
@@ -26,24 +28,33 @@ public class LiveEventNotificationService {
    * Triggers a live event to proxy endpoint of user service.
    *
    * @param rcGroupId the rocket chat group id
+   * @return completes when the live event was triggered
    */
-  @Async
-  public void sendLiveEvent(String rcGroupId, String accessToken, Optional<Long> tenantId) {
-    var liveProxyControllerApi = clientFactory.liveproxyControllerApi();
-    if (isNotBlank(rcGroupId)) {
-      addDefaultHeaders(liveProxyControllerApi.getApiClient(), accessToken, tenantId);
-      try {
-        liveProxyControllerApi.sendLiveEvent(rcGroupId);
-      } catch (RestClientException e) {
-        LogService.logInternalServerError(
-            String.format("Unable to trigger live event for rc group id %s", rcGroupId), e);
-      }
+  @Async(LIVE_EVENT_EXECUTOR)
+  public CompletableFuture<Void> sendLiveEvent(String rcGroupId, String accessToken,
+      Optional<Long> tenantId) {
+    try {
+      sendLiveEventNow(rcGroupId, accessToken, tenantId);
+    } catch (RestClientException e) {
+      LogService.logInternalServerError(
+          String.format("Unable to trigger live event for rc group id %s", rcGroupId), e);
     }
+    return CompletableFuture.completedFuture(null);
   }
 
-  private void addDefaultHeaders(ApiClient apiClient, String accessToken, Optional<Long> tenantId) {
-    var headers = serviceHelper.getKeycloakAndCsrfAndOriginHttpHeaders(accessToken, tenantId);
-    headers.forEach((key, value) -> apiClient.addDefaultHeader(key, value.iterator().next()));
+  /**
+   * Triggers a live event to proxy endpoint of user service on the calling thread.
+   *
+   * @param rcGroupId the rocket chat group id
+   * @throws RestClientException if the live event could not be triggered
+   */
+  public void sendLiveEventNow(String rcGroupId, String accessToken, Optional<Long> tenantId) {
+    var liveProxyControllerApi = clientFactory.liveproxyControllerApi();
+    if (isNotBlank(rcGroupId)) {
+      var headers = serviceHelper.getKeycloakAndCsrfAndOriginHttpHeaders(accessToken, tenantId);
+      ApiClientRequestHeaders.runWith(headers,
+          () -> liveProxyControllerApi.sendLiveEvent(rcGroupId));
+    }
   }
 
 }
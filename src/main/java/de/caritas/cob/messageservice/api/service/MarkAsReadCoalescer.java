@@ -0,0 +1,131 @@
+package de.caritas.cob.messageservice.api.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Marks Rocket.Chat groups as read for the system user in the background. Requests are debounced
+ * per group: a group is marked once no further request arrived for the debounce delay, but at the
+ * latest after the max wait, so busy groups are marked regularly with a single subscriptions.read
+ * call instead of one per posted message.
+ */
+@Service
+@RequiredArgsConstructor
+public class MarkAsReadCoalescer {
+
+  private static final String METRIC_PREFIX = "messageservice.rocketchat.markread";
+  private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+  private final @NonNull RocketChatService rocketChatService;
+  private final @NonNull MeterRegistry meterRegistry;
+
+  @Value("${rocket.chat.mark.read.debounce.delay.millis}")
+  private long debounceDelayMillis;
+
+  @Value("${rocket.chat.mark.read.max.wait.millis}")
+  private long maxWaitMillis;
+
+  @Value("${rocket.chat.mark.read.flush.interval.millis}")
+  private long flushIntervalMillis;
+
+  @Value("${rocket.chat.mark.read.threads}")
+  private int threads;
+
+  private final Map<String, PendingMarkRead> pendingGroups = new ConcurrentHashMap<>();
+
+  private ScheduledExecutorService scheduler;
+  private Counter requestedCounter;
+  private Counter issuedCounter;
+
+  @PostConstruct
+  public void init() {
+    this.requestedCounter = Counter.builder(METRIC_PREFIX + ".requested")
+        .description("Requests to mark a group as read for the system user")
+        .register(meterRegistry);
+    this.issuedCounter = Counter.builder(METRIC_PREFIX + ".issued")
+        .description("subscriptions.read calls issued for the system user")
+        .register(meterRegistry);
+
+    var threadNumber = new AtomicInteger();
+    this.scheduler = Executors.newScheduledThreadPool(threads, runnable -> {
+      var thread = new Thread(runnable, "mark-as-read-" + threadNumber.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    scheduler.scheduleWithFixedDelay(this::flushDueGroups, flushIntervalMillis,
+        flushIntervalMillis, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Lets the already submitted marks finish and flushes the pending groups before the worker is
+   * stopped. Marks not started within the shutdown timeout are run on the calling thread.
+   */
+  @PreDestroy
+  public void shutdown() {
+    scheduler.shutdown();
+    try {
+      if (!scheduler.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+        scheduler.shutdownNow().forEach(Runnable::run);
+      }
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+      scheduler.shutdownNow().forEach(Runnable::run);
+    }
+    pendingGroups.keySet().forEach(rcGroupId -> {
+      pendingGroups.remove(rcGroupId);
+      markGroupAsReadNow(rcGroupId);
+    });
+  }
+
+  /**
+   * Requests to mark the given group as read for the system user. Returns immediately, the group
+   * is marked when the debounce delay or the max wait has passed.
+   *
+   * @param rcGroupId the Rocket.Chat group ID
+   */
+  public void markGroupAsRead(String rcGroupId) {
+    requestedCounter.increment();
+    var now = System.nanoTime();
+    pendingGroups.merge(rcGroupId, new PendingMarkRead(now, now),
+        (pending, request) -> new PendingMarkRead(pending.firstRequested(), now));
+  }
+
+  private void flushDueGroups() {
+    var now = System.nanoTime();
+    pendingGroups.forEach((rcGroupId, pending) -> {
+      // conditional remove, a group requested meanwhile stays pending with its new timestamp
+      if (isDue(pending, now) && pendingGroups.remove(rcGroupId, pending)) {
+        scheduler.execute(() -> markGroupAsReadNow(rcGroupId));
+      }
+    });
+  }
+
+  private boolean isDue(PendingMarkRead pending, long now) {
+    return now - pending.lastRequested() >= TimeUnit.MILLISECONDS.toNanos(debounceDelayMillis)
+        || now - pending.firstRequested() >= TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+  }
+
+  private void markGroupAsReadNow(String rcGroupId) {
+    issuedCounter.increment();
+    try {
+      rocketChatService.markGroupAsReadForSystemUser(rcGroupId);
+    } catch (Exception exception) {
+      LogService.logRocketChatServiceError(
+          String.format("Could not mark group %s as read for system user", rcGroupId), exception);
+    }
+  }
+
+  private record PendingMarkRead(long firstRequested, long lastRequested) {}
+}
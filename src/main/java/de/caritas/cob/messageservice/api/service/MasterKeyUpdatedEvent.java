@@ -0,0 +1,14 @@
+package de.caritas.cob.messageservice.api.service;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published by the {@link EncryptionService} after the master-key has been replaced. Everything
+ * decrypted with the previous master-key has to be discarded.
+ */
+public class MasterKeyUpdatedEvent extends ApplicationEvent {
+
+  public MasterKeyUpdatedEvent(EncryptionService source) {
+    super(source);
+  }
+}
@@ -0,0 +1,128 @@
+package de.caritas.cob.messageservice.api.service;
+
+import de.caritas.cob.messageservice.api.exception.CustomCryptoException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Decrypts message pages of a Rocket.Chat group. Large pages are split into chunks which are
+ * decrypted in parallel on a dedicated, bounded pool, smaller ones on the calling thread.
+ */
+@Service
+@RequiredArgsConstructor
+public class MessageDecryptionService {
+
+  private static final String METRIC_PREFIX = "messageservice.decryption.parallel";
+
+  private final @NonNull EncryptionService encryptionService;
+  private final @NonNull MeterRegistry meterRegistry;
+
+  @Value("${message.decryption.parallel.enabled}")
+  private boolean parallelEnabled;
+
+  @Value("${message.decryption.parallel.threshold}")
+  private int parallelThreshold;
+
+  @Value("${message.decryption.parallel.parallelism}")
+  private int parallelism;
+
+  private ForkJoinPool decryptionPool;
+  private Counter parallelRuns;
+  private Timer parallelDuration;
+  private Timer parallelTimeSaved;
+
+  @PostConstruct
+  public void init() {
+    this.decryptionPool = new ForkJoinPool(parallelism);
+    this.parallelRuns = Counter.builder(METRIC_PREFIX + ".runs")
+        .description("Message pages decrypted in parallel")
+        .register(meterRegistry);
+    this.parallelDuration = Timer.builder(METRIC_PREFIX + ".duration")
+        .description("Wall time of parallel page decryptions")
+        .register(meterRegistry);
+    this.parallelTimeSaved = Timer.builder(METRIC_PREFIX + ".saved")
+        .description("Time saved by parallel page decryptions compared to sequential decryption")
+        .register(meterRegistry);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    decryptionPool.shutdown();
+  }
+
+  /**
+   * Decrypts all given messages of a Rocket.Chat group and keeps their order.
+   *
+   * @param messages  the messages to decrypt
+   * @param rcGroupId the Rocket.Chat group ID used as secret
+   * @return the decrypted messages
+   * @throws CustomCryptoException if one of the messages could not be decrypted
+   */
+  public List<String> decryptAll(List<String> messages, String rcGroupId)
+      throws CustomCryptoException {
+    if (!parallelEnabled || messages.size() < parallelThreshold) {
+      return encryptionService.decryptAll(messages, rcGroupId);
+    }
+
+    return decryptAllInParallel(messages, rcGroupId);
+  }
+
+  private List<String> decryptAllInParallel(List<String> messages, String rcGroupId)
+      throws CustomCryptoException {
+    var start = System.nanoTime();
+    var sequentialNanos = new AtomicLong();
+    var chunkSize = (messages.size() + parallelism - 1) / parallelism;
+
+    var chunks = new ArrayList<CompletableFuture<List<String>>>();
+    for (var from = 0; from < messages.size(); from += chunkSize) {
+      var chunk = messages.subList(from, Math.min(from + chunkSize, messages.size()));
+      chunks.add(CompletableFuture.supplyAsync(
+          () -> decryptChunk(chunk, rcGroupId, sequentialNanos), decryptionPool));
+    }
+
+    var decryptedMessages = new ArrayList<String>(messages.size());
+    try {
+      chunks.forEach(chunk -> decryptedMessages.addAll(chunk.join()));
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof CustomCryptoException customCryptoException) {
+        throw customCryptoException;
+      }
+      throw e;
+    }
+
+    recordParallelRun(System.nanoTime() - start, sequentialNanos.get());
+    return decryptedMessages;
+  }
+
+  private List<String> decryptChunk(List<String> chunk, String rcGroupId,
+      AtomicLong sequentialNanos) {
+    var start = System.nanoTime();
+    try {
+      return encryptionService.decryptAll(chunk, rcGroupId);
+    } catch (CustomCryptoException e) {
+      throw new CompletionException(e);
+    } finally {
+      sequentialNanos.addAndGet(System.nanoTime() - start);
+    }
+  }
+
+  private void recordParallelRun(long wallNanos, long sequentialNanos) {
+    parallelRuns.increment();
+    parallelDuration.record(Duration.ofNanos(wallNanos));
+    parallelTimeSaved.record(Duration.ofNanos(Math.max(0, sequentialNanos - wallNanos)));
+  }
+}
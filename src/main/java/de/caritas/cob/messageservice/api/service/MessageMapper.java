@@ -5,10 +5,10 @@ import static java.util.Objects.nonNull;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import de.caritas.cob.messageservice.api.exception.BadRequestException;
 import de.caritas.cob.messageservice.api.exception.CustomCryptoException;
 import de.caritas.cob.messageservice.api.exception.InternalServerErrorException;
 import de.caritas.cob.messageservice.api.exception.NoMasterKeyException;
-import de.caritas.cob.messageservice.api.helper.UserHelper;
 import de.caritas.cob.messageservice.api.model.AliasArgs;
 import de.caritas.cob.messageservice.api.model.AliasMessageDTO;
 import de.caritas.cob.messageservice.api.model.MessageResponseDTO;
@@ -18,14 +18,20 @@ import de.caritas.cob.messageservice.api.model.rocket.chat.message.MessagesDTO;
 import de.caritas.cob.messageservice.api.model.rocket.chat.message.SendMessageResponseDTO;
 import de.caritas.cob.messageservice.api.service.dto.MethodCall;
 import de.caritas.cob.messageservice.api.service.dto.Message;
+import de.caritas.cob.messageservice.api.service.dto.MessageCursor;
 import de.caritas.cob.messageservice.api.service.dto.MethodMessageWithParamList;
 import de.caritas.cob.messageservice.api.service.dto.MethodMessageWithParamMap;
 import de.caritas.cob.messageservice.api.service.dto.UpdateMessage;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.sql.Alias;
@@ -40,8 +46,12 @@ public class MessageMapper {
   // Using pseudorandom number generators (PRNGs) is security-sensitive
   private static final Random random = new Random();
 
+  private static final char CURSOR_SEPARATOR = '|';
+
   private final ObjectMapper objectMapper;
   private final EncryptionService encryptionService;
+  private final AliasJsonDeserializer aliasDeserializer = new AliasJsonDeserializer();
+  private final Map<MessageType, String> aliasStrings = new ConcurrentHashMap<>();
 
   public MessagesDTO typedMessageOf(MessagesDTO messagesDTO) {
     var messageType = messagesDTO.getT();
@@ -63,24 +73,30 @@ public class MessageMapper {
     var messageType = (String) message.getOtherProperties().get("t");
 
     if (nonNull(messageType)) {
-      AliasMessageDTO alias = null;
+      MessageType aliasType = null;
       if (messageType.equalsIgnoreCase("user-muted")) {
-        alias = aliasMessageDtoOf(MessageType.USER_MUTED);
+        aliasType = MessageType.USER_MUTED;
       } else if (messageType.equalsIgnoreCase("user-unmuted")) {
-        alias = aliasMessageDtoOf(MessageType.USER_UNMUTED);
+        aliasType = MessageType.USER_UNMUTED;
       }
-      if (nonNull(alias)) {
-        try {
-          message.setAlias(objectMapper.writeValueAsString(alias));
-        } catch (JsonProcessingException e) {
-          throw new RuntimeException(e);
-        }
+      if (nonNull(aliasType)) {
+        message.setAlias(aliasStringOf(aliasType), aliasMessageDtoOf(aliasType));
       }
     }
 
     return message;
   }
 
+  private String aliasStringOf(MessageType messageType) {
+    return aliasStrings.computeIfAbsent(messageType, type -> {
+      try {
+        return objectMapper.writeValueAsString(aliasMessageDtoOf(type));
+      } catch (JsonProcessingException e) {
+        throw new RuntimeException(e);
+      }
+    });
+  }
+
   public Message decryptedMessageOf(Message message) {
     try {
       message.setMsg(encryptionService.decrypt(message.getMsg(), message.getRid()));
@@ -104,7 +120,6 @@ public class MessageMapper {
     messageDto.setMsg(message.getMsg());
     messageDto.setRid(message.getRid());
 
-    var aliasDeserializer = new AliasJsonDeserializer(new UserHelper());
     var alias = aliasDeserializer.getAliasMessageDTO(message.getAlias());
     messageDto.setAlias(alias);
 
@@ -172,7 +187,7 @@ public class MessageMapper {
   }
 
   public String queryOperatorSinceAndNot(Instant since, String username) {
-    var olderThan = Map.of("ts", Map.of("$gt", Map.of("$date", since.toString())));
+    var olderThan = Map.of("ts", Map.of("$gt", dateOf(since)));
     var notUser = Map.of("u.username", Map.of("$ne", username));
     var op = Map.of("$and", List.of(olderThan, notUser));
     try {
@@ -182,6 +197,68 @@ public class MessageMapper {
     }
   }
 
+  public String queryOperatorSinceAndNot(Instant since, MessageCursor cursor, String username) {
+    var olderThan = Map.of("ts", Map.of("$gt", dateOf(since)));
+    var olderThanCursorTs = Map.of("ts", Map.of("$gt", dateOf(cursor.getTs())));
+    var atCursorTsAfterId = new LinkedHashMap<String, Object>();
+    atCursorTsAfterId.put("ts", dateOf(cursor.getTs()));
+    atCursorTsAfterId.put("_id", Map.of("$gt", cursor.getId()));
+    var afterCursor = Map.of("$or", List.of(olderThanCursorTs, atCursorTsAfterId));
+    var notUser = Map.of("u.username", Map.of("$ne", username));
+    var op = Map.of("$and", List.of(olderThan, afterCursor, notUser));
+    try {
+      return objectMapper.writeValueAsString(op);
+    } catch (JsonProcessingException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private Map<String, String> dateOf(Instant instant) {
+    return Map.of("$date", instant.toString());
+  }
+
+  /**
+   * Returns the cursor of the page following the given one. A page which is not full is the last
+   * one, so there is no next cursor.
+   *
+   * @param lastMessage the last message of the page
+   * @param pageSize    the number of messages in the page
+   * @param count       the requested number of messages, 0 means all
+   * @return the encoded cursor, null if there is no next page
+   */
+  public String nextCursorOf(MessagesDTO lastMessage, int pageSize, int count) {
+    if (count <= 0 || pageSize < count || isNull(lastMessage)) {
+      return null;
+    }
+
+    var cursor = lastMessage.getTs() + CURSOR_SEPARATOR + lastMessage.get_id();
+    return Base64.getUrlEncoder().withoutPadding()
+        .encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Decodes a cursor created by {@link #nextCursorOf(MessagesDTO, int, int)}.
+   *
+   * @param cursor the encoded cursor
+   * @return the {@link MessageCursor}
+   * @throws BadRequestException if the cursor is invalid
+   */
+  public MessageCursor messageCursorOf(String cursor) {
+    try {
+      var decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      var separatorIndex = decoded.indexOf(CURSOR_SEPARATOR);
+      var ts = Instant.parse(decoded.substring(0, separatorIndex));
+      var id = decoded.substring(separatorIndex + 1);
+      if (id.isEmpty()) {
+        throw new IllegalArgumentException("Cursor has no message id");
+      }
+      return new MessageCursor(ts, id);
+    } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+      throw new BadRequestException(String.format("Invalid cursor %s", cursor),
+          LogService::logBadRequest);
+    }
+  }
+
   public MessageType messageTypeOf(AliasMessageDTO alias) {
     if (nonNull(alias)) {
       if (nonNull(alias.getMessageType())) {
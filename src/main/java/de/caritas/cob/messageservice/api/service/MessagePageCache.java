@@ -0,0 +1,282 @@
+package de.caritas.cob.messageservice.api.service;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Policy.Eviction;
+import de.caritas.cob.messageservice.api.model.rocket.chat.message.MessagesDTO;
+import de.caritas.cob.messageservice.config.CacheRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache of already decrypted and typed messages per Rocket.Chat group. Polling clients only need
+ * the messages newer than the cached ones to be fetched and decrypted. The cache is bounded by the
+ * total number of cached messages and flushed whenever the master-key changes. As every poll
+ * writes the group again, the expiry of the cache alone would never drop a polled group; groups
+ * are therefore loaded completely again once their first load is older than the expiry, so edits
+ * made outside of this service become visible. Groups with more messages than the cache can hold
+ * are not cached at all, as they would be evicted right away, and are remembered as oversized for
+ * a while, so they can be streamed instead.
+ */
+@Component
+@RequiredArgsConstructor
+public class MessagePageCache {
+
+  static final String CACHE_NAME = "message-page";
+  static final String OVERSIZED_CACHE_NAME = "message-page-oversized";
+  static final String OVERSIZED_METRIC_NAME = "messageservice.message.page.oversized";
+
+  private static final Comparator<CachedMessage> BY_TS_AND_ID = Comparator
+      .comparing(CachedMessage::getTs)
+      .thenComparing(CachedMessage::getId);
+
+  private final @NonNull CacheRegistry cacheRegistry;
+  private final @NonNull MeterRegistry meterRegistry;
+
+  private Clock clock = Clock.systemUTC();
+  private Cache<String, GroupMessages> groupMessages;
+  private Cache<String, Boolean> oversizedGroups;
+  private Duration maximumAge;
+  private long maximumMessages;
+  private Counter oversizedCounter;
+
+  @PostConstruct
+  public void init() {
+    this.groupMessages = cacheRegistry.cache(CACHE_NAME,
+        (String rcGroupId, GroupMessages messages) -> messages.size());
+    this.oversizedGroups = cacheRegistry.cache(OVERSIZED_CACHE_NAME);
+    this.maximumAge = groupMessages.policy().expireAfterWrite()
+        .map(expiration -> expiration.getExpiresAfter())
+        .orElse(null);
+    this.maximumMessages = groupMessages.policy().eviction()
+        .map(Eviction::getMaximum)
+        .orElse(Long.MAX_VALUE);
+    this.oversizedCounter = Counter.builder(OVERSIZED_METRIC_NAME)
+        .description("Groups not cached as they have more messages than the cache can hold")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Returns the cached messages of a group if they contain all messages newer than the given
+   * timestamp. Groups loaded longer ago than the expiry are evicted, to be loaded completely again.
+   *
+   * @param rcGroupId the Rocket.Chat group ID
+   * @param since     the timestamp the messages are requested from
+   * @return the cached {@link GroupMessages}, empty if the request can not be served from cache
+   */
+  public Optional<GroupMessages> get(String rcGroupId, Instant since) {
+    var messages = groupMessages.getIfPresent(rcGroupId);
+    if (nonNull(messages) && isOutdated(messages)) {
+      groupMessages.asMap().remove(rcGroupId, messages);
+      return Optional.empty();
+    }
+
+    return Optional.ofNullable(messages)
+        .filter(cached -> !since.isBefore(cached.getCoveredSince()));
+  }
+
+  /**
+   * Tells whether a group recently had more messages than the cache can hold.
+   *
+   * @param rcGroupId the Rocket.Chat group ID
+   * @return true if the group is not worth loading into the cache
+   */
+  public boolean isOversized(String rcGroupId) {
+    return nonNull(oversizedGroups.getIfPresent(rcGroupId));
+  }
+
+  /**
+   * Adds decrypted and typed messages to the cached messages of a group. Messages without a valid
+   * timestamp can not be ordered, the group is evicted instead. So is a group with more messages
+   * than the cache can hold.
+   *
+   * @param rcGroupId    the Rocket.Chat group ID
+   * @param coveredSince the timestamp from which on the cached and given messages are complete
+   * @param messages     the decrypted and typed messages
+   * @return the cached {@link GroupMessages} including the given messages, empty if evicted
+   */
+  public Optional<GroupMessages> merge(String rcGroupId, Instant coveredSince,
+      List<MessagesDTO> messages) {
+    if (messages.size() > maximumMessages) {
+      return evictOversizedGroup(rcGroupId);
+    }
+    var cachedMessages = new LinkedHashMap<String, CachedMessage>();
+    for (MessagesDTO message : messages) {
+      var ts = tsOf(message);
+      if (ts.isEmpty() || isNull(message.get_id())) {
+        evictGroup(rcGroupId);
+        return Optional.empty();
+      }
+      cachedMessages.put(message.get_id(), new CachedMessage(message, ts.get()));
+    }
+
+    var newMessages = new GroupMessages(coveredSince, cachedMessages, clock.instant());
+    var mergedMessages = groupMessages.asMap().compute(rcGroupId, (id, cached) -> {
+      var merged = isNull(cached) || isOutdated(cached)
+          ? newMessages
+          : cached.mergedWith(newMessages);
+      return merged.size() > maximumMessages ? null : merged;
+    });
+    return isNull(mergedMessages)
+        ? evictOversizedGroup(rcGroupId)
+        : Optional.of(mergedMessages);
+  }
+
+  /**
+   * Evicts the cached messages of a group, e.g. after a message has been updated.
+   *
+   * @param rcGroupId the Rocket.Chat group ID
+   */
+  public void evictGroup(String rcGroupId) {
+    groupMessages.invalidate(rcGroupId);
+  }
+
+  /**
+   * Evicts the cached messages of the group containing the given message, e.g. after the message
+   * has been deleted.
+   *
+   * @param messageId the Rocket.Chat message ID
+   */
+  public void evictGroupOfMessage(String messageId) {
+    groupMessages.asMap().values()
+        .removeIf(messages -> messages.messagesById.containsKey(messageId));
+  }
+
+  /**
+   * Evicts all cached messages, as they have been decrypted with an outdated master-key.
+   */
+  @EventListener(MasterKeyUpdatedEvent.class)
+  public void evictAll() {
+    groupMessages.invalidateAll();
+  }
+
+  private Optional<GroupMessages> evictOversizedGroup(String rcGroupId) {
+    evictGroup(rcGroupId);
+    oversizedGroups.put(rcGroupId, Boolean.TRUE);
+    oversizedCounter.increment();
+    return Optional.empty();
+  }
+
+  private boolean isOutdated(GroupMessages messages) {
+    return nonNull(maximumAge) && messages.loadedAt.plus(maximumAge).isBefore(clock.instant());
+  }
+
+  private static Optional<Instant> tsOf(MessagesDTO message) {
+    if (isNull(message.getTs())) {
+      return Optional.empty();
+    }
+
+    try {
+      return Optional.of(Instant.parse(message.getTs()));
+    } catch (DateTimeParseException e) {
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Immutable snapshot of the cached messages of a group, complete from coveredSince on. The
+   * loadedAt timestamp is the time of the first load the snapshot is merged from.
+   */
+  public static class GroupMessages {
+
+    @Getter
+    private final Instant coveredSince;
+    private final Map<String, CachedMessage> messagesById;
+    private final List<CachedMessage> sortedMessages;
+    private final Instant loadedAt;
+
+    private GroupMessages(Instant coveredSince, Map<String, CachedMessage> messagesById,
+        Instant loadedAt) {
+      this.coveredSince = coveredSince;
+      this.messagesById = messagesById;
+      this.loadedAt = loadedAt;
+      this.sortedMessages = messagesById.values().stream()
+          .sorted(BY_TS_AND_ID)
+          .collect(Collectors.toUnmodifiableList());
+    }
+
+    /**
+     * Returns the timestamp of the newest cached message.
+     *
+     * @return the timestamp, empty if no message is cached
+     */
+    public Optional<Instant> newestTs() {
+      return sortedMessages.isEmpty()
+          ? Optional.empty()
+          : Optional.of(sortedMessages.get(sortedMessages.size() - 1).getTs());
+    }
+
+    /**
+     * Checks if the given message is cached in the same version.
+     *
+     * @param message the message
+     * @return true if a message with same ID and update timestamp is cached
+     */
+    public boolean contains(MessagesDTO message) {
+      var cachedMessage = messagesById.get(message.get_id());
+
+      return nonNull(cachedMessage) && Objects.equals(
+          cachedMessage.getMessage().get_updatedAt(), message.get_updatedAt());
+    }
+
+    /**
+     * Returns the cached messages newer than the given timestamp, ordered by timestamp.
+     *
+     * @param since the timestamp
+     * @return the messages
+     */
+    public List<MessagesDTO> messagesSince(Instant since) {
+      return sortedMessages.stream()
+          .filter(cachedMessage -> cachedMessage.getTs().isAfter(since))
+          .map(CachedMessage::getMessage)
+          .collect(Collectors.toList());
+    }
+
+    private int size() {
+      return messagesById.size();
+    }
+
+    private GroupMessages mergedWith(GroupMessages newMessages) {
+      var merged = new LinkedHashMap<>(messagesById);
+      merged.putAll(newMessages.messagesById);
+      var mergedSince = coveredSince.isBefore(newMessages.coveredSince)
+          ? coveredSince
+          : newMessages.coveredSince;
+
+      return new GroupMessages(mergedSince, merged, loadedAt);
+    }
+  }
+
+  @Getter
+  private static class CachedMessage {
+
+    private final MessagesDTO message;
+    private final String id;
+    private final Instant ts;
+
+    private CachedMessage(MessagesDTO message, Instant ts) {
+      this.message = message;
+      this.id = message.get_id();
+      this.ts = ts;
+    }
+  }
+}
@@ -0,0 +1,180 @@
+package de.caritas.cob.messageservice.api.service;
+
+import static java.util.Objects.nonNull;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.caritas.cob.messageservice.api.exception.CustomCryptoException;
+import de.caritas.cob.messageservice.api.exception.InternalServerErrorException;
+import de.caritas.cob.messageservice.api.exception.NoMasterKeyException;
+import de.caritas.cob.messageservice.api.model.MessageStreamDTO;
+import de.caritas.cob.messageservice.api.model.rocket.chat.message.MessagesDTO;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Transforms a Rocket.Chat groups.messages response into a {@link MessageStreamDTO} response
+ * while reading it. Messages are decrypted and typed in small batches and written out right away,
+ * so the heap never holds the whole message history. The response is only opened once the first
+ * batch has been read and decrypted, so failures up to then can still be answered with an error
+ * status. Later failures leave the written JSON unclosed, never as a seemingly complete response.
+ */
+@Component
+@RequiredArgsConstructor
+public class MessageStreamWriter {
+
+  private static final String MESSAGES_FIELD = "messages";
+  private static final String NEXT_CURSOR_FIELD = "nextCursor";
+
+  private final @NonNull ObjectMapper objectMapper;
+  private final @NonNull MessageDecryptionService messageDecryptionService;
+  private final @NonNull MessageMapper mapper;
+
+  @Value("${message.streaming.decryption.batch.size}")
+  private int decryptionBatchSize;
+
+  /**
+   * Opens the stream the {@link MessageStreamDTO} is written to, e.g. by committing the status and
+   * headers of an HTTP response.
+   */
+  @FunctionalInterface
+  public interface OutputStreamOpener {
+
+    OutputStream open() throws IOException;
+  }
+
+  /**
+   * Reads the messages of a Rocket.Chat groups.messages response and writes them decrypted and
+   * typed as {@link MessageStreamDTO}.
+   *
+   * @param rocketChatResponse the Rocket.Chat response body
+   * @param output             opens the stream to write the {@link MessageStreamDTO} to
+   * @param rcGroupId          the Rocket.Chat group ID
+   * @param count              the requested number of messages, used for the next cursor
+   * @throws IOException if reading or writing fails
+   */
+  public void write(InputStream rocketChatResponse, OutputStreamOpener output, String rcGroupId,
+      int count) throws IOException {
+    var jsonFactory = objectMapper.getFactory();
+
+    try (var parser = jsonFactory.createParser(rocketChatResponse)) {
+      var page = new Page(parser, rcGroupId);
+      var batch = page.nextBatch();
+
+      try (var generator = jsonFactory.createGenerator(output.open())
+          .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+          .disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT)) {
+        generator.writeStartObject();
+        generator.writeArrayFieldStart(MESSAGES_FIELD);
+        while (!batch.isEmpty()) {
+          writeBatch(batch, generator);
+          batch = page.nextBatch();
+        }
+        generator.writeEndArray();
+        generator.writeStringField(NEXT_CURSOR_FIELD,
+            mapper.nextCursorOf(page.lastMessage, page.size, count));
+        generator.writeEndObject();
+      }
+    }
+  }
+
+  private void writeBatch(List<MessagesDTO> batch, JsonGenerator generator) throws IOException {
+    for (MessagesDTO message : batch) {
+      generator.writeObject(message);
+    }
+    generator.flush();
+  }
+
+  private List<MessagesDTO> decryptAndTypeMessages(List<MessagesDTO> messages, String rcGroupId) {
+    if (messages.isEmpty()) {
+      return messages;
+    }
+
+    decryptMessages(messages, rcGroupId);
+    var typedMessages = new ArrayList<MessagesDTO>(messages.size());
+    for (MessagesDTO message : messages) {
+      var alias = message.getAlias();
+      if (nonNull(alias)) {
+        alias.setMessageType(mapper.messageTypeOf(alias));
+      }
+      typedMessages.add(mapper.typedMessageOf(message));
+    }
+    return typedMessages;
+  }
+
+  private void decryptMessages(List<MessagesDTO> messages, String rcGroupId) {
+    try {
+      var encryptedMessages = messages.stream()
+          .map(MessagesDTO::getMsg)
+          .collect(Collectors.toList());
+      var decryptedMessages = messageDecryptionService.decryptAll(encryptedMessages, rcGroupId);
+      for (var i = 0; i < messages.size(); i++) {
+        messages.get(i).setMsg(decryptedMessages.get(i));
+      }
+    } catch (CustomCryptoException | NoMasterKeyException ex) {
+      throw new InternalServerErrorException(ex, LogService::logEncryptionServiceError);
+    }
+  }
+
+  /**
+   * Reads the messages array of the Rocket.Chat response batch by batch.
+   */
+  private class Page {
+
+    private final JsonParser parser;
+    private final String rcGroupId;
+    private boolean started;
+    private boolean inMessages;
+    private MessagesDTO lastMessage;
+    private int size;
+
+    private Page(JsonParser parser, String rcGroupId) {
+      this.parser = parser;
+      this.rcGroupId = rcGroupId;
+    }
+
+    private List<MessagesDTO> nextBatch() throws IOException {
+      if (!started) {
+        started = true;
+        inMessages = seekMessages();
+      }
+
+      var batch = new ArrayList<MessagesDTO>(decryptionBatchSize);
+      while (inMessages && batch.size() < decryptionBatchSize) {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+          inMessages = false;
+          break;
+        }
+        var message = objectMapper.readValue(parser, MessagesDTO.class);
+        batch.add(message);
+        lastMessage = message;
+        size++;
+      }
+      return decryptAndTypeMessages(batch, rcGroupId);
+    }
+
+    private boolean seekMessages() throws IOException {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        return false;
+      }
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        var fieldName = parser.getCurrentName();
+        if (parser.nextToken() == JsonToken.START_ARRAY && MESSAGES_FIELD.equals(fieldName)) {
+          return true;
+        }
+        parser.skipChildren();
+      }
+      return false;
+    }
+  }
+}
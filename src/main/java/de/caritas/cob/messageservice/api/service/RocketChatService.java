@@ -6,6 +6,7 @@ import static java.util.Objects.nonNull;
 
 import de.caritas.cob.messageservice.api.exception.CustomCryptoException;
 import de.caritas.cob.messageservice.api.exception.InternalServerErrorException;
+import de.caritas.cob.messageservice.api.exception.MessageStreamAbortedException;
 import de.caritas.cob.messageservice.api.exception.NoMasterKeyException;
 import de.caritas.cob.messageservice.api.exception.RocketChatBadRequestException;
 import de.caritas.cob.messageservice.api.exception.RocketChatUserNotInitializedException;
@@ -23,7 +24,10 @@ import de.caritas.cob.messageservice.api.model.rocket.chat.message.MessagesDTO;
 import de.caritas.cob.messageservice.api.model.rocket.chat.message.SendMessageDTO;
 import de.caritas.cob.messageservice.api.model.rocket.chat.message.SendMessageResponseDTO;
 import de.caritas.cob.messageservice.api.model.rocket.chat.message.SendMessageWrapper;
+import de.caritas.cob.messageservice.api.service.MessagePageCache.GroupMessages;
+import de.caritas.cob.messageservice.api.service.MessageStreamWriter.OutputStreamOpener;
 import de.caritas.cob.messageservice.api.service.dto.Message;
+import de.caritas.cob.messageservice.api.service.dto.MessageCursor;
 import de.caritas.cob.messageservice.api.service.dto.MessageResponse;
 import de.caritas.cob.messageservice.api.service.dto.StringifiedMessageResponse;
 import de.caritas.cob.messageservice.api.service.dto.UpdateMessage;
@@ -31,7 +35,9 @@ import de.caritas.cob.messageservice.api.service.helper.RocketChatCredentialsHel
 import java.net.URI;
 import java.time.Instant;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
@@ -99,10 +105,16 @@ public class RocketChatService {
   @Value("${rocket.chat.query.param.sort.value}")
   private String rcQueryParamSortValue;
 
+  @Value("${rocket.chat.query.param.cursor.sort.value}")
+  private String rcQueryParamCursorSortValue;
+
   private final @NonNull RestTemplate restTemplate;
   private final @NonNull EncryptionService encryptionService;
   private final @NonNull RocketChatCredentialsHelper rcCredentialHelper;
   private final MessageMapper mapper;
+  private final @NonNull MessageDecryptionService messageDecryptionService;
+  private final @NonNull MessageStreamWriter messageStreamWriter;
+  private final @NonNull MessagePageCache messagePageCache;
 
   /**
    * Gets the list of messages via Rocket.Chat API for the provided Rocket.Chat group. Filters out
@@ -115,19 +127,143 @@ public class RocketChatService {
    */
   public MessageStreamDTO getGroupMessages(String rcToken, String rcUserId, String rcGroupId,
       int offset, int count, Instant since) {
-    var uri = buildMessageStreamUri(rcGroupId, offset, count, since);
+    return getGroupMessages(rcToken, rcUserId, rcGroupId, offset, count, since, null);
+  }
+
+  /**
+   * Gets a page of messages via Rocket.Chat API for the provided Rocket.Chat group, starting after
+   * the given cursor. Instead of skipping offset messages, Rocket.Chat is queried for messages
+   * newer than the cursor, so deep pages cost the same as the first one.
+   *
+   * @param rcToken   Rocket.Chat authentication token
+   * @param rcUserId  Rocket.Chat user ID
+   * @param rcGroupId Rocket.Chat group ID
+   * @param cursor    the {@link MessageCursor} of the previous page, null to use the offset
+   * @return MessageStreamDTO {@link MessageStreamDTO} containing the cursor of the next page
+   */
+  public MessageStreamDTO getGroupMessages(String rcToken, String rcUserId, String rcGroupId,
+      int offset, int count, Instant since, MessageCursor cursor) {
+    if (isServedFromPageCache(rcGroupId, offset, count, cursor)) {
+      return getCachedGroupMessages(rcToken, rcUserId, rcGroupId, since);
+    }
+
+    var uri = buildMessageStreamUri(rcGroupId, offset, count, since, cursor);
     var messageStream = obtainMessageStream(rcToken, rcUserId, uri);
+    var messages = decryptAndTypeMessages(messagesOf(messageStream), rcGroupId);
+    messageStream.setMessages(messages);
+    if (!messages.isEmpty()) {
+      messageStream.setNextCursor(
+          mapper.nextCursorOf(messages.get(messages.size() - 1), messages.size(), count));
+    }
 
-    messageStream.setMessages(Optional.ofNullable(messageStream.getMessages())
-        .orElseGet(Collections::emptyList)
-        .stream()
-        .map(msg -> decryptMessageAndSetMessageType(msg, rcGroupId))
-        .map(mapper::typedMessageOf)
-        .collect(Collectors.toList()));
+    return messageStream;
+  }
+
+  /**
+   * Tells whether a request for messages is served from the {@link MessagePageCache}, which holds
+   * the complete history of polled groups. This is the case for polls of all messages without
+   * offset, count and cursor, unless the group has more messages than the cache can hold.
+   *
+   * @param rcGroupId Rocket.Chat group ID
+   * @return true if the messages are served from the {@link MessagePageCache}
+   */
+  public boolean isServedFromPageCache(String rcGroupId, int offset, int count,
+      MessageCursor cursor) {
+    return isNull(cursor) && offset == 0 && count == 0 && !messagePageCache.isOversized(rcGroupId);
+  }
+
+  /**
+   * Serves polls for all messages of a group from the {@link MessagePageCache}. Only messages
+   * newer than the newest cached one are fetched from Rocket.Chat, with the user's credentials,
+   * and only those not cached in the same version are decrypted.
+   */
+  private MessageStreamDTO getCachedGroupMessages(String rcToken, String rcUserId,
+      String rcGroupId, Instant since) {
+    var cachedMessages = messagePageCache.get(rcGroupId, since);
+    // messages with the same millisecond as the newest cached one may still have been added
+    var fetchSince = cachedMessages.flatMap(GroupMessages::newestTs)
+        .map(newestTs -> newestTs.minusMillis(1))
+        .filter(newestTs -> newestTs.isAfter(since))
+        .orElse(since);
+
+    var uri = buildMessageStreamUri(rcGroupId, 0, 0, fetchSince, null);
+    var messageStream = obtainMessageStream(rcToken, rcUserId, uri);
+    var newMessages = messagesOf(messageStream).stream()
+        .filter(message -> cachedMessages.map(cached -> !cached.contains(message)).orElse(true))
+        .collect(Collectors.toList());
+    newMessages = decryptAndTypeMessages(newMessages, rcGroupId);
+
+    var coveredSince = cachedMessages.map(GroupMessages::getCoveredSince).orElse(since);
+    var mergedMessages = messagePageCache.merge(rcGroupId, coveredSince, newMessages);
+    if (mergedMessages.isEmpty() && cachedMessages.isPresent()) {
+      return getCachedGroupMessages(rcToken, rcUserId, rcGroupId, since);
+    }
 
+    messageStream.setMessages(mergedMessages.isPresent()
+        ? mergedMessages.get().messagesSince(since)
+        : newMessages);
     return messageStream;
   }
 
+  private List<MessagesDTO> messagesOf(MessageStreamDTO messageStream) {
+    return Optional.ofNullable(messageStream.getMessages())
+        .orElseGet(Collections::emptyList);
+  }
+
+  private List<MessagesDTO> decryptAndTypeMessages(List<MessagesDTO> messages, String rcGroupId) {
+    decryptMessages(messages, rcGroupId);
+
+    return messages.stream()
+        .map(this::setMessageType)
+        .map(mapper::typedMessageOf)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Streams the list of messages of the provided Rocket.Chat group as {@link MessageStreamDTO} to
+   * the given output stream. Messages are filtered, decrypted and typed like in
+   * {@link #getGroupMessages(String, String, String, int, int, Instant, MessageCursor)} while the
+   * Rocket.Chat response is read, without holding the whole message history in memory. The
+   * output is only opened after Rocket.Chat answered successfully and the first messages were
+   * decrypted. Failures after it was opened throw a {@link MessageStreamAbortedException}.
+   *
+   * @param rcToken   Rocket.Chat authentication token
+   * @param rcUserId  Rocket.Chat user ID
+   * @param rcGroupId Rocket.Chat group ID
+   * @param cursor    the {@link MessageCursor} of the previous page, null to use the offset
+   * @param output    opens the stream to write the {@link MessageStreamDTO} to
+   */
+  public void streamGroupMessages(String rcToken, String rcUserId, String rcGroupId,
+      int offset, int count, Instant since, MessageCursor cursor, OutputStreamOpener output) {
+    var uri = buildMessageStreamUri(rcGroupId, offset, count, since, cursor);
+    var headers = getRocketChatHeader(rcToken, rcUserId);
+    var opened = new AtomicBoolean();
+
+    try {
+      restTemplate.execute(uri, HttpMethod.GET,
+          request -> request.getHeaders().addAll(headers),
+          response -> {
+            messageStreamWriter.write(response.getBody(), () -> {
+              opened.set(true);
+              return output.open();
+            }, rcGroupId, count);
+            return null;
+          });
+
+    } catch (RuntimeException exception) {
+      if (opened.get()) {
+        throw new MessageStreamAbortedException(exception);
+      }
+      if (!(exception instanceof RestClientException)) {
+        throw exception;
+      }
+      LogService.logRocketChatServiceError(exception);
+      var msg = String.format("Could not stream message stream from Rocket.Chat API (uri: %s)",
+          uri);
+      throw new InternalServerErrorException(msg, LogService::logRocketChatServiceError);
+    }
+  }
+
   private MessageStreamDTO obtainMessageStream(String rcToken, String rcUserId, URI uri) {
     HttpEntity<?> entity = new HttpEntity<>(getRocketChatHeader(rcToken, rcUserId));
 
@@ -141,14 +277,23 @@ public class RocketChatService {
     }
   }
 
-  private URI buildMessageStreamUri(String rcGroupId, int offset, int count, Instant instant) {
+  private URI buildMessageStreamUri(String rcGroupId, int offset, int count, Instant instant,
+      MessageCursor cursor) {
+    // pages which can end with a cursor need the same order as the pages following the cursor
+    var sortValue = isNull(cursor) && count <= 0
+        ? rcQueryParamSortValue
+        : rcQueryParamCursorSortValue;
+    var query = isNull(cursor)
+        ? mapper.queryOperatorSinceAndNot(instant, rcTechnicalUser)
+        : mapper.queryOperatorSinceAndNot(instant, cursor, rcTechnicalUser);
+
     try {
       return UriComponentsBuilder.fromUriString(rcGetGroupMessageUrl)
           .queryParam(rcQueryParamRoomId, rcGroupId)
-          .queryParam(rcQueryParamOffset, offset)
+          .queryParam(rcQueryParamOffset, isNull(cursor) ? offset : 0)
           .queryParam(rcQueryParamCount, count)
-          .queryParam(rcQueryParamSort, rcQueryParamSortValue)
-          .queryParam("query", mapper.queryOperatorSinceAndNot(instant, rcTechnicalUser))
+          .queryParam(rcQueryParamSort, sortValue)
+          .queryParam("query", query)
           .build()
           .encode()
           .toUri();
@@ -160,8 +305,7 @@ public class RocketChatService {
     }
   }
 
-  private MessagesDTO decryptMessageAndSetMessageType(MessagesDTO msg, String rcGroupId) {
-    decryptMessage(msg, rcGroupId);
+  private MessagesDTO setMessageType(MessagesDTO msg) {
     var alias = msg.getAlias();
     if (nonNull(alias)) {
       alias.setMessageType(mapper.messageTypeOf(alias));
@@ -170,9 +314,19 @@ public class RocketChatService {
     return msg;
   }
 
-  private void decryptMessage(MessagesDTO msg, String rcGroupId) {
+  private void decryptMessages(List<MessagesDTO> messages, String rcGroupId) {
+    if (messages.isEmpty()) {
+      return;
+    }
+
     try {
-      msg.setMsg(encryptionService.decrypt(msg.getMsg(), rcGroupId));
+      var encryptedMessages = messages.stream()
+          .map(MessagesDTO::getMsg)
+          .collect(Collectors.toList());
+      var decryptedMessages = messageDecryptionService.decryptAll(encryptedMessages, rcGroupId);
+      for (var i = 0; i < messages.size(); i++) {
+        messages.get(i).setMsg(decryptedMessages.get(i));
+      }
     } catch (CustomCryptoException | NoMasterKeyException ex) {
       throw new InternalServerErrorException(ex, LogService::logEncryptionServiceError);
     }
@@ -266,6 +420,7 @@ public class RocketChatService {
 
     try {
       var response = restTemplate.postForObject(url, request, MessageResponse.class);
+      messagePageCache.evictGroup(message.getRoomId());
       return nonNull(response) && response.getSuccess();
     } catch (HttpClientErrorException exception) {
       log.error("Chat Update-Message failed.", exception);
@@ -397,6 +552,7 @@ public class RocketChatService {
 
     try {
       var response = restTemplate.postForEntity(url, entity, StringifiedMessageResponse.class);
+      messagePageCache.evictGroupOfMessage(messageId);
       return isSuccessful(response);
     } catch (HttpClientErrorException exception) {
       log.error("Deleting message failed.", exception);
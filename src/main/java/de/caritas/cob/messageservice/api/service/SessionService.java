@@ -1,12 +1,20 @@
 package de.caritas.cob.messageservice.api.service;
 
+import static java.util.Objects.isNull;
+
+import com.github.benmanes.caffeine.cache.Cache;
 import com.google.common.collect.Lists;
-import de.caritas.cob.messageservice.api.tenant.TenantContext;
+import de.caritas.cob.messageservice.api.service.helper.ServiceHelper;
+import de.caritas.cob.messageservice.config.CacheRegistry;
+import de.caritas.cob.messageservice.config.apiclient.ApiClientRequestHeaders;
 import de.caritas.cob.messageservice.config.apiclient.ApiControllerFactory;
 import de.caritas.cob.messageservice.userservice.generated.web.model.GroupSessionListResponseDTO;
+import de.caritas.cob.messageservice.userservice.generated.web.model.GroupSessionResponseDTO;
+import de.caritas.cob.messageservice.userservice.generated.web.model.SessionUserDTO;
+import jakarta.annotation.PostConstruct;
+import java.util.Optional;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
-import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Service;
 
 /** Service class to provide handle session methods of the UserService. */
@@ -14,22 +22,53 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class SessionService {
 
-  private final @NonNull SecurityHeaderSupplier securityHeaderSupplier;
-  private final @NonNull TenantHeaderSupplier tenantHeaderSupplier;
+  static final String SESSION_OWNER_CACHE_NAME = "session-owner";
+
+  private final @NonNull ServiceHelper serviceHelper;
   private final @NonNull ApiControllerFactory clientFactory;
+  private final @NonNull CacheRegistry cacheRegistry;
 
+  private Cache<String, Optional<String>> sessionOwners;
+
+  @PostConstruct
+  public void init() {
+    this.sessionOwners = cacheRegistry.cache(SESSION_OWNER_CACHE_NAME);
+  }
 
-  public GroupSessionListResponseDTO findSessionBelongingToRcGroupId(String rcToken, String rcGroupId) {
+  /**
+   * Returns the user ID of the adviceseeker owning the session of the given Rocket.Chat group. The
+   * owner of a group never changes, so it is cached per group and the UserService is only asked
+   * once per time to live. Groups without an owning adviceseeker are cached as well.
+   *
+   * @param rcToken     the Rocket.Chat token of the requesting user
+   * @param rcGroupId   the Rocket.Chat group ID
+   * @param accessToken the Keycloak access token of the requesting user
+   * @param tenantId    the tenant of the requesting user
+   * @return the adviceseeker user ID, empty if the group does not belong to an adviceseeker
+   */
+  public Optional<String> findAdviceseekerUserIdOfRcGroupId(String rcToken, String rcGroupId,
+      String accessToken, Optional<Long> tenantId) {
+    return sessionOwners.get(rcGroupId, groupId -> adviceseekerUserIdOf(
+        findSessionBelongingToRcGroupId(rcToken, groupId, accessToken, tenantId)));
+  }
+
+  private GroupSessionListResponseDTO findSessionBelongingToRcGroupId(String rcToken,
+      String rcGroupId, String accessToken, Optional<Long> tenantId) {
     var userControllerApi = clientFactory.userControllerApi();
-    addDefaultHeaders(userControllerApi.getApiClient());
+    var headers = serviceHelper.getKeycloakAndCsrfAndOriginHttpHeaders(accessToken, tenantId);
 
-    return userControllerApi.getSessionsForGroupIds(rcToken, Lists.newArrayList(rcGroupId));
+    return ApiClientRequestHeaders.callWith(headers, () -> userControllerApi
+        .getSessionsForGroupIds(rcToken, Lists.newArrayList(rcGroupId)));
   }
 
-  private void addDefaultHeaders(
-      de.caritas.cob.messageservice.userservice.generated.ApiClient apiClient) {
-    HttpHeaders headers = this.securityHeaderSupplier.getKeycloakAndCsrfHttpHeaders();
-    tenantHeaderSupplier.addTenantHeader(headers, TenantContext.getCurrentTenantOption());
-    headers.forEach((key, value) -> apiClient.addDefaultHeader(key, value.iterator().next()));
+  private static Optional<String> adviceseekerUserIdOf(GroupSessionListResponseDTO sessions) {
+    if (isNull(sessions) || isNull(sessions.getSessions())) {
+      return Optional.empty();
+    }
+
+    return sessions.getSessions().stream()
+        .findFirst()
+        .map(GroupSessionResponseDTO::getUser)
+        .map(SessionUserDTO::getId);
   }
 }
@@ -0,0 +1,106 @@
+package de.caritas.cob.messageservice.api.service;
+
+import static java.util.Objects.nonNull;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs the side effects of posting a message, e.g. notifications and statistics, and records the
+ * latency of each step as timer, tagged with the step name and its outcome. Asynchronous steps are
+ * dispatched without waiting for each other, so they run concurrently on their executors while
+ * the request thread continues. Steps rejected by their saturated executor are recorded with the
+ * outcome {@code rejected}, steps not completed within the timeout with {@code timeout}.
+ */
+@Component
+@RequiredArgsConstructor
+public class SideEffectPipeline {
+
+  static final String METRIC_NAME = "messageservice.message.sideeffect";
+
+  private final @NonNull MeterRegistry meterRegistry;
+
+  @Value("${side.effect.timeout.millis}")
+  private long timeoutMillis;
+
+  /**
+   * Dispatches an asynchronous step. Its latency is recorded from the dispatch until the returned
+   * future completed, including the time the step waited in the queue of its executor, but at
+   * most until the timeout elapsed.
+   *
+   * @param step       the name of the step
+   * @param sideEffect dispatches the step and returns its completion
+   */
+  public void dispatch(String step, Supplier<CompletableFuture<Void>> sideEffect) {
+    var sample = Timer.start(meterRegistry);
+    try {
+      sideEffect.get().orTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+          .whenComplete((result, exception) -> {
+            stop(sample, step, exception);
+            if (nonNull(exception)) {
+              logFailure(step, exception);
+            }
+          });
+    } catch (RuntimeException exception) {
+      stop(sample, step, exception);
+      logFailure(step, exception);
+    }
+  }
+
+  /**
+   * Runs a step on the calling thread. Failures are passed on to the caller.
+   *
+   * @param step       the name of the step
+   * @param sideEffect the step
+   */
+  public void run(String step, Runnable sideEffect) {
+    var sample = Timer.start(meterRegistry);
+    try {
+      sideEffect.run();
+      stop(sample, step, null);
+    } catch (RuntimeException exception) {
+      stop(sample, step, exception);
+      throw exception;
+    }
+  }
+
+  private void stop(Timer.Sample sample, String step, Throwable exception) {
+    sample.stop(Timer.builder(METRIC_NAME)
+        .description("Latency of the side effects of posting a message")
+        .tag("step", step)
+        .tag("outcome", outcomeOf(exception))
+        .register(meterRegistry));
+  }
+
+  private static String outcomeOf(Throwable exception) {
+    var cause = causeOf(exception);
+    if (cause instanceof RejectedExecutionException) {
+      return "rejected";
+    }
+    if (cause instanceof TimeoutException) {
+      return "timeout";
+    }
+    return nonNull(cause) ? "failure" : "success";
+  }
+
+  private static Throwable causeOf(Throwable exception) {
+    return exception instanceof CompletionException && nonNull(exception.getCause())
+        ? exception.getCause() : exception;
+  }
+
+  private static void logFailure(String step, Throwable exception) {
+    var cause = causeOf(exception);
+    LogService.logInternalServerError(String.format("Side effect %s failed", step),
+        cause instanceof Exception ? (Exception) cause : new IllegalStateException(cause));
+  }
+}
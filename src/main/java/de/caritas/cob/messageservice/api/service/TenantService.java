@@ -1,22 +1,102 @@
 package de.caritas.cob.messageservice.api.service;
 
-import de.caritas.cob.messageservice.config.CacheManagerConfig;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import de.caritas.cob.messageservice.config.CacheRegistry;
 import de.caritas.cob.messageservice.config.apiclient.TenantServiceApiControllerFactory;
+import de.caritas.cob.messageservice.tenantservice.generated.web.model.BasicTenantLicensingDTO;
+import de.caritas.cob.messageservice.tenantservice.generated.web.model.RestrictedTenantDTO;
+import jakarta.annotation.PostConstruct;
+import java.util.List;
+import java.util.Objects;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
-import de.caritas.cob.messageservice.tenantservice.generated.web.model.RestrictedTenantDTO;
 
+/**
+ * Provides the restricted data of tenants, cached per subdomain. Concurrent misses for the same
+ * subdomain wait for a single call to the TenantService, entries are reloaded in the background
+ * once they are older than the refresh interval, so only the very first request of a subdomain
+ * blocks. Hits, misses and load times are exposed as cache metrics of {@value #CACHE_NAME}.
+ */
 @Service
 @RequiredArgsConstructor
 public class TenantService {
 
+  static final String CACHE_NAME = "tenant";
+
   private final @NonNull TenantServiceApiControllerFactory tenantServiceApiControllerFactory;
+  private final @NonNull CacheRegistry cacheRegistry;
+
+  @Value("${cache.tenant.warmup.enabled}")
+  private boolean warmUpEnabled;
+
+  private LoadingCache<String, RestrictedTenantDTO> tenants;
+
+  @PostConstruct
+  public void init() {
+    this.tenants = cacheRegistry.loadingCache(CACHE_NAME, this::loadTenant);
+  }
 
-  @Cacheable(cacheNames = CacheManagerConfig.TENANT_CACHE, key = "#subdomain")
   public RestrictedTenantDTO getRestrictedTenantDataBySubdomain(String subdomain) {
-    return tenantServiceApiControllerFactory.createControllerApi().getRestrictedTenantDataBySubdomainWithHttpInfo(subdomain).getBody();
+    return tenants.get(subdomain);
+  }
+
+  /**
+   * Loads all tenants known to the TenantService into the cache before the application accepts
+   * traffic. A failing warm-up is only logged, the tenants are loaded on demand then.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void warmUp() {
+    if (!warmUpEnabled) {
+      return;
+    }
+
+    List<String> subdomains;
+    try {
+      subdomains = subdomainsOf(tenantServiceApiControllerFactory.createControllerApi()
+          .getAllTenants());
+    } catch (RuntimeException exception) {
+      LogService.logWarning(String.format("Could not warm up %s: %s", CACHE_NAME,
+          exception.getMessage()));
+      return;
+    }
+
+    var loaded = subdomains.stream().filter(this::warmUp).count();
+    LogService.logInfo(String.format("Warmed up %s with %d of %d tenants", CACHE_NAME, loaded,
+        subdomains.size()));
+  }
+
+  private boolean warmUp(String subdomain) {
+    try {
+      return nonNull(tenants.get(subdomain));
+    } catch (RuntimeException exception) {
+      LogService.logWarning(String.format("Could not warm up tenant %s: %s", subdomain,
+          exception.getMessage()));
+      return false;
+    }
   }
 
+  private List<String> subdomainsOf(List<BasicTenantLicensingDTO> allTenants) {
+    if (isNull(allTenants)) {
+      return List.of();
+    }
+
+    return allTenants.stream()
+        .map(BasicTenantLicensingDTO::getSubdomain)
+        .filter(Objects::nonNull)
+        .distinct()
+        .toList();
+  }
+
+  private RestrictedTenantDTO loadTenant(String subdomain) {
+    return tenantServiceApiControllerFactory.createControllerApi()
+        .getRestrictedTenantDataBySubdomainWithHttpInfo(subdomain)
+        .getBody();
+  }
 }
@@ -4,17 +4,32 @@ import com.fasterxml.jackson.annotation.JsonAnyGetter;
 import com.fasterxml.jackson.annotation.JsonAnySetter;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import de.caritas.cob.messageservice.api.helper.UserHelper;
+import de.caritas.cob.messageservice.api.model.AliasMessageDTO;
 import de.caritas.cob.messageservice.api.model.MessageType;
-import java.net.URLDecoder;
-import java.nio.charset.StandardCharsets;
+import de.caritas.cob.messageservice.api.model.jsondeserializer.AliasDecoder;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Optional;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 import org.springframework.util.StringUtils;
 
 @Data
 public class Message {
 
+  private static final long MAX_MEMOIZED_ALIASES = 1000;
+  private static final AliasDecoder ALIAS_DECODER =
+      new AliasDecoder(new UserHelper(), MAX_MEMOIZED_ALIASES, true);
+
+  public static AliasDecoder getAliasDecoder() {
+    return ALIAS_DECODER;
+  }
+
   @JsonProperty("_id")
   private String id;
 
@@ -24,6 +39,24 @@ public class Message {
 
   private String rid;
 
+  /**
+   * The alias parsed on first use, so type checks do not decode the alias again, and the alias
+   * string it was parsed from. It is parsed again as soon as the alias is another one.
+   */
+  @JsonIgnore
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
+  private AliasMessageDTO typedAlias;
+
+  @JsonIgnore
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
+  private String typedAliasSource;
+
   @JsonIgnore
   Map<String, Object> otherProperties = new LinkedHashMap<>();
 
@@ -39,14 +72,44 @@ public class Message {
     return otherProperties;
   }
 
+  public void setAlias(String alias) {
+    this.alias = alias;
+  }
+
+  /**
+   * Sets the alias together with its already known typed view, so it needs not to be parsed.
+   *
+   * @param alias      the alias JSON
+   * @param typedAlias the parsed alias
+   */
+  public void setAlias(String alias, AliasMessageDTO typedAlias) {
+    this.alias = alias;
+    this.typedAlias = typedAlias;
+    this.typedAliasSource = alias;
+  }
+
+  /**
+   * Returns the parsed alias. It is parsed once and cached until the alias changes, so changes to
+   * the returned {@link AliasMessageDTO} are not reflected in the alias string.
+   *
+   * @return the parsed alias, empty if there is none or it is not readable
+   */
   @JsonIgnore
-  public boolean isA(MessageType messageType) {
-    if (StringUtils.isEmpty(alias)) {
-      return false;
+  public Optional<AliasMessageDTO> getTypedAlias() {
+    // identity on purpose, comparing the content would cost as much as parsing large aliases
+    if (typedAliasSource != alias) {
+      typedAlias = StringUtils.hasText(alias) ? ALIAS_DECODER.decode(alias) : null;
+      typedAliasSource = alias;
     }
 
-    return URLDecoder
-        .decode(alias, StandardCharsets.UTF_8)
-        .contains("\"messageType\":\"" + messageType + "\"");
+    return Optional.ofNullable(typedAlias);
+  }
+
+  @JsonIgnore
+  public boolean isA(MessageType messageType) {
+    return getTypedAlias()
+        .map(AliasMessageDTO::getMessageType)
+        .filter(type -> type == messageType)
+        .isPresent();
   }
 }
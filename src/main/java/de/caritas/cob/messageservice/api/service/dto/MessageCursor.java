@@ -0,0 +1,16 @@
+package de.caritas.cob.messageservice.api.service.dto;
+
+import java.time.Instant;
+import lombok.Value;
+
+/**
+ * Position in a Rocket.Chat message stream, given by timestamp and ID of the last message of a
+ * page.
+ */
+@Value
+public class MessageCursor {
+
+  Instant ts;
+
+  String id;
+}
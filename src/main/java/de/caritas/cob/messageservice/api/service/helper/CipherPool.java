@@ -0,0 +1,77 @@
+package de.caritas.cob.messageservice.api.service.helper;
+
+import java.security.GeneralSecurityException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.crypto.Cipher;
+
+/**
+ * Lock-free pool of {@link Cipher} instances for one transformation. Avoids the JCA provider
+ * lookup of {@link Cipher#getInstance(String)} on every en-/decryption. Instances are not bound to
+ * a thread, so the pool also stays small when requests run on short-lived (virtual) threads.
+ */
+public class CipherPool {
+
+  private final String transformation;
+  private final int maxIdle;
+  private final Queue<Cipher> idleCiphers = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger idleCount = new AtomicInteger();
+
+  /**
+   * Creates a pool for the given transformation.
+   *
+   * @param transformation the cipher transformation, e.g. AES/ECB/PKCS5PADDING
+   * @param maxIdle        the maximum number of idle instances kept for reuse
+   */
+  public CipherPool(String transformation, int maxIdle) {
+    this.transformation = transformation;
+    this.maxIdle = maxIdle;
+  }
+
+  /**
+   * Runs the given operation with a pooled {@link Cipher}. The operation has to initialize the
+   * cipher itself, the instance is handed back to the pool afterwards.
+   *
+   * @param operation the operation to run
+   * @param <T>       the result type
+   * @return the result of the operation
+   * @throws GeneralSecurityException if the cipher could not be created or the operation failed
+   */
+  public <T> T execute(CipherOperation<T> operation) throws GeneralSecurityException {
+    var cipher = borrow();
+    try {
+      return operation.apply(cipher);
+    } finally {
+      release(cipher);
+    }
+  }
+
+  private Cipher borrow() throws GeneralSecurityException {
+    var cipher = idleCiphers.poll();
+    if (cipher == null) {
+      return Cipher.getInstance(transformation);
+    }
+    idleCount.decrementAndGet();
+    return cipher;
+  }
+
+  private void release(Cipher cipher) {
+    if (idleCount.incrementAndGet() <= maxIdle) {
+      idleCiphers.offer(cipher);
+    } else {
+      idleCount.decrementAndGet();
+    }
+  }
+
+  /**
+   * Operation on a pooled {@link Cipher}.
+   *
+   * @param <T> the result type
+   */
+  @FunctionalInterface
+  public interface CipherOperation<T> {
+
+    T apply(Cipher cipher) throws GeneralSecurityException;
+  }
+}
@@ -0,0 +1,241 @@
+package de.caritas.cob.messageservice.api.service.outbox;
+
+import static java.util.Objects.nonNull;
+
+import de.caritas.cob.messageservice.api.exception.CustomCryptoException;
+import de.caritas.cob.messageservice.api.exception.NoMasterKeyException;
+import de.caritas.cob.messageservice.api.facade.EmailNotificationFacade;
+import de.caritas.cob.messageservice.api.model.outbox.OutboxPayload;
+import de.caritas.cob.messageservice.api.model.outbox.entity.OutboxEvent;
+import de.caritas.cob.messageservice.api.repository.OutboxEventRepository;
+import de.caritas.cob.messageservice.api.service.LiveEventNotificationService;
+import de.caritas.cob.messageservice.api.service.LogService;
+import de.caritas.cob.messageservice.api.service.statistics.StatisticsService;
+import de.caritas.cob.messageservice.api.service.statistics.event.CreateMessageStatisticsEvent;
+import de.caritas.cob.messageservice.api.tenant.TenantContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.HttpClientErrorException;
+
+/**
+ * Delivers the events of the outbox in batches. The events of a batch are claimed in a short
+ * transaction by moving their next attempt to the end of a lease, so other instances skip them.
+ * They are then sent concurrently outside of any transaction, and removed or rescheduled in a
+ * second short transaction. An event is delivered at least once: if the instance stops
+ * meanwhile, it is due again once its lease ended. Failed events are retried with an exponential
+ * backoff, until the max attempts are reached. Events rejected as unauthorized are dropped right
+ * away, as the access token they are sent with has expired. Payloads are encrypted with the master
+ * key: while it has not been set after a start, the events are kept without counting an attempt,
+ * and events encrypted with a replaced master key are dropped, as they can never be read again.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = OutboxRelay.ENABLED_PROPERTY, havingValue = "true")
+public class OutboxRelay {
+
+  public static final String ENABLED_PROPERTY = "outbox.enabled";
+  static final String METRIC_NAME = "messageservice.outbox.relayed";
+
+  private final @NonNull OutboxEventRepository outboxEventRepository;
+  private final @NonNull OutboxService outboxService;
+  private final @NonNull LiveEventNotificationService liveEventNotificationService;
+  private final @NonNull EmailNotificationFacade emailNotificationFacade;
+  private final @NonNull StatisticsService statisticsService;
+  private final @NonNull TransactionTemplate transactionTemplate;
+  private final @NonNull MeterRegistry meterRegistry;
+
+  @Value("${outbox.relay.batch.size}")
+  private int batchSize;
+
+  @Value("${outbox.relay.threads}")
+  private int threads;
+
+  @Value("${outbox.relay.max.attempts}")
+  private int maxAttempts;
+
+  @Value("${outbox.relay.retry.delay.millis}")
+  private long retryDelayMillis;
+
+  @Value("${outbox.relay.max.retry.delay.millis}")
+  private long maxRetryDelayMillis;
+
+  @Value("${outbox.relay.lease.millis}")
+  private long leaseMillis;
+
+  private ExecutorService executor;
+
+  @PostConstruct
+  public void init() {
+    var threadNumber = new AtomicInteger();
+    this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+      var thread = new Thread(runnable, "outbox-relay-" + threadNumber.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  /**
+   * Relays due events batch by batch, until a batch is not full anymore.
+   */
+  @Scheduled(fixedDelayString = "${outbox.relay.interval.millis}",
+      initialDelayString = "${outbox.relay.interval.millis}")
+  public void relay() {
+    List<OutboxEvent> events;
+    var masterKeySet = true;
+    do {
+      events = transactionTemplate.execute(status -> claimBatch());
+      if (nonNull(events) && !events.isEmpty()) {
+        masterKeySet = relayBatch(events);
+      }
+    } while (masterKeySet && nonNull(events) && events.size() == batchSize);
+  }
+
+  private List<OutboxEvent> claimBatch() {
+    var now = LocalDateTime.now();
+    var events = outboxEventRepository.findByNextAttemptDateLessThanEqualOrderByIdAsc(now,
+        PageRequest.of(0, batchSize));
+    var leaseEnd = now.plus(Duration.ofMillis(leaseMillis));
+    events.forEach(event -> event.setNextAttemptDate(leaseEnd));
+    return events;
+  }
+
+  /**
+   * Delivers the claimed events and removes or reschedules them.
+   *
+   * @return false if the master key has not been set yet, so no event could be delivered
+   */
+  private boolean relayBatch(List<OutboxEvent> events) {
+    var now = LocalDateTime.now();
+    var sent = new ArrayList<OutboxEvent>();
+    var deliveries = new ArrayList<CompletableFuture<Throwable>>();
+    var delivered = new ArrayList<OutboxEvent>();
+    var retried = new ArrayList<OutboxEvent>();
+    var masterKeySet = true;
+    for (var event : events) {
+      try {
+        var payload = outboxService.payloadOf(event);
+        sent.add(event);
+        deliveries.add(CompletableFuture.runAsync(() -> deliver(event, payload), executor)
+            .handle((result, exception) -> exception));
+      } catch (NoMasterKeyException e) {
+        // due again right away, the master key is set again after each start
+        event.setNextAttemptDate(now);
+        retried.add(event);
+        count(event, "no_master_key");
+        masterKeySet = false;
+      } catch (CustomCryptoException | IllegalStateException e) {
+        delivered.add(event);
+        count(event, "unreadable");
+        LogService.logInternalServerError(String.format(
+            "Dropped outbox event %s of type %s, its payload can not be read with the current "
+                + "master key", event.getId(), event.getType()), e);
+      }
+    }
+    if (!masterKeySet) {
+      LogService.logWarning("Outbox events are kept until the master key has been set");
+    }
+
+    for (var i = 0; i < sent.size(); i++) {
+      var event = sent.get(i);
+      var failure = deliveries.get(i).join();
+      if (failure == null) {
+        delivered.add(event);
+        count(event, "success");
+      } else if (causeOf(failure) instanceof HttpClientErrorException.Unauthorized) {
+        delivered.add(event);
+        count(event, "unauthorized");
+        LogService.logWarning(String.format(
+            "Dropped outbox event %s of type %s, its access token has expired", event.getId(),
+            event.getType()));
+      } else if (event.getAttempts() + 1 >= maxAttempts) {
+        delivered.add(event);
+        count(event, "dropped");
+        LogService.logInternalServerError(String.format(
+            "Dropped outbox event %s of type %s after %s attempts", event.getId(),
+            event.getType(), maxAttempts), causeOf(failure));
+      } else {
+        scheduleRetry(event);
+        retried.add(event);
+        count(event, "retry");
+      }
+    }
+
+    transactionTemplate.executeWithoutResult(status -> {
+      outboxEventRepository.deleteAll(delivered);
+      // events deleted by an instance which claimed them after the lease ended are not restored
+      outboxEventRepository.saveAll(retried.stream()
+          .filter(event -> outboxEventRepository.existsById(event.getId()))
+          .toList());
+    });
+    return masterKeySet;
+  }
+
+  private void deliver(OutboxEvent event, OutboxPayload payload) {
+    var rcGroupId = event.getRcGroupId();
+    var tenantId = Optional.ofNullable(event.getTenantId());
+
+    TenantContext.setCurrentTenant(event.getTenantId());
+    try {
+      switch (event.getType()) {
+        case LIVE_EVENT -> liveEventNotificationService.sendLiveEventNow(rcGroupId,
+            payload.accessToken(), tenantId);
+        case NEW_MESSAGE_EMAIL -> emailNotificationFacade.sendEmailAboutNewChatMessageNow(
+            rcGroupId, tenantId, payload.accessToken());
+        case CREATE_MESSAGE_STATISTICS -> statisticsService.fireEventNow(
+            new CreateMessageStatisticsEvent(payload.userId(), payload.userRole(), rcGroupId,
+                false, payload::receiverId, event.getTenantId()));
+        default -> throw new IllegalStateException("Unknown outbox event type "
+            + event.getType());
+      }
+    } finally {
+      TenantContext.clear();
+    }
+  }
+
+  private void scheduleRetry(OutboxEvent event) {
+    event.setAttempts(event.getAttempts() + 1);
+    var delay = retryDelayMillis << Math.min(event.getAttempts() - 1, 30);
+    event.setNextAttemptDate(LocalDateTime.now()
+        .plus(Duration.ofMillis(Math.min(delay, maxRetryDelayMillis))));
+  }
+
+  private void count(OutboxEvent event, String outcome) {
+    Counter.builder(METRIC_NAME)
+        .description("Outbox events processed by the relay")
+        .tag("type", event.getType().name())
+        .tag("outcome", outcome)
+        .register(meterRegistry)
+        .increment();
+  }
+
+  private static Exception causeOf(Throwable failure) {
+    var cause = failure instanceof CompletionException && nonNull(failure.getCause())
+        ? failure.getCause() : failure;
+    return cause instanceof Exception exception ? exception : new IllegalStateException(cause);
+  }
+}
@@ -0,0 +1,117 @@
+package de.caritas.cob.messageservice.api.service.outbox;
+
+import static de.caritas.cob.messageservice.config.AsyncExecutorConfig.STATISTICS_EXECUTOR;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.caritas.cob.messageservice.api.exception.CustomCryptoException;
+import de.caritas.cob.messageservice.api.exception.NoMasterKeyException;
+import de.caritas.cob.messageservice.api.model.outbox.OutboxEventType;
+import de.caritas.cob.messageservice.api.model.outbox.OutboxPayload;
+import de.caritas.cob.messageservice.api.model.outbox.entity.OutboxEvent;
+import de.caritas.cob.messageservice.api.repository.OutboxEventRepository;
+import de.caritas.cob.messageservice.api.service.EncryptionService;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Stores the side effects of posted messages in the outbox table, from where the
+ * {@link OutboxRelay} delivers them. The payload is encrypted with the Rocket.Chat group ID as
+ * secret, like the drafts of the group.
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+  private final @NonNull OutboxEventRepository outboxEventRepository;
+  private final @NonNull EncryptionService encryptionService;
+  private final @NonNull ObjectMapper objectMapper;
+
+  /**
+   * Creates an event, which is due immediately.
+   *
+   * @param type      the type of the event
+   * @param rcGroupId the Rocket.Chat group ID of the message
+   * @param tenantId  the tenant of the user
+   * @param payload   the request data to relay the event with
+   * @return the event, not stored yet
+   */
+  public OutboxEvent eventOf(OutboxEventType type, String rcGroupId, Optional<Long> tenantId,
+      OutboxPayload payload) {
+    var now = LocalDateTime.now();
+    try {
+      return OutboxEvent.builder()
+          .type(type)
+          .rcGroupId(rcGroupId)
+          .tenantId(tenantId.orElse(null))
+          .payload(encryptionService.encrypt(objectMapper.writeValueAsString(payload), rcGroupId))
+          .nextAttemptDate(now)
+          .createDate(now)
+          .build();
+    } catch (JsonProcessingException | CustomCryptoException e) {
+      throw new IllegalStateException("Could not create outbox event of type " + type, e);
+    }
+  }
+
+  /**
+   * Stores the given events in one transaction.
+   *
+   * @param events the events
+   */
+  @Transactional
+  public void enqueue(List<OutboxEvent> events) {
+    outboxEventRepository.saveAll(events);
+  }
+
+  /**
+   * Creates and stores an event on the statistics executor, for payloads which need to be looked up
+   * first, e.g. the receiver of a statistics event. The event is lost if the instance stops before.
+   *
+   * @param type      the type of the event
+   * @param rcGroupId the Rocket.Chat group ID of the message
+   * @param tenantId  the tenant of the user
+   * @param payload   looks up the request data to relay the event with
+   * @return completes when the event was stored
+   */
+  @Async(STATISTICS_EXECUTOR)
+  public CompletableFuture<Void> enqueueAsync(OutboxEventType type, String rcGroupId,
+      Optional<Long> tenantId, Supplier<OutboxPayload> payload) {
+    outboxEventRepository.save(eventOf(type, rcGroupId, tenantId, payload.get()));
+    return CompletableFuture.completedFuture(null);
+  }
+
+  /**
+   * Decrypts the payload of the given event.
+   *
+   * @param event the event
+   * @return the request data to relay the event with
+   * @throws CustomCryptoException if the payload can not be decrypted with the current master key
+   * @throws NoMasterKeyException if no master key has been set yet
+   * @throws IllegalStateException if the decrypted payload can not be read
+   */
+  public OutboxPayload payloadOf(OutboxEvent event) throws CustomCryptoException {
+    String payload;
+    try {
+      payload = encryptionService.decrypt(event.getPayload(), event.getRcGroupId());
+    } catch (CustomCryptoException e) {
+      if (e.getCause() instanceof NoMasterKeyException noMasterKeyException) {
+        throw noMasterKeyException;
+      }
+      throw e;
+    }
+    try {
+      return objectMapper.readValue(payload, OutboxPayload.class);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Could not read payload of outbox event " + event.getId(),
+          e);
+    }
+  }
+}
@@ -0,0 +1,160 @@
+package de.caritas.cob.messageservice.api.service.statistics;
+
+import de.caritas.cob.messageservice.api.service.LogService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes statistics messages in batches. Messages are buffered and sent once a batch is full or
+ * the max delay passed. All messages of a batch are sent on one channel, which then waits once for
+ * the publisher confirms of the whole batch, instead of one round trip per message.
+ */
+@Component
+@RequiredArgsConstructor
+public class StatisticsEventPublisher {
+
+  static final String METRIC_PREFIX = "messageservice.statistics.publisher";
+
+  private final @NonNull RabbitTemplate rabbitTemplate;
+  private final @NonNull MeterRegistry meterRegistry;
+
+  @Value("${statistics.rabbitmq.exchange.name}")
+  private String rabbitMqExchangeName;
+
+  @Value("${statistics.rabbitmq.publisher.batch.size}")
+  private int batchSize;
+
+  @Value("${statistics.rabbitmq.publisher.batch.max.delay.millis}")
+  private long maxDelayMillis;
+
+  @Value("${statistics.rabbitmq.publisher.buffer.capacity}")
+  private int bufferCapacity;
+
+  @Value("${statistics.rabbitmq.publisher.confirm.timeout.millis}")
+  private long confirmTimeoutMillis;
+
+  private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+  private BlockingQueue<PendingMessage> buffer;
+  private ScheduledExecutorService scheduler;
+  private Counter publishedCounter;
+  private Counter failedCounter;
+  private Counter droppedCounter;
+
+  @PostConstruct
+  public void init() {
+    this.publishedCounter = counter("published", "Statistics messages confirmed by the broker");
+    this.failedCounter = counter("failed", "Statistics messages not confirmed by the broker");
+    this.droppedCounter = counter("dropped", "Statistics messages dropped as the buffer was full");
+
+    this.buffer = new LinkedBlockingQueue<>(bufferCapacity);
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      var thread = new Thread(runnable, "statistics-publisher");
+      thread.setDaemon(true);
+      return thread;
+    });
+    scheduler.scheduleWithFixedDelay(this::flush, maxDelayMillis, maxDelayMillis,
+        TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Publishes the buffered messages before the publisher is stopped.
+   */
+  @PreDestroy
+  public void shutdown() {
+    scheduler.shutdownNow();
+    flush();
+  }
+
+  /**
+   * Buffers a message for the statistics exchange. Returns immediately, the message is sent with
+   * the next batch.
+   *
+   * @param routingKey the routing key, i.e. the event type
+   * @param message    the message
+   */
+  public void publish(String routingKey, Message message) {
+    if (!buffer.offer(new PendingMessage(routingKey, message))) {
+      droppedCounter.increment();
+      LogService.logStatisticsEventWarning(String.format(
+          "Statistics message buffer is full, dropped message with routing key %s", routingKey));
+      return;
+    }
+
+    if (buffer.size() >= batchSize && flushRequested.compareAndSet(false, true)) {
+      scheduler.execute(() -> {
+        flushRequested.set(false);
+        flush();
+      });
+    }
+  }
+
+  /**
+   * Sends a message to the statistics exchange on the calling thread and waits for the publisher
+   * confirm of the broker, e.g. for callers which may only forget the message once it is sent.
+   *
+   * @param routingKey the routing key, i.e. the event type
+   * @param message    the message
+   * @throws AmqpException if the message could not be sent or was not confirmed
+   */
+  public void publishNow(String routingKey, Message message) {
+    try {
+      sendConfirmed(List.of(new PendingMessage(routingKey, message)));
+    } catch (AmqpException e) {
+      failedCounter.increment();
+      throw e;
+    }
+  }
+
+  synchronized void flush() {
+    var batch = new ArrayList<PendingMessage>(batchSize);
+    while (buffer.drainTo(batch, batchSize) > 0) {
+      send(batch);
+      batch.clear();
+    }
+  }
+
+  private void send(List<PendingMessage> batch) {
+    try {
+      sendConfirmed(batch);
+    } catch (AmqpException e) {
+      failedCounter.increment(batch.size());
+      LogService.logStatisticsEventError(e);
+    }
+  }
+
+  private void sendConfirmed(List<PendingMessage> batch) {
+    rabbitTemplate.invoke(operations -> {
+      batch.forEach(pending -> operations.send(rabbitMqExchangeName, pending.routingKey(),
+          pending.message()));
+      operations.waitForConfirmsOrDie(confirmTimeoutMillis);
+      return null;
+    });
+    publishedCounter.increment(batch.size());
+  }
+
+  private Counter counter(String name, String description) {
+    return Counter.builder(METRIC_PREFIX + "." + name)
+        .description(description)
+        .register(meterRegistry);
+  }
+
+  private record PendingMessage(String routingKey, Message message) {}
+}
@@ -1,11 +1,16 @@
 package de.caritas.cob.messageservice.api.service.statistics;
 
+import static de.caritas.cob.messageservice.config.AsyncExecutorConfig.STATISTICS_EXECUTOR;
+
 import de.caritas.cob.messageservice.api.service.LogService;
 import de.caritas.cob.messageservice.api.service.statistics.event.StatisticsEvent;
 import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
 import org.springframework.amqp.core.AmqpTemplate;
+import org.springframework.amqp.core.Message;
 import org.springframework.amqp.core.MessageBuilder;
 import org.springframework.amqp.core.MessageProperties;
 import org.springframework.beans.factory.annotation.Value;
@@ -18,6 +23,7 @@ import org.springframework.stereotype.Service;
 public class StatisticsService {
 
   private final @NotNull AmqpTemplate amqpTemplate;
+  private final @NotNull StatisticsEventPublisher statisticsEventPublisher;
 
   @Value("${statistics.enabled}")
   private boolean statisticsEnabled;
@@ -25,30 +31,59 @@ public class StatisticsService {
   @Value("${statistics.rabbitmq.exchange.name}")
   private String rabbitMqExchangeName;
 
+  @Value("${statistics.rabbitmq.publisher.batch.enabled}")
+  private boolean batchPublishingEnabled;
+
   /**
-   * Entry point to write statistics event data to the statistics queue.
+   * Entry point to write statistics event data to the statistics queue. With batch publishing
+   * enabled, the message is handed to the {@link StatisticsEventPublisher} and sent with the next
+   * batch.
    *
    * @param statisticsEvent the concrete {@link StatisticsEvent}
+   * @return completes when the event was sent or buffered
    */
-  @Async
-  public void fireEvent(StatisticsEvent statisticsEvent) {
+  @Async(STATISTICS_EXECUTOR)
+  public CompletableFuture<Void> fireEvent(StatisticsEvent statisticsEvent) {
+    if (statisticsEnabled) {
+      messageOf(statisticsEvent).ifPresent(message -> {
+        var routingKey = statisticsEvent.getEventType().toString();
+        if (batchPublishingEnabled) {
+          statisticsEventPublisher.publish(routingKey, message);
+        } else {
+          amqpTemplate.convertAndSend(rabbitMqExchangeName, routingKey, message);
+        }
+      });
+    }
+    return CompletableFuture.completedFuture(null);
+  }
 
+  /**
+   * Writes statistics event data to the statistics queue on the calling thread and waits until the
+   * broker confirmed it.
+   *
+   * @param statisticsEvent the concrete {@link StatisticsEvent}
+   * @throws org.springframework.amqp.AmqpException if the event could not be sent or was not
+   *                                                confirmed
+   */
+  public void fireEventNow(StatisticsEvent statisticsEvent) {
     if (statisticsEnabled) {
-      statisticsEvent
-          .getPayload()
-          .ifPresentOrElse(
-              payload ->
-                  amqpTemplate.convertAndSend(
-                      rabbitMqExchangeName,
-                      statisticsEvent.getEventType().toString(),
-                      MessageBuilder.withBody(payload.getBytes(StandardCharsets.UTF_8))
-                          .setContentType(MessageProperties.CONTENT_TYPE_JSON)
-                          .build()),
-              () ->
-                  LogService.logStatisticsEventWarning(
-                      String.format(
-                          "Empty statistics event message payload for type %s received",
-                          statisticsEvent.getClass().getSimpleName())));
+      messageOf(statisticsEvent).ifPresent(message -> statisticsEventPublisher.publishNow(
+          statisticsEvent.getEventType().toString(), message));
+    }
+  }
+
+  private Optional<Message> messageOf(StatisticsEvent statisticsEvent) {
+    var payload = statisticsEvent.getPayload();
+    if (payload.isEmpty()) {
+      LogService.logStatisticsEventWarning(
+          String.format(
+              "Empty statistics event message payload for type %s received",
+              statisticsEvent.getClass().getSimpleName()));
     }
+    return payload.map(
+        json ->
+            MessageBuilder.withBody(json.getBytes(StandardCharsets.UTF_8))
+                .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+                .build());
   }
 }
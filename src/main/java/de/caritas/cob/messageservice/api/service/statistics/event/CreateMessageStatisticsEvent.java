@@ -7,12 +7,14 @@ import de.caritas.cob.messageservice.statisticsservice.generated.web.model.Event
 import de.caritas.cob.messageservice.statisticsservice.generated.web.model.CreateMessageStatisticsEventMessage;
 import de.caritas.cob.messageservice.statisticsservice.generated.web.model.UserRole;
 import java.util.Optional;
+import java.util.function.Supplier;
 import lombok.AllArgsConstructor;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 
 /**
- * Create message statistics event.
+ * Create message statistics event. The receiver may be resolved lazily when the payload is built,
+ * so lookups only needed for the statistics happen off the request path.
  */
 @RequiredArgsConstructor
 @AllArgsConstructor
@@ -25,10 +27,15 @@ public class CreateMessageStatisticsEvent implements StatisticsEvent {
   private @NonNull String rcGroupId;
   private @NonNull Boolean hasAttachment;
 
-  private String receiverId;
+  private Supplier<String> receiverIdSupplier;
 
   private Long  tenantId;
 
+  public CreateMessageStatisticsEvent(String userId, UserRole userRole, String rcGroupId,
+      Boolean hasAttachment, String receiverId, Long tenantId) {
+    this(userId, userRole, rcGroupId, hasAttachment, () -> receiverId, tenantId);
+  }
+
   /** {@inheritDoc} */
   @Override
   public Optional<String> getPayload() {
@@ -49,7 +56,7 @@ public class CreateMessageStatisticsEvent implements StatisticsEvent {
         .userRole(userRole)
         .rcGroupId(rcGroupId)
         .hasAttachment(hasAttachment)
-        .receiverId(receiverId)
+        .receiverId(receiverIdSupplier == null ? null : receiverIdSupplier.get())
         .tenantId(tenantId)
         .timestamp(CustomOffsetDateTime.nowInUtc());
   }
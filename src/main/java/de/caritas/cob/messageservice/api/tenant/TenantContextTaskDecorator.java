@@ -0,0 +1,35 @@
+package de.caritas.cob.messageservice.api.tenant;
+
+import static java.util.Objects.isNull;
+
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Runs asynchronous tasks with the {@link TenantContext} of the submitting thread and restores the
+ * previous tenant of the executing thread afterwards.
+ */
+public class TenantContextTaskDecorator implements TaskDecorator {
+
+  @Override
+  public Runnable decorate(Runnable runnable) {
+    var tenantId = TenantContext.getCurrentTenant();
+
+    return () -> {
+      var previousTenantId = TenantContext.getCurrentTenant();
+      setOrClear(tenantId);
+      try {
+        runnable.run();
+      } finally {
+        setOrClear(previousTenantId);
+      }
+    };
+  }
+
+  private static void setOrClear(Long tenantId) {
+    if (isNull(tenantId)) {
+      TenantContext.clear();
+    } else {
+      TenantContext.setCurrentTenant(tenantId);
+    }
+  }
+}
@@ -0,0 +1,38 @@
+package de.caritas.cob.messageservice.api.tenant;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Resolution of the tenant of one request. Each resolver is asked once, its result is memoized for
+ * the request, as resolving may call the TenantService or walk the claims of the access token.
+ */
+class TenantResolutionContext {
+
+  private final HttpServletRequest request;
+  private final Map<TenantResolver, Optional<Long>> resolvedTenants = new IdentityHashMap<>();
+
+  TenantResolutionContext(HttpServletRequest request) {
+    this.request = request;
+  }
+
+  /**
+   * Returns the tenant of the first of the given resolvers which can resolve one.
+   *
+   * @param tenantResolvers the resolvers in order of precedence
+   * @return the tenant ID, empty if no resolver can resolve it
+   */
+  Optional<Long> firstResolvedTenant(List<TenantResolver> tenantResolvers) {
+    for (TenantResolver tenantResolver : tenantResolvers) {
+      var tenantId = resolvedTenants.computeIfAbsent(tenantResolver,
+          resolver -> resolver.resolve(request));
+      if (tenantId.isPresent()) {
+        return tenantId;
+      }
+    }
+    return Optional.empty();
+  }
+}
@@ -1,7 +1,12 @@
 package de.caritas.cob.messageservice.api.tenant;
 
 import static com.google.common.collect.Lists.newArrayList;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import de.caritas.cob.messageservice.config.CacheRegistry;
+import jakarta.annotation.PostConstruct;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -12,6 +17,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.stereotype.Component;
 
 @Slf4j
@@ -20,6 +26,10 @@ import org.springframework.stereotype.Component;
 @Component
 public class TenantResolverService {
 
+  private static final String TENANT_HEADER = "tenantId";
+
+  static final String RESOLVED_TENANTS_CACHE_NAME = "tenant-resolution";
+
   @NonNull
   CustomHeaderTenantResolver customHeaderTenantResolver;
 
@@ -32,9 +42,23 @@ public class TenantResolverService {
   @NonNull
   AccessTokenTenantResolver accessTokenTenantResolver;
 
+  @NonNull
+  CacheRegistry cacheRegistry;
+
   @Value("${feature.multitenancy.with.single.domain.enabled}")
   private boolean multitenancyWithSingleDomain;
 
+  /**
+   * Tenants resolved for authenticated users, keyed by their access token and everything else the
+   * resolution depends on, so repeated requests with the same token skip the resolvers.
+   */
+  private Cache<ResolutionKey, Long> resolvedTenants;
+
+  @PostConstruct
+  public void init() {
+    this.resolvedTenants = cacheRegistry.cache(RESOLVED_TENANTS_CACHE_NAME);
+  }
+
   private List<TenantResolver> nonAuthenticatedTenantResolvers() {
     return newArrayList(customHeaderTenantResolver, subdomainTenantResolver);
   }
@@ -48,20 +72,23 @@ public class TenantResolverService {
   }
 
   public Long resolve(HttpServletRequest request) {
+    var context = new TenantResolutionContext(request);
     if (userIsAuthenticated(request)) {
-      return resolveForAuthenticatedUser(request);
+      return resolutionKeyOf(request)
+          .map(key -> resolvedTenants.get(key, k -> resolveForAuthenticatedUser(context)))
+          .orElseGet(() -> resolveForAuthenticatedUser(context));
     } else {
-      return resolveForNonAuthenticatedUser(request);
+      return resolveForNonAuthenticatedUser(context);
     }
   }
 
-  private Long resolveForAuthenticatedUser(HttpServletRequest request) {
-    var tenantId = getFirstResolvedTenant(request, authenticatedTenantResolvers());
+  private Long resolveForAuthenticatedUser(TenantResolutionContext context) {
+    var tenantId = context.firstResolvedTenant(authenticatedTenantResolvers());
     if (multitenancyWithSingleDomain) {
       return tenantId.orElseThrow();
     } else {
       if (shouldValidateResolvedTenant(tenantId)) {
-        Optional<Long> tenantIdFromCustomHeaderOrSubdomain = getFirstResolvedTenant(request,
+        Optional<Long> tenantIdFromCustomHeaderOrSubdomain = context.firstResolvedTenant(
             tenantIdCrossValidationResolvers());
         validateResolvedTenantMatch(tenantId, tenantIdFromCustomHeaderOrSubdomain);
       }
@@ -77,8 +104,8 @@ public class TenantResolverService {
     return tenantId.isPresent() && tenantId.get().equals(0L);
   }
 
-  private Long resolveForNonAuthenticatedUser(HttpServletRequest request) {
-    var tenantId = getFirstResolvedTenant(request, nonAuthenticatedTenantResolvers());
+  private Long resolveForNonAuthenticatedUser(TenantResolutionContext context) {
+    var tenantId = context.firstResolvedTenant(nonAuthenticatedTenantResolvers());
     if (tenantId.isEmpty()) {
       throw new AccessDeniedException("Tenant id could not be resolved");
     }
@@ -96,17 +123,32 @@ public class TenantResolverService {
     }
   }
 
-  private Optional<Long> getFirstResolvedTenant(HttpServletRequest request,
-      List<TenantResolver> tenantResolvers) {
-    for (TenantResolver tenantResolver : tenantResolvers) {
-      if (tenantResolver.canResolve(request)) {
-        return tenantResolver.resolve(request);
-      }
+  private boolean userIsAuthenticated(HttpServletRequest request) {
+    return request.getUserPrincipal() != null;
+  }
+
+  /**
+   * The resolved tenant depends on the claims of the access token, the subdomain of the requested
+   * host and the tenant header, so all of them are part of the key. Tokens are identified by
+   * their ID or, if they have none, by their subject, whose tenant never changes.
+   */
+  private Optional<ResolutionKey> resolutionKeyOf(HttpServletRequest request) {
+    if (!(request.getUserPrincipal() instanceof JwtAuthenticationToken authentication)
+        || isNull(authentication.getToken())) {
+      return Optional.empty();
+    }
+
+    var jwt = authentication.getToken();
+    var tokenId = nonNull(jwt.getId()) ? jwt.getId() : jwt.getSubject();
+    if (isNull(tokenId)) {
+      return Optional.empty();
     }
-    return Optional.empty();
+
+    return Optional.of(new ResolutionKey(tokenId, request.getServerName(),
+        request.getHeader(TENANT_HEADER)));
   }
 
-  private boolean userIsAuthenticated(HttpServletRequest request) {
-    return request.getUserPrincipal() != null;
+  private record ResolutionKey(String tokenId, String serverName, String tenantHeader) {
+
   }
 }
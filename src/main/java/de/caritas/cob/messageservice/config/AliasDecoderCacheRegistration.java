@@ -0,0 +1,31 @@
+package de.caritas.cob.messageservice.config;
+
+import de.caritas.cob.messageservice.api.model.jsondeserializer.AliasJsonDeserializer;
+import de.caritas.cob.messageservice.api.service.dto.Message;
+import jakarta.annotation.PostConstruct;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Registers the memos of the alias decoders as caches. The decoders are held in static fields, as
+ * Jackson creates the deserializer and the messages without the application context, so their
+ * caches are adopted by the {@link CacheRegistry} instead of being created from their spec.
+ */
+@Component
+@RequiredArgsConstructor
+public class AliasDecoderCacheRegistration {
+
+  static final String ALIAS_DECODER_CACHE_NAME = "alias-decoder";
+  static final String MESSAGE_ALIAS_DECODER_CACHE_NAME = "message-alias-decoder";
+
+  private final @NonNull CacheRegistry cacheRegistry;
+
+  @PostConstruct
+  public void registerAliasDecoderCaches() {
+    cacheRegistry.adopt(ALIAS_DECODER_CACHE_NAME,
+        AliasJsonDeserializer.getSharedDecoder().getDecodedAliases());
+    cacheRegistry.adopt(MESSAGE_ALIAS_DECODER_CACHE_NAME,
+        Message.getAliasDecoder().getDecodedAliases());
+  }
+}
@@ -0,0 +1,110 @@
+package de.caritas.cob.messageservice.config;
+
+import de.caritas.cob.messageservice.api.tenant.TenantContextTaskDecorator;
+import de.caritas.cob.messageservice.config.AsyncExecutorProperties.Pool;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionHandler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Separate, bounded executors for the asynchronous notifications, so a slow receiver only
+ * backs up its own queue instead of starving the other async work.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class AsyncExecutorConfig {
+
+  public static final String EMAIL_NOTIFICATION_EXECUTOR = "emailNotificationExecutor";
+  public static final String LIVE_EVENT_EXECUTOR = "liveEventExecutor";
+  public static final String STATISTICS_EXECUTOR = "statisticsExecutor";
+
+  private static final String REJECTED_METRIC = "executor.rejected";
+
+  private final AsyncExecutorProperties properties;
+  private final VirtualThreadSupport virtualThreadSupport;
+
+  @Bean(EMAIL_NOTIFICATION_EXECUTOR)
+  public ThreadPoolTaskExecutor emailNotificationExecutor(MeterRegistry meterRegistry) {
+    return buildExecutor(EMAIL_NOTIFICATION_EXECUTOR, properties.getEmail(), meterRegistry);
+  }
+
+  @Bean(LIVE_EVENT_EXECUTOR)
+  public ThreadPoolTaskExecutor liveEventExecutor(MeterRegistry meterRegistry) {
+    return buildExecutor(LIVE_EVENT_EXECUTOR, properties.getLiveEvent(), meterRegistry);
+  }
+
+  @Bean(STATISTICS_EXECUTOR)
+  public ThreadPoolTaskExecutor statisticsExecutor(MeterRegistry meterRegistry) {
+    return buildExecutor(STATISTICS_EXECUTOR, properties.getStatistics(), meterRegistry);
+  }
+
+  private ThreadPoolTaskExecutor buildExecutor(String name, Pool pool,
+      MeterRegistry meterRegistry) {
+    var executor = buildPlatformExecutor(name, pool, meterRegistry);
+    // the pool and queue bounds are kept, only the threads become virtual
+    virtualThreadSupport.threadFactory(name + "-").ifPresent(executor::setThreadFactory);
+    return executor;
+  }
+
+  /**
+   * Exports queue depth, active and pooled threads of the async executors, tagged with the
+   * executor name.
+   *
+   * @return the {@link MeterBinder} registering the executor metrics
+   */
+  @Bean
+  public MeterBinder asyncExecutorMetrics(
+      @Qualifier(EMAIL_NOTIFICATION_EXECUTOR) ThreadPoolTaskExecutor emailNotificationExecutor,
+      @Qualifier(LIVE_EVENT_EXECUTOR) ThreadPoolTaskExecutor liveEventExecutor,
+      @Qualifier(STATISTICS_EXECUTOR) ThreadPoolTaskExecutor statisticsExecutor) {
+    return registry -> {
+      bindExecutorMetrics(registry, emailNotificationExecutor, EMAIL_NOTIFICATION_EXECUTOR);
+      bindExecutorMetrics(registry, liveEventExecutor, LIVE_EVENT_EXECUTOR);
+      bindExecutorMetrics(registry, statisticsExecutor, STATISTICS_EXECUTOR);
+    };
+  }
+
+  static ThreadPoolTaskExecutor buildPlatformExecutor(String name, Pool pool,
+      MeterRegistry meterRegistry) {
+    var executor = new ThreadPoolTaskExecutor();
+    executor.setBeanName(name);
+    executor.setThreadNamePrefix(name + "-");
+    executor.setCorePoolSize(pool.getCorePoolSize());
+    executor.setMaxPoolSize(pool.getMaxPoolSize());
+    executor.setQueueCapacity(pool.getQueueCapacity());
+    executor.setRejectedExecutionHandler(countingRejections(name, pool, meterRegistry));
+    executor.setTaskDecorator(new TenantContextTaskDecorator());
+    executor.setWaitForTasksToCompleteOnShutdown(true);
+    executor.setAwaitTerminationSeconds(10);
+    return executor;
+  }
+
+  private static RejectedExecutionHandler countingRejections(String name, Pool pool,
+      MeterRegistry meterRegistry) {
+    var rejections = Counter.builder(REJECTED_METRIC)
+        .description("Tasks rejected because the executor and its queue were full")
+        .tag("name", name)
+        .tag("policy", pool.getRejectionPolicy().name())
+        .register(meterRegistry);
+    var policy = pool.getRejectionPolicy().handler();
+
+    return (runnable, executor) -> {
+      rejections.increment();
+      policy.rejectedExecution(runnable, executor);
+    };
+  }
+
+  private static void bindExecutorMetrics(MeterRegistry registry,
+      ThreadPoolTaskExecutor executor, String name) {
+    new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), name, List.of())
+        .bindTo(registry);
+  }
+}
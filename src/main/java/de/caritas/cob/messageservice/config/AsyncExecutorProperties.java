@@ -0,0 +1,57 @@
+package de.caritas.cob.messageservice.config;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Supplier;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+@Data
+@Validated
+@Configuration
+@ConfigurationProperties(prefix = "async.executor")
+public class AsyncExecutorProperties {
+
+  private @Valid @NotNull Pool email;
+  private @Valid @NotNull Pool liveEvent;
+  private @Valid @NotNull Pool statistics;
+
+  @Data
+  public static class Pool {
+
+    private @Positive int corePoolSize;
+    private @Positive int maxPoolSize;
+    private @PositiveOrZero int queueCapacity;
+    private @NotNull RejectionPolicy rejectionPolicy;
+  }
+
+  /**
+   * What happens to a task when the pool and its queue are full.
+   */
+  public enum RejectionPolicy {
+
+    /** Runs the task on the submitting thread, slowing the caller down. */
+    CALLER_RUNS(ThreadPoolExecutor.CallerRunsPolicy::new),
+    /**
+     * Rejects the task with a {@link java.util.concurrent.RejectedExecutionException}, which the
+     * side effect pipeline records with the outcome {@code rejected}.
+     */
+    ABORT(ThreadPoolExecutor.AbortPolicy::new);
+
+    private final Supplier<RejectedExecutionHandler> handler;
+
+    RejectionPolicy(Supplier<RejectedExecutionHandler> handler) {
+      this.handler = handler;
+    }
+
+    public RejectedExecutionHandler handler() {
+      return handler.get();
+    }
+  }
+}
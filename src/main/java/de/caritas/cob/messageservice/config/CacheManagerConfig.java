@@ -1,47 +0,0 @@
-package de.caritas.cob.messageservice.config;
-
-import net.sf.ehcache.config.CacheConfiguration;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-
-@Configuration
-@EnableCaching
-public class CacheManagerConfig {
-
-  public static final String TENANT_CACHE = "tenantCache";
-
-  @Value("${cache.tenant.configuration.maxEntriesLocalHeap}")
-  private long tenantMaxEntriesLocalHeap;
-
-  @Value("${cache.tenant.configuration.eternal}")
-  private boolean tenantEternal;
-
-  @Value("${cache.tenant.configuration.timeToIdleSeconds}")
-  private long tenantTimeToIdleSeconds;
-
-  @Value("${cache.tenant.configuration.timeToLiveSeconds}")
-  private long tenantTimeToLiveSeconds;
-
-  @Bean(destroyMethod = "shutdown")
-  public net.sf.ehcache.CacheManager ehCacheManager() {
-    var config = new net.sf.ehcache.config.Configuration();
-    config.addCache(buildTenantCacheConfiguration());
-
-    return net.sf.ehcache.CacheManager.newInstance(config);
-  }
-
-
-  private CacheConfiguration buildTenantCacheConfiguration() {
-    var tenantCacheConfiguration = new CacheConfiguration();
-    tenantCacheConfiguration.setName(TENANT_CACHE);
-    tenantCacheConfiguration.setMaxEntriesLocalHeap(tenantMaxEntriesLocalHeap);
-    tenantCacheConfiguration.setEternal(tenantEternal);
-    tenantCacheConfiguration.setTimeToIdleSeconds(tenantTimeToIdleSeconds);
-    tenantCacheConfiguration.setTimeToLiveSeconds(tenantTimeToLiveSeconds);
-    return tenantCacheConfiguration;
-  }
-
-
-}
@@ -0,0 +1,39 @@
+package de.caritas.cob.messageservice.config;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Declares the in-process caches of the service by name, e.g.
+ * {@code cache.specs.tenant.maximumSize=100}. Each cache is created from its spec by the
+ * {@link CacheRegistry}.
+ */
+@Data
+@Validated
+@Configuration
+@ConfigurationProperties(prefix = "cache")
+public class CacheProperties {
+
+  private @NotNull Map<String, @Valid @NotNull Spec> specs = new HashMap<>();
+
+  @Data
+  public static class Spec {
+
+    /** Maximum number of entries, exclusive with {@link #maximumWeight}. */
+    private @PositiveOrZero Long maximumSize;
+    /** Maximum total weight of the entries, requires a weigher of the cache. */
+    private @PositiveOrZero Long maximumWeight;
+    private Duration expireAfterWrite;
+    private Duration expireAfterAccess;
+    /** Reloads entries in the background once they are older, requires a loading cache. */
+    private Duration refreshAfterWrite;
+  }
+}
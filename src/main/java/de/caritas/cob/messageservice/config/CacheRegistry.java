@@ -0,0 +1,138 @@
+package de.caritas.cob.messageservice.config;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Weigher;
+import de.caritas.cob.messageservice.config.CacheProperties.Spec;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the in-process caches of the service from their {@link CacheProperties} spec. Every
+ * cache records its statistics, which are published as the Micrometer cache metrics tagged with
+ * the cache name, e.g. {@code cache.gets}, {@code cache.evictions} and {@code cache.load.duration},
+ * plus the gauge {@value #HIT_RATIO_METRIC_NAME}.
+ */
+@Component
+@RequiredArgsConstructor
+public class CacheRegistry {
+
+  static final String HIT_RATIO_METRIC_NAME = "cache.hit.ratio";
+
+  private final @NonNull CacheProperties cacheProperties;
+  private final @NonNull MeterRegistry meterRegistry;
+
+  private final Set<String> registeredNames = ConcurrentHashMap.newKeySet();
+
+  /**
+   * Creates the cache declared under the given name.
+   *
+   * @param name the name of the cache spec
+   * @return the cache
+   */
+  public <K, V> Cache<K, V> cache(String name) {
+    return register(name, builderOf(name).build());
+  }
+
+  /**
+   * Creates the cache declared under the given name, bounded by the total weight of its entries.
+   *
+   * @param name    the name of the cache spec
+   * @param weigher the weigher of the entries
+   * @return the cache
+   */
+  public <K, V> Cache<K, V> cache(String name, Weigher<? super K, ? super V> weigher) {
+    return register(name, builderOf(name).weigher(weigher).build());
+  }
+
+  /**
+   * Creates the cache declared under the given name, loading absent entries with the given
+   * loader. Concurrent misses of a key wait for a single load.
+   *
+   * @param name   the name of the cache spec
+   * @param loader the loader of absent and refreshed entries
+   * @return the loading cache
+   */
+  public <K, V> LoadingCache<K, V> loadingCache(String name, CacheLoader<? super K, V> loader) {
+    return register(name, builderOf(name).build(loader));
+  }
+
+  /**
+   * Registers a cache which is built before the application context, e.g. in a static field, under
+   * the given name. Its maximum size is set to the one of the spec, other settings of the spec can
+   * not be applied to a built cache. The cache has to record its statistics to publish them.
+   *
+   * @param name  the name of the cache spec
+   * @param cache the cache, bounded by size
+   * @return the cache
+   */
+  public <K, V, C extends Cache<K, V>> C adopt(String name, C cache) {
+    var spec = specOf(name);
+    if (isNull(spec.getMaximumSize()) || nonNull(spec.getMaximumWeight())
+        || nonNull(spec.getExpireAfterWrite()) || nonNull(spec.getExpireAfterAccess())
+        || nonNull(spec.getRefreshAfterWrite())) {
+      throw new IllegalStateException(String.format(
+          "Spec of cache %s may only declare the maximumSize of an adopted cache", name));
+    }
+    var eviction = cache.policy().eviction().orElseThrow(() -> new IllegalStateException(
+        String.format("Adopted cache %s is not bounded by size", name)));
+    eviction.setMaximum(spec.getMaximumSize());
+
+    return register(name, cache);
+  }
+
+  private Caffeine<Object, Object> builderOf(String name) {
+    return builderOf(specOf(name));
+  }
+
+  private static Caffeine<Object, Object> builderOf(Spec spec) {
+    var builder = Caffeine.newBuilder().recordStats();
+    if (nonNull(spec.getMaximumSize())) {
+      builder.maximumSize(spec.getMaximumSize());
+    }
+    if (nonNull(spec.getMaximumWeight())) {
+      builder.maximumWeight(spec.getMaximumWeight());
+    }
+    if (nonNull(spec.getExpireAfterWrite())) {
+      builder.expireAfterWrite(spec.getExpireAfterWrite());
+    }
+    if (nonNull(spec.getExpireAfterAccess())) {
+      builder.expireAfterAccess(spec.getExpireAfterAccess());
+    }
+    if (nonNull(spec.getRefreshAfterWrite())) {
+      builder.refreshAfterWrite(spec.getRefreshAfterWrite());
+    }
+    return builder;
+  }
+
+  private Spec specOf(String name) {
+    var spec = cacheProperties.getSpecs().get(name);
+    if (isNull(spec)) {
+      throw new IllegalStateException(String.format("No spec declared for cache %s", name));
+    }
+    if (!registeredNames.add(name)) {
+      throw new IllegalStateException(String.format("Cache %s is already registered", name));
+    }
+    return spec;
+  }
+
+  private <K, V, C extends Cache<K, V>> C register(String name, C cache) {
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+    Gauge.builder(HIT_RATIO_METRIC_NAME, cache, c -> c.stats().hitRate())
+        .description("The ratio of cache requests which were hits")
+        .tag("cache", name)
+        .register(meterRegistry);
+    return cache;
+  }
+}
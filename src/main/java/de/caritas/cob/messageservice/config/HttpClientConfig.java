@@ -0,0 +1,116 @@
+package de.caritas.cob.messageservice.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.function.ToIntFunction;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.io.SocketConfig;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Pooled HTTP client shared by all outgoing calls to Rocket.Chat and the other services via the
+ * {@link org.springframework.web.client.RestTemplate}.
+ */
+@Configuration
+public class HttpClientConfig {
+
+  private static final String POOL_METRIC_PREFIX = "httpcomponents.httpclient.pool";
+  private static final String CLIENT_NAME = "rest-template";
+
+  @Value("${http.client.pool.max.total}")
+  private int maxTotal;
+
+  @Value("${http.client.pool.max.per.route}")
+  private int maxPerRoute;
+
+  @Value("${http.client.pool.connection.ttl.seconds}")
+  private long connectionTimeToLiveSeconds;
+
+  @Value("${http.client.pool.idle.eviction.seconds}")
+  private long idleEvictionSeconds;
+
+  @Value("${http.client.connect.timeout.millis}")
+  private long connectTimeoutMillis;
+
+  @Value("${http.client.connection.request.timeout.millis}")
+  private long connectionRequestTimeoutMillis;
+
+  @Value("${http.client.read.timeout.millis}")
+  private long readTimeoutMillis;
+
+  @Bean
+  public PoolingHttpClientConnectionManager httpClientConnectionManager() {
+    return PoolingHttpClientConnectionManagerBuilder.create()
+        .setMaxConnTotal(maxTotal)
+        .setMaxConnPerRoute(maxPerRoute)
+        .setConnectionTimeToLive(TimeValue.ofSeconds(connectionTimeToLiveSeconds))
+        .setDefaultSocketConfig(SocketConfig.custom()
+            .setSoTimeout(Timeout.ofMilliseconds(readTimeoutMillis))
+            .build())
+        .build();
+  }
+
+  @Bean
+  public CloseableHttpClient httpClient(PoolingHttpClientConnectionManager connectionManager) {
+    var requestConfig = RequestConfig.custom()
+        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMillis))
+        .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectionRequestTimeoutMillis))
+        .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMillis))
+        .build();
+
+    return HttpClients.custom()
+        .setConnectionManager(connectionManager)
+        .setDefaultRequestConfig(requestConfig)
+        .evictExpiredConnections()
+        .evictIdleConnections(TimeValue.ofSeconds(idleEvictionSeconds))
+        .build();
+  }
+
+  /**
+   * Exports the leased, pending and available connections of the pool, to size it under load.
+   *
+   * @param connectionManager the pooled connection manager
+   * @return the {@link MeterBinder} registering the pool gauges
+   */
+  @Bean
+  public MeterBinder httpClientConnectionPoolMetrics(
+      PoolingHttpClientConnectionManager connectionManager) {
+    return registry -> {
+      poolGauge("total.max", connectionManager, PoolStats::getMax)
+          .description("The configured maximum number of pooled connections")
+          .register(registry);
+      poolGauge("total.connections", connectionManager, PoolStats::getLeased)
+          .description("The number of pooled connections currently in use")
+          .tag("state", "leased")
+          .register(registry);
+      poolGauge("total.connections", connectionManager, PoolStats::getAvailable)
+          .description("The number of idle pooled connections")
+          .tag("state", "available")
+          .register(registry);
+      poolGauge("total.pending", connectionManager, PoolStats::getPending)
+          .description("The number of requests waiting for a pooled connection")
+          .register(registry);
+      Gauge.builder(POOL_METRIC_PREFIX + ".route.max.default", connectionManager,
+              PoolingHttpClientConnectionManager::getDefaultMaxPerRoute)
+          .description("The configured maximum number of pooled connections per route")
+          .tag("httpclient", CLIENT_NAME)
+          .register(registry);
+    };
+  }
+
+  private Gauge.Builder<PoolingHttpClientConnectionManager> poolGauge(String name,
+      PoolingHttpClientConnectionManager connectionManager, ToIntFunction<PoolStats> stat) {
+    return Gauge.builder(POOL_METRIC_PREFIX + "." + name, connectionManager,
+            manager -> stat.applyAsInt(manager.getTotalStats()))
+        .tag("httpclient", CLIENT_NAME);
+  }
+}
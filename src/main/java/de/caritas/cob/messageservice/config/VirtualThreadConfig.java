@@ -0,0 +1,27 @@
+package de.caritas.cob.messageservice.config;
+
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Opt-in mode handling each request on its own virtual thread. A request stays on one thread
+ * from the filters to the response, so the thread-bound {@code TenantContext}, security context
+ * and request scope work as with the platform thread pool.
+ */
+@Configuration
+@ConditionalOnProperty(value = "threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+  private static final String REQUEST_THREAD_PREFIX = "http-virtual-";
+
+  @Bean
+  public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer(
+      VirtualThreadSupport virtualThreadSupport) {
+    return protocolHandler -> virtualThreadSupport.threadFactory(REQUEST_THREAD_PREFIX)
+        .ifPresent(threadFactory -> protocolHandler.setExecutor(
+            runnable -> threadFactory.newThread(runnable).start()));
+  }
+}
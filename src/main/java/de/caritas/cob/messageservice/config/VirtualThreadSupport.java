@@ -0,0 +1,51 @@
+package de.caritas.cob.messageservice.config;
+
+import de.caritas.cob.messageservice.api.service.LogService;
+import java.util.Optional;
+import java.util.concurrent.ThreadFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Provides virtual thread factories if the virtual thread mode is enabled. The service is built
+ * for Java 17, so virtual threads are looked up at runtime and only used when the Java runtime
+ * supports them; otherwise the platform threads are kept.
+ */
+@Component
+public class VirtualThreadSupport {
+
+  @Value("${threads.virtual.enabled}")
+  private boolean virtualThreadsEnabled;
+
+  /**
+   * Returns a factory for virtual threads named with the given prefix and a counter.
+   *
+   * @param namePrefix the thread name prefix
+   * @return the {@link ThreadFactory}, empty if disabled or not supported by the Java runtime
+   */
+  public Optional<ThreadFactory> threadFactory(String namePrefix) {
+    if (!virtualThreadsEnabled) {
+      return Optional.empty();
+    }
+
+    var threadFactory = virtualThreadFactory(namePrefix);
+    if (threadFactory.isEmpty()) {
+      LogService.logWarning(String.format(
+          "Virtual threads are not supported by Java %s, %s keeps using platform threads",
+          Runtime.version().feature(), namePrefix));
+    }
+    return threadFactory;
+  }
+
+  static Optional<ThreadFactory> virtualThreadFactory(String namePrefix) {
+    try {
+      var builderType = Class.forName("java.lang.Thread$Builder");
+      var builder = Thread.class.getMethod("ofVirtual").invoke(null);
+      builder = builderType.getMethod("name", String.class, long.class)
+          .invoke(builder, namePrefix, 0L);
+      return Optional.of((ThreadFactory) builderType.getMethod("factory").invoke(builder));
+    } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+      return Optional.empty();
+    }
+  }
+}
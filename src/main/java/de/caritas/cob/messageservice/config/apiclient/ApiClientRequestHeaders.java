@@ -0,0 +1,64 @@
+package de.caritas.cob.messageservice.config.apiclient;
+
+import static java.util.Objects.isNull;
+
+import java.util.function.Supplier;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Holds the request specific headers, e.g. Authorization, CSRF and tenant, of the UserService calls
+ * made by the current thread. The API clients are shared between threads, so these headers must
+ * not be set as their default headers. A {@link RequestHeadersApiClient} adds them to each request
+ * made within {@link #runWith(HttpHeaders, Runnable)} or {@link #callWith(HttpHeaders, Supplier)}.
+ */
+public class ApiClientRequestHeaders {
+
+  private static final ThreadLocal<HttpHeaders> HEADERS = new ThreadLocal<>();
+
+  private ApiClientRequestHeaders() {}
+
+  /**
+   * Runs the given calls with the given headers.
+   *
+   * @param headers the headers to add to the requests
+   * @param calls   the calls of the API clients
+   */
+  public static void runWith(HttpHeaders headers, Runnable calls) {
+    callWith(headers, () -> {
+      calls.run();
+      return null;
+    });
+  }
+
+  /**
+   * Runs the given calls with the given headers and returns their result.
+   *
+   * @param headers the headers to add to the requests
+   * @param calls   the calls of the API clients
+   * @param <T>     the type of the result
+   * @return the result of the calls
+   */
+  public static <T> T callWith(HttpHeaders headers, Supplier<T> calls) {
+    var previousHeaders = HEADERS.get();
+    HEADERS.set(HttpHeaders.readOnlyHttpHeaders(headers));
+    try {
+      return calls.get();
+    } finally {
+      if (isNull(previousHeaders)) {
+        HEADERS.remove();
+      } else {
+        HEADERS.set(previousHeaders);
+      }
+    }
+  }
+
+  /**
+   * Returns the headers of the current thread.
+   *
+   * @return the read-only headers, empty outside of {@link #runWith(HttpHeaders, Runnable)}
+   */
+  public static HttpHeaders current() {
+    var headers = HEADERS.get();
+    return isNull(headers) ? HttpHeaders.EMPTY : headers;
+  }
+}
@@ -1,13 +1,17 @@
 package de.caritas.cob.messageservice.config.apiclient;
 
-import de.caritas.cob.messageservice.userservice.generated.ApiClient;
 import de.caritas.cob.messageservice.userservice.generated.web.LiveproxyControllerApi;
 import de.caritas.cob.messageservice.userservice.generated.web.UserControllerApi;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 
+/**
+ * Provides the UserService API clients. They are built once and shared, the request specific
+ * headers are passed with {@link ApiClientRequestHeaders}.
+ */
 @Component
 @RequiredArgsConstructor
 public class ApiControllerFactory {
@@ -17,15 +21,22 @@ public class ApiControllerFactory {
   @Value("${user.service.api.liveproxy.url}")
   private String userServiceBasePath;
 
-  public UserControllerApi userControllerApi() {
-    var apiClient = new UserApiClient(restTemplate).setBasePath(userServiceBasePath);
+  private UserControllerApi userControllerApi;
+  private LiveproxyControllerApi liveproxyControllerApi;
 
-    return new UserControllerApi(apiClient);
+  @PostConstruct
+  public void init() {
+    this.userControllerApi = new UserControllerApi(
+        new UserApiClient(restTemplate).setBasePath(userServiceBasePath));
+    this.liveproxyControllerApi = new LiveproxyControllerApi(
+        new RequestHeadersApiClient(restTemplate).setBasePath(userServiceBasePath));
   }
 
-  public LiveproxyControllerApi liveproxyControllerApi() {
-    var apiClient = new ApiClient(restTemplate).setBasePath(userServiceBasePath);
+  public UserControllerApi userControllerApi() {
+    return userControllerApi;
+  }
 
-    return new LiveproxyControllerApi(apiClient);
+  public LiveproxyControllerApi liveproxyControllerApi() {
+    return liveproxyControllerApi;
   }
 }
@@ -0,0 +1,43 @@
+package de.caritas.cob.messageservice.config.apiclient;
+
+import de.caritas.cob.messageservice.userservice.generated.ApiClient;
+import java.util.List;
+import java.util.Map;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Extension of the generated UserService API client which can be shared between threads. Instead
+ * of default headers, it adds the {@link ApiClientRequestHeaders} of the calling thread to each
+ * request. Header parameters of the called operation take precedence.
+ */
+public class RequestHeadersApiClient extends ApiClient {
+
+  public RequestHeadersApiClient(RestTemplate restTemplate) {
+    super(restTemplate);
+  }
+
+  @Override
+  @SuppressWarnings("java:S107")
+  // Number of parameters given by the generated client
+  public <T> ResponseEntity<T> invokeAPI(String path, HttpMethod method,
+      Map<String, Object> pathParams, MultiValueMap<String, String> queryParams, Object body,
+      HttpHeaders headerParams, MultiValueMap<String, String> cookieParams,
+      MultiValueMap<String, Object> formParams, List<MediaType> accept, MediaType contentType,
+      String[] authNames, ParameterizedTypeReference<T> returnType) throws RestClientException {
+    ApiClientRequestHeaders.current().forEach((name, values) -> {
+      if (!headerParams.containsKey(name)) {
+        headerParams.addAll(name, values);
+      }
+    });
+
+    return super.invokeAPI(path, method, pathParams, queryParams, body, headerParams,
+        cookieParams, formParams, accept, contentType, authNames, returnType);
+  }
+}
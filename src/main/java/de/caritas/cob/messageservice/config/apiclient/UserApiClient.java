@@ -17,7 +17,7 @@ import org.springframework.web.client.RestTemplate;
 /**
  * Extension of the generated UserService API client to adapt the handling of parameter values.
  */
-public class UserApiClient extends de.caritas.cob.messageservice.userservice.generated.ApiClient {
+public class UserApiClient extends RequestHeadersApiClient {
 
   private static final String FILTER_NAME = "filter";
 
@@ -3,10 +3,9 @@ package de.caritas.cob.messageservice.filter;
 
 import de.caritas.cob.messageservice.api.tenant.TenantContext;
 import de.caritas.cob.messageservice.api.tenant.TenantResolverService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -14,7 +13,6 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
-import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -29,19 +27,19 @@ import org.springframework.web.filter.OncePerRequestFilter;
 @Slf4j
 public class HttpTenantFilter extends OncePerRequestFilter {
 
-  private static final String[] TENANCY_FILTER_WHITELIST =
-      new String[]{"/actuator/health", "/actuator/health/**", "/swagger-ui.html", "/favicon.ico"};
-  private final TenantResolverService tenantResolverService;
+  private static final PathWhitelist TENANCY_FILTER_WHITELIST = new PathWhitelist(
+      "/actuator/health", "/actuator/health/**", "/swagger-ui.html", "/favicon.ico");
+  static final String METRIC_NAME = "messageservice.tenant.resolution";
 
-  private final DefaultRequiresTenantFilterMatcher requiresTenantFilterMatcher =
-      new DefaultRequiresTenantFilterMatcher();
+  private final TenantResolverService tenantResolverService;
+  private final MeterRegistry meterRegistry;
 
   @Override
   protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
       FilterChain filterChain) throws ServletException, IOException {
-    if (requiresTenantFilterMatcher.matches(request)) {
+    if (!TENANCY_FILTER_WHITELIST.contains(request)) {
       log.debug("Trying to resolve tenant for request coming from URI {}", request.getRequestURI());
-      Long tenantId = tenantResolverService.resolve(request);
+      Long tenantId = resolveTenant(request);
       log.debug("Setting current tenant context to: " + tenantId);
       TenantContext.setCurrentTenant(tenantId);
       filterChain.doFilter(request, response);
@@ -54,18 +52,18 @@ public class HttpTenantFilter extends OncePerRequestFilter {
     }
   }
 
-  class DefaultRequiresTenantFilterMatcher implements RequestMatcher {
-
-    @Override
-    public boolean matches(HttpServletRequest request) {
-
-      List<String> tenantWhitelist = new ArrayList<>(Arrays.asList(TENANCY_FILTER_WHITELIST));
-      return !belongsToWhitelist(request, tenantWhitelist);
-    }
-
-    private boolean belongsToWhitelist(HttpServletRequest request, List<String> tenantWhitelist) {
-      return tenantWhitelist.parallelStream()
-          .anyMatch(request.getRequestURI().toLowerCase()::contains);
+  private Long resolveTenant(HttpServletRequest request) {
+    var sample = Timer.start(meterRegistry);
+    var outcome = "failure";
+    try {
+      var tenantId = tenantResolverService.resolve(request);
+      outcome = "success";
+      return tenantId;
+    } finally {
+      sample.stop(Timer.builder(METRIC_NAME)
+          .description("Duration of resolving the tenant of a request")
+          .tag("outcome", outcome)
+          .register(meterRegistry));
     }
   }
 }
@@ -0,0 +1,51 @@
+package de.caritas.cob.messageservice.filter;
+
+import static java.util.Objects.isNull;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.Arrays;
+import java.util.List;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+/**
+ * Paths which are excluded from a filter, given as Ant-style patterns like
+ * {@code /actuator/health/**}. The patterns are parsed once when the filter is created and matched
+ * case-insensitively against the path of each request on the calling thread.
+ */
+public class PathWhitelist {
+
+  private final List<PathPattern> patterns;
+
+  public PathWhitelist(String... patterns) {
+    var parser = new PathPatternParser();
+    parser.setCaseSensitive(false);
+    this.patterns = Arrays.stream(patterns)
+        .map(parser::parse)
+        .toList();
+  }
+
+  /**
+   * Checks if the path of the given request matches one of the patterns.
+   *
+   * @param request the request
+   * @return true if the path is whitelisted
+   */
+  public boolean contains(HttpServletRequest request) {
+    var requestUri = request.getRequestURI();
+    if (isNull(requestUri)) {
+      return false;
+    }
+
+    var contextPath = request.getContextPath();
+    var path = PathContainer.parsePath(isNull(contextPath) || contextPath.isEmpty()
+        ? requestUri : requestUri.substring(contextPath.length()));
+    for (PathPattern pattern : patterns) {
+      if (pattern.matches(path)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
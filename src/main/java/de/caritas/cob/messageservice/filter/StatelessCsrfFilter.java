@@ -5,8 +5,7 @@ import static java.util.Objects.isNull;
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
 
 import java.io.IOException;
-import java.util.Arrays;
-import java.util.regex.Pattern;
+import java.util.Set;
 import java.util.stream.Stream;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -67,7 +66,9 @@ public class StatelessCsrfFilter extends OncePerRequestFilter {
   @RequiredArgsConstructor
   private static final class DefaultRequiresCsrfMatcher implements RequestMatcher {
 
-    private final Pattern allowedMethods = Pattern.compile("^(HEAD|TRACE|OPTIONS)$");
+    private static final PathWhitelist PATH_WHITELIST = new PathWhitelist(WHITE_LIST);
+    private static final Set<String> ALLOWED_METHODS = Set.of("HEAD", "TRACE", "OPTIONS");
+
     private final @NonNull String csrfWhitelistHeaderProperty;
 
     @Override
@@ -76,8 +77,7 @@ public class StatelessCsrfFilter extends OncePerRequestFilter {
     }
 
     private boolean isWhiteListUrl(HttpServletRequest request) {
-      return Arrays.asList(WHITE_LIST).parallelStream()
-          .anyMatch(request.getRequestURI().toLowerCase()::contains);
+      return PATH_WHITELIST.contains(request);
     }
 
     private boolean isWhiteListHeader(HttpServletRequest request) {
@@ -85,7 +85,7 @@ public class StatelessCsrfFilter extends OncePerRequestFilter {
     }
 
     private boolean isAllowedMehod(HttpServletRequest request) {
-      return allowedMethods.matcher(request.getMethod()).matches();
+      return ALLOWED_METHODS.contains(request.getMethod());
     }
 
   }
@@ -0,0 +1,2 @@
+DROP SEQUENCE messageservice.sequence_outbox_event;
+DROP TABLE messageservice.`outbox_event`;
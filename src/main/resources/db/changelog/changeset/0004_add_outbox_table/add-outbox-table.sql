@@ -0,0 +1,18 @@
+CREATE TABLE messageservice.`outbox_event` (
+  `id` bigint(21) NOT NULL,
+  `type` varchar(50) NOT NULL,
+  `rc_group_id` varchar(255) NOT NULL,
+  `tenant_id` bigint(21) NULL,
+  `payload` longtext COLLATE utf8_unicode_ci NOT NULL,
+  `attempts` int(11) NOT NULL DEFAULT 0,
+  `next_attempt_date` datetime NOT NULL,
+  `create_date` datetime NOT NULL DEFAULT (UTC_TIMESTAMP),
+  PRIMARY KEY (`id`),
+  KEY `idx_outbox_event_next_attempt_date` (`next_attempt_date`, `id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8 COLLATE=utf8_unicode_ci;
+CREATE SEQUENCE messageservice.sequence_outbox_event
+INCREMENT BY 1
+MINVALUE = 0
+NOMAXVALUE
+START WITH 0
+CACHE 0;
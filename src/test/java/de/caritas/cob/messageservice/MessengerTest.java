@@ -1,15 +1,27 @@
 package de.caritas.cob.messageservice;
 
+import static de.caritas.cob.messageservice.api.model.outbox.OutboxEventType.CREATE_MESSAGE_STATISTICS;
+import static de.caritas.cob.messageservice.api.model.outbox.OutboxEventType.LIVE_EVENT;
+import static de.caritas.cob.messageservice.api.model.outbox.OutboxEventType.NEW_MESSAGE_EMAIL;
+import static de.caritas.cob.messageservice.testhelper.TestConstants.ADVICESEEKER_ID;
 import static de.caritas.cob.messageservice.testhelper.TestConstants.DONT_SEND_NOTIFICATION;
 import static de.caritas.cob.messageservice.testhelper.TestConstants.SEND_NOTIFICATION;
 import static de.caritas.cob.messageservice.testhelper.TestConstants.createSuccessfulMessageResult;
+import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.util.ReflectionTestUtils.setField;
 
@@ -25,35 +37,46 @@ import de.caritas.cob.messageservice.api.model.ChatMessage;
 import de.caritas.cob.messageservice.api.model.ChatMessage.ChatMessageBuilder;
 import de.caritas.cob.messageservice.api.model.MessageType;
 import de.caritas.cob.messageservice.api.model.VideoCallMessageDTO;
+import de.caritas.cob.messageservice.api.model.outbox.OutboxPayload;
 import de.caritas.cob.messageservice.api.model.rocket.chat.message.SendMessageResponseDTO;
 import de.caritas.cob.messageservice.api.model.rocket.chat.message.SendMessageResultDTO;
 import de.caritas.cob.messageservice.api.service.DraftMessageService;
 import de.caritas.cob.messageservice.api.service.LiveEventNotificationService;
+import de.caritas.cob.messageservice.api.service.MarkAsReadCoalescer;
 import de.caritas.cob.messageservice.api.service.MessageMapper;
 import de.caritas.cob.messageservice.api.service.RocketChatService;
 import de.caritas.cob.messageservice.api.service.SessionService;
+import de.caritas.cob.messageservice.api.service.SideEffectPipeline;
+import de.caritas.cob.messageservice.api.service.outbox.OutboxService;
 import de.caritas.cob.messageservice.api.service.statistics.StatisticsService;
 import de.caritas.cob.messageservice.api.service.statistics.event.CreateMessageStatisticsEvent;
 import de.caritas.cob.messageservice.statisticsservice.generated.web.model.UserRole;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 import org.apache.commons.collections4.SetUtils;
 import org.jeasy.random.EasyRandom;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestClientException;
 
 @RunWith(MockitoJUnitRunner.class)
 public class MessengerTest {
 
   private static final String RC_TOKEN = "r94qMDk8gtgVNzqCq9zD2hELK-eXGB5VHlUVBgE8a8f";
+  private static final String ACCESS_TOKEN = "accessToken";
   private static final String RC_USER_ID = "pptLwARyTMzbTTRdg";
   private static final String CONSULTANT_ID = "d63f4cc0-215d-40e2-a866-2d3e910f0590";
   private static final String RC_GROUP_ID = "fR2Rz7dmWmHdXE8uz";
@@ -87,18 +110,40 @@ public class MessengerTest {
   @Mock
   private SessionService sessionService;
 
+  @Mock
+  private MarkAsReadCoalescer markAsReadCoalescer;
+
+  @Mock
+  private OutboxService outboxService;
+
   @SuppressWarnings("unused")
   @Spy
   private MessageMapper mapper = new MessageMapper(new ObjectMapper(), null);
 
+  @Captor
+  private ArgumentCaptor<Supplier<OutboxPayload>> statisticsPayloadCaptor;
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @SuppressWarnings("unused")
+  @Spy
+  private SideEffectPipeline sideEffectPipeline = new SideEffectPipeline(meterRegistry);
+
 
   @Before
   public void setup() {
     setField(this.messenger, "rocketChatSystemUserId", RC_SYSTEM_USER_ID);
+    setField(this.sideEffectPipeline, "timeoutMillis", 60_000L);
     when(authenticatedUser.getRoles())
         .thenReturn(SetUtils.unmodifiableSet(Role.CONSULTANT.getRoleName()));
     when(authenticatedUser.getUserId())
         .thenReturn(CONSULTANT_ID);
+    lenient().when(liveEventNotificationService.sendLiveEvent(any(), any(), any()))
+        .thenReturn(CompletableFuture.completedFuture(null));
+    lenient().when(emailNotificationFacade.sendEmailAboutNewChatMessage(any(), any(), any()))
+        .thenReturn(CompletableFuture.completedFuture(null));
+    lenient().when(statisticsService.fireEvent(any()))
+        .thenReturn(CompletableFuture.completedFuture(null));
   }
 
   /**
@@ -161,6 +206,19 @@ public class MessengerTest {
         Optional.empty(), null);
   }
 
+  @Test
+  public void postGroupMessage_Should_MarkGroupAsReadForSystemUserInBackground_When_MessageWasSent()
+      throws CustomCryptoException {
+
+    var groupMessage = createGroupMessage().build();
+    when(rocketChatService.postGroupMessage(groupMessage)).thenReturn(POST_MESSAGE_RESPONSE_DTO);
+
+    messenger.postGroupMessage(groupMessage);
+
+    verify(markAsReadCoalescer).markGroupAsRead(RC_GROUP_ID);
+    verify(rocketChatService, Mockito.never()).markGroupAsReadForSystemUser(anyString());
+  }
+
   @Test
   public void postGroupMessage_Should_ReturnCreatedAndSendNotification_When_MessageWasSentAndNotificationIsSetToTrue()
       throws CustomCryptoException {
@@ -214,6 +272,136 @@ public class MessengerTest {
     verify(this.draftMessageService, times(1)).deleteDraftMessageIfExist(RC_GROUP_ID);
   }
 
+  @Test
+  public void postGroupMessage_Should_DispatchNotificationsBeforeDeletingDraft()
+      throws CustomCryptoException {
+    var groupMessage = createGroupMessage().sendNotification(SEND_NOTIFICATION).build();
+    when(rocketChatService.postGroupMessage(groupMessage)).thenReturn(POST_MESSAGE_RESPONSE_DTO);
+
+    messenger.postGroupMessage(groupMessage);
+
+    var inOrder = inOrder(liveEventNotificationService, emailNotificationFacade,
+        statisticsService, draftMessageService);
+    inOrder.verify(liveEventNotificationService).sendLiveEvent(eq(RC_GROUP_ID), any(), any());
+    inOrder.verify(emailNotificationFacade).sendEmailAboutNewChatMessage(eq(RC_GROUP_ID), any(),
+        any());
+    inOrder.verify(statisticsService).fireEvent(any(CreateMessageStatisticsEvent.class));
+    inOrder.verify(draftMessageService).deleteDraftMessageIfExist(RC_GROUP_ID);
+  }
+
+  @Test
+  public void postGroupMessage_Should_RecordLatencyOfEachSideEffect()
+      throws CustomCryptoException {
+    var groupMessage = createGroupMessage().sendNotification(SEND_NOTIFICATION).build();
+    when(rocketChatService.postGroupMessage(groupMessage)).thenReturn(POST_MESSAGE_RESPONSE_DTO);
+
+    messenger.postGroupMessage(groupMessage);
+
+    for (var step : List.of("draft", "liveEvent", "email", "statistics")) {
+      var timer = meterRegistry.find("messageservice.message.sideeffect")
+          .tags("step", step, "outcome", "success").timer();
+      assertThat(step, timer.count(), is(1L));
+    }
+  }
+
+  @Test
+  public void postGroupMessage_Should_NotFail_When_AsyncSideEffectFails()
+      throws CustomCryptoException {
+    var groupMessage = createGroupMessage().build();
+    when(rocketChatService.postGroupMessage(groupMessage)).thenReturn(POST_MESSAGE_RESPONSE_DTO);
+    when(statisticsService.fireEvent(any()))
+        .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+    messenger.postGroupMessage(groupMessage);
+
+    verify(draftMessageService).deleteDraftMessageIfExist(RC_GROUP_ID);
+    var timer = meterRegistry.find("messageservice.message.sideeffect")
+        .tags("step", "statistics", "outcome", "failure").timer();
+    assertThat(timer.count(), is(1L));
+  }
+
+  @Test
+  public void postGroupMessage_Should_StoreSideEffectsInOutbox_When_OutboxIsEnabled()
+      throws CustomCryptoException {
+    setField(messenger, "outboxEnabled", true);
+    setField(messenger, "statisticsEnabled", true);
+    var groupMessage = createGroupMessage().sendNotification(SEND_NOTIFICATION).build();
+    when(rocketChatService.postGroupMessage(groupMessage)).thenReturn(POST_MESSAGE_RESPONSE_DTO);
+    when(authenticatedUser.getAccessToken()).thenReturn(ACCESS_TOKEN);
+    when(outboxService.enqueueAsync(any(), any(), any(), any()))
+        .thenReturn(CompletableFuture.completedFuture(null));
+
+    messenger.postGroupMessage(groupMessage);
+
+    var notificationPayload = new OutboxPayload(ACCESS_TOKEN, null, null, null);
+    verify(outboxService).eventOf(LIVE_EVENT, RC_GROUP_ID, Optional.empty(),
+        notificationPayload);
+    verify(outboxService).eventOf(NEW_MESSAGE_EMAIL, RC_GROUP_ID, Optional.empty(),
+        notificationPayload);
+    verify(outboxService).enqueue(anyList());
+    verify(outboxService).enqueueAsync(eq(CREATE_MESSAGE_STATISTICS), eq(RC_GROUP_ID),
+        eq(Optional.empty()), statisticsPayloadCaptor.capture());
+    assertThat(statisticsPayloadCaptor.getValue().get(),
+        is(new OutboxPayload(null, CONSULTANT_ID, UserRole.CONSULTANT, null)));
+    verify(draftMessageService).deleteDraftMessageIfExist(RC_GROUP_ID);
+    verifyNoInteractions(liveEventNotificationService, emailNotificationFacade,
+        statisticsService);
+  }
+
+  @Test
+  public void postGroupMessage_Should_LookUpReceiverOfOutboxStatisticsEventOffRequestThread()
+      throws CustomCryptoException {
+    setField(messenger, "outboxEnabled", true);
+    setField(messenger, "statisticsEnabled", true);
+    var groupMessage = createGroupMessage().build();
+    when(rocketChatService.postGroupMessage(groupMessage)).thenReturn(POST_MESSAGE_RESPONSE_DTO);
+    when(authenticatedUser.isConsultant()).thenReturn(true);
+    when(outboxService.enqueueAsync(any(), any(), any(), any()))
+        .thenReturn(CompletableFuture.completedFuture(null));
+    when(sessionService.findAdviceseekerUserIdOfRcGroupId(any(), eq(RC_GROUP_ID), any(), any()))
+        .thenReturn(Optional.of("adviceseekerId"));
+
+    messenger.postGroupMessage(groupMessage);
+
+    verifyNoInteractions(sessionService);
+    verify(outboxService).enqueueAsync(eq(CREATE_MESSAGE_STATISTICS), eq(RC_GROUP_ID),
+        eq(Optional.empty()), statisticsPayloadCaptor.capture());
+    assertThat(statisticsPayloadCaptor.getValue().get().receiverId(), is("adviceseekerId"));
+  }
+
+  @Test
+  public void postGroupMessage_Should_NotStoreStatisticsEventInOutbox_When_StatisticsAreDisabled()
+      throws CustomCryptoException {
+    setField(messenger, "outboxEnabled", true);
+    var groupMessage = createGroupMessage().sendNotification(SEND_NOTIFICATION).build();
+    when(rocketChatService.postGroupMessage(groupMessage)).thenReturn(POST_MESSAGE_RESPONSE_DTO);
+
+    messenger.postGroupMessage(groupMessage);
+
+    verify(outboxService).enqueue(anyList());
+    verify(outboxService, never()).eventOf(eq(CREATE_MESSAGE_STATISTICS), any(), any(), any());
+    verify(outboxService, never()).enqueueAsync(any(), any(), any(), any());
+    verifyNoInteractions(sessionService, statisticsService);
+  }
+
+  @Test
+  public void postGroupMessage_Should_DispatchSideEffectsDirectly_When_OutboxCannotBeWritten()
+      throws CustomCryptoException {
+    setField(messenger, "outboxEnabled", true);
+    var groupMessage = createGroupMessage().sendNotification(SEND_NOTIFICATION).build();
+    when(rocketChatService.postGroupMessage(groupMessage)).thenReturn(POST_MESSAGE_RESPONSE_DTO);
+    doThrow(new IllegalStateException("database down")).when(outboxService).enqueue(anyList());
+
+    messenger.postGroupMessage(groupMessage);
+
+    verify(liveEventNotificationService).sendLiveEvent(eq(RC_GROUP_ID), any(), any());
+    verify(emailNotificationFacade).sendEmailAboutNewChatMessage(eq(RC_GROUP_ID), any(), any());
+    verify(statisticsService).fireEvent(any(CreateMessageStatisticsEvent.class));
+    var timer = meterRegistry.find("messageservice.message.sideeffect")
+        .tags("step", "outbox", "outcome", "failure").timer();
+    assertThat(timer.count(), is(1L));
+  }
+
   @Test
   public void postGroupMessage_Should_FireCreateMessageStatisticsEvent()
       throws CustomCryptoException {
@@ -244,6 +432,45 @@ public class MessengerTest {
 
   }
 
+  @Test
+  public void postGroupMessage_Should_ResolveStatisticsReceiverOnlyWhenEventIsProcessed()
+      throws CustomCryptoException {
+    var groupMessage = createGroupMessage().build();
+    when(rocketChatService.postGroupMessage(groupMessage)).thenReturn(POST_MESSAGE_RESPONSE_DTO);
+    when(authenticatedUser.isConsultant()).thenReturn(true);
+    when(authenticatedUser.getAccessToken()).thenReturn(ACCESS_TOKEN);
+    when(sessionService.findAdviceseekerUserIdOfRcGroupId(RC_TOKEN, RC_GROUP_ID, ACCESS_TOKEN,
+        Optional.empty())).thenReturn(Optional.of(ADVICESEEKER_ID));
+
+    messenger.postGroupMessage(groupMessage);
+
+    var captor = ArgumentCaptor.forClass(CreateMessageStatisticsEvent.class);
+    verify(statisticsService).fireEvent(captor.capture());
+    verifyNoInteractions(sessionService);
+    var payload = captor.getValue().getPayload();
+    assertThat(payload.isPresent(), is(true));
+    assertThat(payload.get(), containsString("\"receiverId\":\"" + ADVICESEEKER_ID + "\""));
+  }
+
+  @Test
+  public void postGroupMessage_Should_FireStatisticsEventWithoutReceiver_When_SessionLookupFails()
+      throws CustomCryptoException {
+    var groupMessage = createGroupMessage().build();
+    when(rocketChatService.postGroupMessage(groupMessage)).thenReturn(POST_MESSAGE_RESPONSE_DTO);
+    when(authenticatedUser.isConsultant()).thenReturn(true);
+    when(authenticatedUser.getAccessToken()).thenReturn(ACCESS_TOKEN);
+    when(sessionService.findAdviceseekerUserIdOfRcGroupId(RC_TOKEN, RC_GROUP_ID, ACCESS_TOKEN,
+        Optional.empty())).thenThrow(new RestClientException("user service unavailable"));
+
+    messenger.postGroupMessage(groupMessage);
+
+    var captor = ArgumentCaptor.forClass(CreateMessageStatisticsEvent.class);
+    verify(statisticsService).fireEvent(captor.capture());
+    var payload = captor.getValue().getPayload();
+    assertThat(payload.isPresent(), is(true));
+    assertThat(payload.get(), not(containsString("\"receiverId\":\"")));
+  }
+
   @Test
   public void createVideoHintMessage_Should_triggerRocketChatPost_When_paramsAreGiven() {
     VideoCallMessageDTO callMessageDTO = new EasyRandom().nextObject(VideoCallMessageDTO.class);
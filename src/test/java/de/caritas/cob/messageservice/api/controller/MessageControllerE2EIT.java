@@ -5,6 +5,7 @@ import static de.caritas.cob.messageservice.testhelper.TestConstants.RC_USER_ID;
 import static de.caritas.cob.messageservice.testhelper.TestConstants.createSuccessfulMessageResult;
 import static java.util.Objects.nonNull;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
@@ -16,6 +17,7 @@ import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.endsWith;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
@@ -28,7 +30,6 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.google.common.collect.Lists;
 import de.caritas.cob.messageservice.api.authorization.Authority.AuthorityValue;
 import de.caritas.cob.messageservice.api.exception.CustomCryptoException;
 import de.caritas.cob.messageservice.api.exception.RocketChatUserNotInitializedException;
@@ -60,12 +61,14 @@ import de.caritas.cob.messageservice.api.service.dto.MessageResponse;
 import de.caritas.cob.messageservice.api.service.dto.StringifiedMessageResponse;
 import de.caritas.cob.messageservice.api.service.helper.RocketChatCredentialsHelper;
 import de.caritas.cob.messageservice.api.service.statistics.StatisticsService;
-import de.caritas.cob.messageservice.userservice.generated.web.model.GroupSessionListResponseDTO;
 import java.net.URI;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -90,6 +93,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
@@ -362,6 +366,181 @@ class MessageControllerE2EIT {
     assertGroupCall(offset, count, since);
   }
 
+  @Test
+  @WithMockUser(authorities = AuthorityValue.USER_DEFAULT)
+  void findMessagesShouldOnlyFetchMessagesNewerThanCachedOnesOnRepeatedPoll() throws Exception {
+    var groupId = RandomStringUtils.randomAlphabetic(16);
+    givenMessagesWithTimestamps(
+        "2022-06-28T10:45:41.907Z", "2022-06-28T10:45:42.001Z");
+    findMessagesOfGroup(groupId)
+        .andExpect(jsonPath("messages", hasSize(2)));
+
+    givenMessagesWithTimestamps(
+        "2022-06-28T10:45:42.001Z", "2022-06-28T10:46:00.000Z");
+    findMessagesOfGroup(groupId)
+        .andExpect(jsonPath("messages", hasSize(3)))
+        .andExpect(jsonPath("messages[0].ts", is("2022-06-28T10:45:41.907Z")))
+        .andExpect(jsonPath("messages[1].ts", is("2022-06-28T10:45:42.001Z")))
+        .andExpect(jsonPath("messages[2].ts", is("2022-06-28T10:46:00.000Z")));
+
+    verify(restTemplate, times(2)).exchange(uriArgumentCaptor.capture(), eq(HttpMethod.GET),
+        any(HttpEntity.class), eq(MessageStreamDTO.class));
+    var secondPollQuery = uriArgumentCaptor.getAllValues().get(1).getQuery();
+    assertTrue(secondPollQuery.contains(
+        "{\"ts\":{\"$gt\":{\"$date\":\"2022-06-28T10:45:42Z\"}}}"));
+  }
+
+  @Test
+  @WithMockUser(authorities = AuthorityValue.USER_DEFAULT)
+  void findMessagesShouldFetchAllMessagesAgainAfterMasterKeyUpdate() throws Exception {
+    var groupId = RandomStringUtils.randomAlphabetic(16);
+    givenMessagesWithTimestamps("2022-06-28T10:45:41.907Z");
+    findMessagesOfGroup(groupId);
+
+    encryptionService.updateMasterKey(RandomStringUtils.randomAlphanumeric(16));
+    findMessagesOfGroup(groupId)
+        .andExpect(jsonPath("messages", hasSize(1)));
+
+    verify(restTemplate, times(2)).exchange(uriArgumentCaptor.capture(), eq(HttpMethod.GET),
+        any(HttpEntity.class), eq(MessageStreamDTO.class));
+    var secondPollQuery = uriArgumentCaptor.getAllValues().get(1).getQuery();
+    assertTrue(secondPollQuery.contains(
+        "{\"ts\":{\"$gt\":{\"$date\":\"" + Instant.MIN + "\"}}}"));
+  }
+
+  @Test
+  @WithMockUser(authorities = AuthorityValue.USER_DEFAULT)
+  void findMessagesShouldRespondWithNextCursorIfPageIsFull() throws Exception {
+    givenMessages();
+
+    var response = mockMvc.perform(
+            get("/messages")
+                .cookie(CSRF_COOKIE)
+                .header(CSRF_HEADER, CSRF_VALUE)
+                .header("rcToken", RandomStringUtils.randomAlphabetic(16))
+                .header("rcUserId", RandomStringUtils.randomAlphabetic(16))
+                .param("rcGroupId", RandomStringUtils.randomAlphabetic(16))
+                .param("count", "5")
+        )
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("messages", hasSize(5)))
+        .andExpect(jsonPath("nextCursor", is(not(nullValue()))))
+        .andReturn().getResponse().getContentAsString();
+
+    var nextCursor = objectMapper.readTree(response).get("nextCursor").asText();
+    var lastMessage = objectMapper.readTree(response).get("messages").get(4);
+    var decodedCursor = new String(Base64.getUrlDecoder().decode(nextCursor),
+        StandardCharsets.UTF_8);
+    assertEquals(lastMessage.get("ts").asText() + "|" + lastMessage.get("_id").asText(),
+        decodedCursor);
+  }
+
+  @Test
+  @WithMockUser(authorities = AuthorityValue.USER_DEFAULT)
+  void findMessagesShouldPageMessagesWithSameTimestampInIdOrder() throws Exception {
+    var groupId = RandomStringUtils.randomAlphabetic(16);
+    var ts = "2022-06-28T10:45:41.907Z";
+    when(restTemplate.exchange(any(), any(HttpMethod.class), any(), eq(MessageStreamDTO.class)))
+        .thenReturn(messageStreamOf(messageOf("id-a", "2022-06-28T10:45:40.000Z"),
+            messageOf("id-b", ts)))
+        .thenReturn(messageStreamOf(messageOf("id-c", ts)));
+
+    var firstPage = findMessagesOfGroup(groupId, "2", null)
+        .andExpect(jsonPath("messages[*]._id", contains("id-a", "id-b")))
+        .andReturn().getResponse().getContentAsString();
+    var nextCursor = objectMapper.readTree(firstPage).get("nextCursor").asText();
+    findMessagesOfGroup(groupId, "2", nextCursor)
+        .andExpect(jsonPath("messages[*]._id", contains("id-c")))
+        .andExpect(jsonPath("nextCursor").doesNotExist());
+
+    verify(restTemplate, times(2)).exchange(uriArgumentCaptor.capture(), eq(HttpMethod.GET),
+        any(HttpEntity.class), eq(MessageStreamDTO.class));
+    var firstPageQuery = uriArgumentCaptor.getAllValues().get(0).getQuery();
+    var secondPageQuery = uriArgumentCaptor.getAllValues().get(1).getQuery();
+    assertTrue(firstPageQuery.contains("sort={\"ts\":1,\"_id\":1}&"));
+    assertTrue(secondPageQuery.contains("sort={\"ts\":1,\"_id\":1}&"));
+    assertTrue(secondPageQuery.contains(
+        "{\"ts\":{\"$date\":\"" + ts + "\"},\"_id\":{\"$gt\":\"id-b\"}}"));
+  }
+
+  @Test
+  @WithMockUser(authorities = AuthorityValue.USER_DEFAULT)
+  void findMessagesShouldRespondWithoutNextCursorIfPageIsNotFull() throws Exception {
+    givenMessages();
+
+    mockMvc.perform(
+            get("/messages")
+                .cookie(CSRF_COOKIE)
+                .header(CSRF_HEADER, CSRF_VALUE)
+                .header("rcToken", RandomStringUtils.randomAlphabetic(16))
+                .header("rcUserId", RandomStringUtils.randomAlphabetic(16))
+                .param("rcGroupId", RandomStringUtils.randomAlphabetic(16))
+                .param("count", "6")
+        )
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("messages", hasSize(5)))
+        .andExpect(jsonPath("nextCursor").doesNotExist());
+  }
+
+  @Test
+  @WithMockUser(authorities = AuthorityValue.USER_DEFAULT)
+  void findMessagesShouldPassCursorAsTimestampRangeToChatApi() throws Exception {
+    givenMessages();
+    var count = easyRandom.nextInt(9) + 1;
+    var ts = Instant.parse("2022-06-28T10:45:41.907Z");
+    var cursor = Base64.getUrlEncoder().withoutPadding()
+        .encodeToString((ts + "|M73fE4WhYF4peYB3s").getBytes(StandardCharsets.UTF_8));
+
+    mockMvc.perform(
+            get("/messages")
+                .cookie(CSRF_COOKIE)
+                .header(CSRF_HEADER, CSRF_VALUE)
+                .header("rcToken", RandomStringUtils.randomAlphabetic(16))
+                .header("rcUserId", RandomStringUtils.randomAlphabetic(16))
+                .param("rcGroupId", RandomStringUtils.randomAlphabetic(16))
+                .param("offset", "20")
+                .param("count", String.valueOf(count))
+                .param("cursor", cursor)
+        )
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("messages", hasSize(5)));
+
+    verify(restTemplate).exchange(uriArgumentCaptor.capture(), eq(HttpMethod.GET),
+        any(HttpEntity.class), eq(MessageStreamDTO.class));
+    var query = uriArgumentCaptor.getValue().getQuery();
+    assertTrue(query.contains("offset=0&"));
+    assertTrue(query.contains("count=" + count + "&"));
+    assertTrue(query.contains("sort={\"ts\":1,\"_id\":1}&"));
+    assertTrue(query.endsWith("query={\"$and\":["
+        + "{\"ts\":{\"$gt\":{\"$date\":\"" + Instant.MIN + "\"}}},"
+        + "{\"$or\":["
+        + "{\"ts\":{\"$gt\":{\"$date\":\"" + ts + "\"}}},"
+        + "{\"ts\":{\"$date\":\"" + ts + "\"},\"_id\":{\"$gt\":\"M73fE4WhYF4peYB3s\"}}"
+        + "]},"
+        + "{\"u.username\":{\"$ne\":\"rcTechUserName\"}}"
+        + "]}"));
+  }
+
+  @Test
+  @WithMockUser(authorities = AuthorityValue.USER_DEFAULT)
+  void findMessagesShouldReturnBadRequestIfCursorIsInvalid() throws Exception {
+    givenMessages();
+
+    mockMvc.perform(
+            get("/messages")
+                .cookie(CSRF_COOKIE)
+                .header(CSRF_HEADER, CSRF_VALUE)
+                .header("rcToken", RandomStringUtils.randomAlphabetic(16))
+                .header("rcUserId", RandomStringUtils.randomAlphabetic(16))
+                .param("rcGroupId", RandomStringUtils.randomAlphabetic(16))
+                .param("cursor", RandomStringUtils.randomAlphanumeric(10))
+        )
+        .andExpect(status().isBadRequest());
+
+    verify(restTemplate, never()).exchange(any(URI.class), any(HttpMethod.class),
+        any(HttpEntity.class), eq(MessageStreamDTO.class));
+  }
+
   @Test
   @WithMockUser(authorities = AuthorityValue.USER_DEFAULT)
   void findMessageShouldRespondWithOkAndFullMessageIfItExists() throws Exception {
@@ -881,8 +1060,9 @@ class MessageControllerE2EIT {
   void sendMessageShouldTransmitTypeOfMessage() throws Exception {
     givenAuthenticatedUser();
     givenRocketChatSystemUser();
-    when(sessionService.findSessionBelongingToRcGroupId(
-        Mockito.anyString(), Mockito.anyString())).thenReturn(new GroupSessionListResponseDTO());
+    when(sessionService.findAdviceseekerUserIdOfRcGroupId(
+        Mockito.anyString(), Mockito.anyString(), Mockito.any(), Mockito.any()))
+        .thenReturn(Optional.empty());
     var rcGroupId = RandomStringUtils.randomAlphabetic(16);
     givenSuccessfulSendMessageResponse("p", rcGroupId);
     givenAMasterKey();
@@ -917,10 +1097,9 @@ class MessageControllerE2EIT {
     var rcGroupId = RandomStringUtils.randomAlphabetic(16);
     givenSuccessfulSendMessageResponse("e2e", rcGroupId);
     givenAMasterKey();
-    when(sessionService.findSessionBelongingToRcGroupId(
-        Mockito.anyString(), Mockito.anyString())).thenReturn(new GroupSessionListResponseDTO().sessions(
-        Lists.newArrayList(new de.caritas.cob.messageservice.userservice.generated.web.model.GroupSessionResponseDTO()
-                .user(new de.caritas.cob.messageservice.userservice.generated.web.model.SessionUserDTO().id("userId")))));
+    when(sessionService.findAdviceseekerUserIdOfRcGroupId(
+        Mockito.anyString(), Mockito.anyString(), Mockito.any(), Mockito.any()))
+        .thenReturn(Optional.of("userId"));
 
     MessageDTO encryptedMessage = createMessage("enc.secret_message", "e2e");
 
@@ -1173,6 +1352,66 @@ class MessageControllerE2EIT {
         .thenReturn(new ResponseEntity<>(messageStreamDTO, HttpStatus.OK));
   }
 
+  private void givenMessagesWithTimestamps(String... timestamps) {
+    var messages = new ArrayList<MessagesDTO>();
+    for (var ts : timestamps) {
+      var message = easyRandom.nextObject(MessagesDTO.class);
+      message.set_id("id-" + ts);
+      message.setTs(ts);
+      message.set_updatedAt(ts);
+      message.setMsg(RandomStringUtils.randomAlphanumeric(16));
+      message.setAlias(null);
+      messages.add(message);
+    }
+    var messageStreamDTO = new MessageStreamDTO();
+    messageStreamDTO.setMessages(messages);
+    when(restTemplate.exchange(any(), any(HttpMethod.class), any(), eq(MessageStreamDTO.class)))
+        .thenReturn(new ResponseEntity<>(messageStreamDTO, HttpStatus.OK));
+  }
+
+  private ResultActions findMessagesOfGroup(String groupId) throws Exception {
+    return mockMvc.perform(
+            get("/messages")
+                .cookie(CSRF_COOKIE)
+                .header(CSRF_HEADER, CSRF_VALUE)
+                .header("rcToken", RandomStringUtils.randomAlphabetic(16))
+                .header("rcUserId", RandomStringUtils.randomAlphabetic(16))
+                .param("rcGroupId", groupId)
+        )
+        .andExpect(status().isOk());
+  }
+
+  private ResultActions findMessagesOfGroup(String groupId, String count, String cursor)
+      throws Exception {
+    var request = get("/messages")
+        .cookie(CSRF_COOKIE)
+        .header(CSRF_HEADER, CSRF_VALUE)
+        .header("rcToken", RandomStringUtils.randomAlphabetic(16))
+        .header("rcUserId", RandomStringUtils.randomAlphabetic(16))
+        .param("rcGroupId", groupId)
+        .param("count", count);
+    if (cursor != null) {
+      request.param("cursor", cursor);
+    }
+    return mockMvc.perform(request).andExpect(status().isOk());
+  }
+
+  private MessagesDTO messageOf(String id, String ts) {
+    var message = easyRandom.nextObject(MessagesDTO.class);
+    message.set_id(id);
+    message.setTs(ts);
+    message.set_updatedAt(ts);
+    message.setMsg(RandomStringUtils.randomAlphanumeric(16));
+    message.setAlias(null);
+    return message;
+  }
+
+  private ResponseEntity<MessageStreamDTO> messageStreamOf(MessagesDTO... messages) {
+    var messageStreamDTO = new MessageStreamDTO();
+    messageStreamDTO.setMessages(new ArrayList<>(List.of(messages)));
+    return new ResponseEntity<>(messageStreamDTO, HttpStatus.OK);
+  }
+
   private void givenMessages() {
     var messages = easyRandom.objects(MessagesDTO.class, 5).collect(Collectors.toList());
     var messageStreamDTO = new MessageStreamDTO();
@@ -0,0 +1,189 @@
+package de.caritas.cob.messageservice.api.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import de.caritas.cob.messageservice.api.service.EncryptionService;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/**
+ * Load test firing concurrent GET /messages requests against a Rocket.Chat stub with a fixed
+ * latency, to compare the throughput of platform and virtual request threads. Skipped by default,
+ * run with:
+ * <pre>
+ * mvn integration-test -Dloadtest=true -Dtest=MessageControllerLoadIT
+ *     [-Dloadtest.virtual.threads=false] [-Dloadtest.concurrency=1000]
+ * </pre>
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT,
+    properties = "logging.level.org.springframework.web=INFO")
+@ActiveProfiles("testing")
+@AutoConfigureTestDatabase
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+@Slf4j
+class MessageControllerLoadIT {
+
+  private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 1000);
+  private static final Duration ROCKET_CHAT_LATENCY = Duration.ofMillis(100);
+  private static final int MESSAGES_PER_PAGE = 20;
+  private static final String CSRF_VALUE = "test";
+
+  private static final ExecutorService rocketChatStubExecutor = Executors.newCachedThreadPool();
+  private static final HttpServer rocketChatStub = startRocketChatStub();
+
+  private final HttpClient httpClient = HttpClient.newBuilder()
+      .version(HttpClient.Version.HTTP_1_1)
+      .connectTimeout(Duration.ofSeconds(30))
+      .build();
+
+  @LocalServerPort
+  private int port;
+
+  @Autowired
+  private EncryptionService encryptionService;
+
+  @MockBean
+  private JwtDecoder jwtDecoder;
+
+  @DynamicPropertySource
+  static void loadTestProperties(DynamicPropertyRegistry registry) {
+    registry.add("rocket.chat.api.url",
+        () -> "http://localhost:" + rocketChatStub.getAddress().getPort() + "/api/v1");
+    registry.add("threads.virtual.enabled",
+        () -> System.getProperty("loadtest.virtual.threads", "true"));
+    registry.add("server.tomcat.accept-count", () -> CONCURRENCY);
+    registry.add("http.client.pool.max.total", () -> CONCURRENCY);
+    registry.add("http.client.pool.max.per.route", () -> CONCURRENCY);
+  }
+
+  @AfterAll
+  static void stopRocketChatStub() {
+    rocketChatStub.stop(0);
+    rocketChatStubExecutor.shutdownNow();
+  }
+
+  @BeforeEach
+  void setup() {
+    encryptionService.updateMasterKey("loadTestMasterKey");
+    when(jwtDecoder.decode(anyString())).thenReturn(Jwt.withTokenValue("token")
+        .header("alg", "none")
+        .subject("loadtest")
+        .claim("userId", "loadTestUserId")
+        .claim("username", "loadTestUser")
+        .claim("realm_access", Map.of("roles", List.of("user")))
+        .issuedAt(Instant.now())
+        .expiresAt(Instant.now().plusSeconds(3600))
+        .build());
+  }
+
+  @Test
+  void findMessages_Should_ServeConcurrentRequests() {
+    sendConcurrently(50);
+
+    var start = System.nanoTime();
+    var statusCodes = sendConcurrently(CONCURRENCY);
+    var elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+    log.info("{} concurrent GET /messages with {} ms Rocket.Chat latency (virtual threads "
+            + "requested: {}, Java {}): {} ms, {} requests/s", CONCURRENCY,
+        ROCKET_CHAT_LATENCY.toMillis(), System.getProperty("loadtest.virtual.threads", "true"),
+        Runtime.version().feature(), elapsed.toMillis(),
+        Math.round(CONCURRENCY * 1000.0 / Math.max(1, elapsed.toMillis())));
+    assertThat(statusCodes).containsOnly(200);
+  }
+
+  private List<Integer> sendConcurrently(int requests) {
+    var responses = IntStream.range(0, requests)
+        .mapToObj(i -> httpClient.sendAsync(findMessagesRequest(i), BodyHandlers.discarding()))
+        .collect(Collectors.toList());
+
+    return responses.stream()
+        .map(CompletableFuture::join)
+        .map(HttpResponse::statusCode)
+        .collect(Collectors.toList());
+  }
+
+  private HttpRequest findMessagesRequest(int i) {
+    return HttpRequest.newBuilder(
+            URI.create("http://localhost:" + port + "/messages?rcGroupId=group" + (i % 100)
+                + "&offset=0&count=" + MESSAGES_PER_PAGE))
+        .header("Authorization", "Bearer token")
+        .header("Cookie", "CSRF-TOKEN=" + CSRF_VALUE)
+        .header("X-CSRF-TOKEN", CSRF_VALUE)
+        .header("rcToken", "rcToken")
+        .header("rcUserId", "rcUserId")
+        .timeout(Duration.ofSeconds(60))
+        .GET()
+        .build();
+  }
+
+  private static HttpServer startRocketChatStub() {
+    try {
+      var server = HttpServer.create(new InetSocketAddress("localhost", 0), CONCURRENCY);
+      server.createContext("/api/v1/groups.messages", MessageControllerLoadIT::respondWithPage);
+      server.setExecutor(rocketChatStubExecutor);
+      server.start();
+      return server;
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static void respondWithPage(HttpExchange exchange) throws IOException {
+    try {
+      Thread.sleep(ROCKET_CHAT_LATENCY.toMillis());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+
+    var messages = IntStream.range(0, MESSAGES_PER_PAGE)
+        .mapToObj(i -> String.format("{\"_id\":\"message%d\",\"rid\":\"group\",\"msg\":\"hello\","
+            + "\"ts\":\"2022-09-05T12:%02d:00.000Z\",\"u\":{\"_id\":\"user\","
+            + "\"username\":\"user\"}}", i, i))
+        .collect(Collectors.joining(",", "[", "]"));
+    var body = String.format("{\"messages\":%s,\"count\":%d,\"offset\":0,\"total\":%d,"
+        + "\"success\":true}", messages, MESSAGES_PER_PAGE, MESSAGES_PER_PAGE)
+        .getBytes(StandardCharsets.UTF_8);
+
+    exchange.getResponseHeaders().add("Content-Type", "application/json");
+    exchange.sendResponseHeaders(200, body.length);
+    try (var responseBody = exchange.getResponseBody()) {
+      responseBody.write(body);
+    }
+  }
+}
@@ -0,0 +1,168 @@
+package de.caritas.cob.messageservice.api.controller;
+
+import static org.hamcrest.Matchers.contains;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.caritas.cob.messageservice.api.authorization.Authority.AuthorityValue;
+import de.caritas.cob.messageservice.api.model.MessageStreamDTO;
+import de.caritas.cob.messageservice.api.model.rocket.chat.message.MessagesDTO;
+import de.caritas.cob.messageservice.api.model.rocket.chat.message.UserDTO;
+import de.caritas.cob.messageservice.api.service.EncryptionService;
+import de.caritas.cob.messageservice.api.service.LiveEventNotificationService;
+import de.caritas.cob.messageservice.api.service.statistics.StatisticsService;
+import jakarta.servlet.http.Cookie;
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestTemplate;
+
+@SpringBootTest(properties = {
+    "message.streaming.enabled=true",
+    "cache.specs.message-page.maximumWeight=" + MessageControllerStreamingE2EIT.MAXIMUM_CACHED
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("testing")
+@AutoConfigureTestDatabase
+class MessageControllerStreamingE2EIT {
+
+  static final int MAXIMUM_CACHED = 3;
+
+  private static final String CSRF_HEADER = "X-CSRF-TOKEN";
+  private static final String CSRF_VALUE = "test";
+  private static final Cookie CSRF_COOKIE = new Cookie("CSRF-TOKEN", CSRF_VALUE);
+  private static final ObjectMapper objectMapper = new ObjectMapper();
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private EncryptionService encryptionService;
+
+  @MockBean
+  private RestTemplate restTemplate;
+
+  @MockBean
+  @SuppressWarnings("unused")
+  private LiveEventNotificationService liveEventNotificationService;
+
+  @MockBean
+  @SuppressWarnings("unused")
+  private StatisticsService statisticsService;
+
+  @BeforeEach
+  void setup() {
+    encryptionService.updateMasterKey("initialMasterKey");
+  }
+
+  @Test
+  @WithMockUser(authorities = AuthorityValue.USER_DEFAULT)
+  void findMessagesShouldStreamMessagesOfGroupWithMoreMessagesThanPageCacheHolds()
+      throws Exception {
+    var groupId = RandomStringUtils.randomAlphabetic(16);
+    var messages = messagesOf(groupId, MAXIMUM_CACHED + 1);
+    givenMessages(messages);
+    var ids = messages.stream().map(MessagesDTO::get_id).toArray(String[]::new);
+
+    findMessagesOfGroup(groupId)
+        .andExpect(jsonPath("messages[*]._id", contains(ids)));
+    findMessagesOfGroup(groupId)
+        .andExpect(jsonPath("messages[*]._id", contains(ids)));
+
+    verify(restTemplate, times(1)).exchange(any(URI.class), eq(HttpMethod.GET),
+        any(HttpEntity.class), eq(MessageStreamDTO.class));
+    verify(restTemplate, times(1)).execute(any(URI.class), eq(HttpMethod.GET),
+        any(RequestCallback.class), any(ResponseExtractor.class));
+  }
+
+  @Test
+  @WithMockUser(authorities = AuthorityValue.USER_DEFAULT)
+  void findMessagesShouldServeGroupFittingIntoPageCacheFromCache() throws Exception {
+    var groupId = RandomStringUtils.randomAlphabetic(16);
+    givenMessages(messagesOf(groupId, MAXIMUM_CACHED));
+
+    findMessagesOfGroup(groupId);
+    findMessagesOfGroup(groupId);
+
+    verify(restTemplate, times(2)).exchange(any(URI.class), eq(HttpMethod.GET),
+        any(HttpEntity.class), eq(MessageStreamDTO.class));
+    verify(restTemplate, never()).execute(any(URI.class), eq(HttpMethod.GET),
+        any(RequestCallback.class), any(ResponseExtractor.class));
+  }
+
+  private void givenMessages(List<MessagesDTO> messages) throws Exception {
+    var messageStream = new MessageStreamDTO();
+    messageStream.setMessages(new ArrayList<>(messages));
+    when(restTemplate.exchange(any(), any(HttpMethod.class), any(), eq(MessageStreamDTO.class)))
+        .thenReturn(new ResponseEntity<>(messageStream, HttpStatus.OK));
+
+    var rocketChatResponse = objectMapper.writeValueAsBytes(
+        Map.of("messages", messages, "success", true));
+    doAnswer(invocation -> {
+      var response = mock(ClientHttpResponse.class);
+      when(response.getBody()).thenReturn(new ByteArrayInputStream(rocketChatResponse));
+      return invocation.<ResponseExtractor<?>>getArgument(3).extractData(response);
+    }).when(restTemplate).execute(any(URI.class), any(HttpMethod.class), any(), any());
+  }
+
+  private ResultActions findMessagesOfGroup(String groupId) throws Exception {
+    return mockMvc.perform(
+            get("/messages")
+                .cookie(CSRF_COOKIE)
+                .header(CSRF_HEADER, CSRF_VALUE)
+                .header("rcToken", RandomStringUtils.randomAlphabetic(16))
+                .header("rcUserId", RandomStringUtils.randomAlphabetic(16))
+                .param("rcGroupId", groupId)
+        )
+        .andExpect(status().isOk());
+  }
+
+  private static List<MessagesDTO> messagesOf(String groupId, int count) {
+    return IntStream.range(0, count)
+        .mapToObj(i -> {
+          var ts = String.format("2022-06-28T10:45:%02d.000Z", i);
+          var message = new MessagesDTO();
+          message.set_id("id-" + i);
+          message.setRid(groupId);
+          message.setMsg(RandomStringUtils.randomAlphanumeric(16));
+          message.setTs(ts);
+          message.set_updatedAt(ts);
+          message.setU(new UserDTO("userId", "username", "name"));
+          return message;
+        })
+        .collect(Collectors.toList());
+  }
+}
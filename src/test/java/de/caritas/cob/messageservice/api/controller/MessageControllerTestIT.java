@@ -32,6 +32,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.times;
@@ -199,7 +200,7 @@ public class MessageControllerTestIT {
     String streamJson = convertObjectToJson(stream);
 
     when(rocketChatService.getGroupMessages(anyString(), anyString(),
-        anyString(), anyInt(), anyInt(), any(Instant.class))).thenReturn(stream);
+        anyString(), anyInt(), anyInt(), any(Instant.class), isNull())).thenReturn(stream);
 
     mvc.perform(get(PATH_GET_MESSAGE_STREAM).header(QUERY_PARAM_RC_TOKEN, RC_TOKEN)
             .header(QUERY_PARAM_RC_USER_ID, RC_USER_ID).param(QUERY_PARAM_OFFSET, RC_OFFSET)
@@ -208,7 +209,7 @@ public class MessageControllerTestIT {
         .andExpect(content().json(streamJson));
 
     verify(rocketChatService, atLeastOnce()).getGroupMessages(anyString(), anyString(),
-        anyString(), anyInt(), anyInt(), any(Instant.class));
+        anyString(), anyInt(), anyInt(), any(Instant.class), isNull());
   }
 
   @Test
@@ -232,7 +233,7 @@ public class MessageControllerTestIT {
       throws Exception {
 
     when(rocketChatService.getGroupMessages(anyString(), anyString(),
-        anyString(), anyInt(), anyInt(), any(Instant.class))).thenReturn(null);
+        anyString(), anyInt(), anyInt(), any(Instant.class), isNull())).thenReturn(null);
 
     mvc.perform(get(PATH_GET_MESSAGE_STREAM).header(QUERY_PARAM_RC_TOKEN, RC_TOKEN)
         .header(QUERY_PARAM_RC_USER_ID, RC_USER_ID).param(QUERY_PARAM_OFFSET, RC_OFFSET)
@@ -240,7 +241,7 @@ public class MessageControllerTestIT {
         .accept(MediaType.APPLICATION_JSON)).andExpect(status().isNoContent());
 
     verify(rocketChatService, atLeastOnce()).getGroupMessages(anyString(), anyString(),
-        anyString(), anyInt(), anyInt(), any(Instant.class));
+        anyString(), anyInt(), anyInt(), any(Instant.class), isNull());
   }
 
   /**
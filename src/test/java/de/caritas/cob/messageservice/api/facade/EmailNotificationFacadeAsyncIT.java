@@ -1,19 +1,21 @@
 package de.caritas.cob.messageservice.api.facade;
 
+import static de.caritas.cob.messageservice.config.AsyncExecutorConfig.EMAIL_NOTIFICATION_EXECUTOR;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.when;
 
 import de.caritas.cob.messageservice.api.model.AliasArgs;
 import de.caritas.cob.messageservice.userservice.generated.ApiClient;
 import de.caritas.cob.messageservice.userservice.generated.web.UserControllerApi;
-import java.lang.management.ManagementFactory;
 import java.util.Optional;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.jeasy.random.EasyRandom;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.TestPropertySource;
@@ -29,6 +31,10 @@ class EmailNotificationFacadeAsyncIT {
   @Autowired
   private EmailNotificationFacade underTest;
 
+  @Autowired
+  @Qualifier(EMAIL_NOTIFICATION_EXECUTOR)
+  private ThreadPoolTaskExecutor emailNotificationExecutor;
+
   @MockBean
   @SuppressWarnings("unused")
   private UserControllerApi userControllerApi;
@@ -39,7 +45,7 @@ class EmailNotificationFacadeAsyncIT {
   @Test
   void sendEmailAboutNewChatMessageShouldRunInAnotherThread() {
     when(userControllerApi.getApiClient()).thenReturn(apiClient);
-    var threadCount = ManagementFactory.getThreadMXBean().getThreadCount();
+    var taskCount = emailNotificationExecutor.getThreadPoolExecutor().getTaskCount();
 
     underTest.sendEmailAboutNewChatMessage(
         RandomStringUtils.randomAlphanumeric(16),
@@ -47,13 +53,13 @@ class EmailNotificationFacadeAsyncIT {
         null
     );
 
-    assertEquals(threadCount + 1, ManagementFactory.getThreadMXBean().getThreadCount());
+    assertEquals(taskCount + 1, emailNotificationExecutor.getThreadPoolExecutor().getTaskCount());
   }
 
   @Test
   void sendEmailAboutReassignRequestShouldRunInAnotherThread() {
     when(userControllerApi.getApiClient()).thenReturn(apiClient);
-    var threadCount = ManagementFactory.getThreadMXBean().getThreadCount();
+    var taskCount = emailNotificationExecutor.getThreadPoolExecutor().getTaskCount();
 
     underTest.sendEmailAboutReassignRequest(
         RandomStringUtils.randomAlphanumeric(16),
@@ -62,13 +68,13 @@ class EmailNotificationFacadeAsyncIT {
         null
     );
 
-    assertEquals(threadCount + 1, ManagementFactory.getThreadMXBean().getThreadCount());
+    assertEquals(taskCount + 1, emailNotificationExecutor.getThreadPoolExecutor().getTaskCount());
   }
 
   @Test
   void sendEmailAboutReassignDecisionShouldRunInAnotherThread() {
     when(userControllerApi.getApiClient()).thenReturn(apiClient);
-    var threadCount = ManagementFactory.getThreadMXBean().getThreadCount();
+    var taskCount = emailNotificationExecutor.getThreadPoolExecutor().getTaskCount();
 
     underTest.sendEmailAboutReassignDecision(
         RandomStringUtils.randomAlphanumeric(16),
@@ -77,6 +83,6 @@ class EmailNotificationFacadeAsyncIT {
         null
     );
 
-    assertEquals(threadCount + 1, ManagementFactory.getThreadMXBean().getThreadCount());
+    assertEquals(taskCount + 1, emailNotificationExecutor.getThreadPoolExecutor().getTaskCount());
   }
 }
@@ -3,7 +3,6 @@ package de.caritas.cob.messageservice.api.facade;
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -12,7 +11,6 @@ import de.caritas.cob.messageservice.api.model.ReassignStatus;
 import de.caritas.cob.messageservice.api.service.helper.ServiceHelper;
 import de.caritas.cob.messageservice.api.tenant.TenantContext;
 import de.caritas.cob.messageservice.config.apiclient.ApiControllerFactory;
-import de.caritas.cob.messageservice.userservice.generated.ApiClient;
 import de.caritas.cob.messageservice.userservice.generated.web.UserControllerApi;
 import de.caritas.cob.messageservice.userservice.generated.web.model.NewMessageNotificationDTO;
 import de.caritas.cob.messageservice.userservice.generated.web.model.ReassignmentNotificationDTO;
@@ -64,7 +62,6 @@ class EmailNotificationFacadeTest {
   private void givenApiClientAndHeadersAreConfigured() {
     when(serviceHelper.getKeycloakAndCsrfAndOriginHttpHeaders(any(), any()))
         .thenReturn(new HttpHeaders());
-    when(userControllerApi.getApiClient()).thenReturn(mock(ApiClient.class));
   }
 
   @Test
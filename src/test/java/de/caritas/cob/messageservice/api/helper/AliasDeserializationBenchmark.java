@@ -0,0 +1,117 @@
+package de.caritas.cob.messageservice.api.helper;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import de.caritas.cob.messageservice.api.model.AliasMessageDTO;
+import de.caritas.cob.messageservice.api.model.MessageStreamDTO;
+import de.caritas.cob.messageservice.api.model.MessageType;
+import de.caritas.cob.messageservice.api.model.VideoCallMessageDTO;
+import de.caritas.cob.messageservice.api.model.VideoCallMessageDTO.EventTypeEnum;
+import de.caritas.cob.messageservice.api.model.jsondeserializer.AliasJsonDeserializer;
+import de.caritas.cob.messageservice.api.model.rocket.chat.message.MessagesDTO;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Deserializes a Rocket.Chat page of 500 messages with video call and reassignment aliases, once
+ * with the shared alias reader of {@link JSONHelper} and once with a new object mapper per alias,
+ * as before. Run with
+ * {@code mvn test-compile exec:exec -Pbenchmark -Dbenchmark.include=AliasDeserialization}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class AliasDeserializationBenchmark {
+
+  private static final int PAGE_SIZE = 500;
+
+  private String page;
+  private ObjectMapper sharedReaderMapper;
+  private ObjectMapper mapperPerAliasMapper;
+
+  @Setup
+  public void setup() throws JsonProcessingException {
+    var videoCallAlias = JSONHelper.convertAliasMessageDTOToString(new AliasMessageDTO()
+        .videoCallMessageDTO(new VideoCallMessageDTO()
+            .eventType(EventTypeEnum.IGNORED_CALL)
+            .initiatorUserName("enc.MFXWSZLSNFSGKOJONYYHQ5LCOE")
+            .initiatorRcUserId("p5NdZSxc2Kh7GfXdB"))).orElseThrow();
+    var reassignmentAlias = JSONHelper.convertAliasMessageDTOToString(new AliasMessageDTO()
+        .messageType(MessageType.REASSIGN_CONSULTANT)
+        .content("{\"toConsultantId\":\"d63f4cc0-215d-40e2-a866-2d3e910f0590\","
+            + "\"fromConsultantName\":\"consultant\",\"status\":\"REQUESTED\"}")).orElseThrow();
+
+    var json = new StringBuilder("{\"messages\":[");
+    for (var i = 0; i < PAGE_SIZE; i++) {
+      if (i > 0) {
+        json.append(',');
+      }
+      json.append("{\"_id\":\"M73fE4WhYF4peYB").append(i)
+          .append("\",\"alias\":\"").append(i % 2 == 0 ? videoCallAlias : reassignmentAlias)
+          .append("\",\"rid\":\"fR2Rz7dmWmHdXE8uz\",\"msg\":\"Lorem ipsum dolor sit amet\",")
+          .append("\"ts\":\"2018-11-15T09:33:00.057Z\",")
+          .append("\"u\":{\"_id\":\"pptLwARyTMzbTTRdg\",\"username\":\"user\",\"name\":\"u\"},")
+          .append("\"unread\":false}");
+    }
+    page = json.append("]}").toString();
+
+    sharedReaderMapper = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    mapperPerAliasMapper = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+        .addMixIn(MessagesDTO.class, MapperPerAliasMixIn.class);
+  }
+
+  @Benchmark
+  public MessageStreamDTO sharedAliasReader() throws JsonProcessingException {
+    return sharedReaderMapper.readValue(page, MessageStreamDTO.class);
+  }
+
+  @Benchmark
+  public MessageStreamDTO objectMapperPerAlias() throws JsonProcessingException {
+    return mapperPerAliasMapper.readValue(page, MessageStreamDTO.class);
+  }
+
+  abstract static class MapperPerAliasMixIn {
+
+    @JsonDeserialize(using = MapperPerAliasDeserializer.class)
+    abstract void setAlias(AliasMessageDTO alias);
+  }
+
+  /** The {@link AliasJsonDeserializer} before the reader was shared. */
+  static class MapperPerAliasDeserializer extends JsonDeserializer<AliasMessageDTO> {
+
+    private final UserHelper userHelper = new UserHelper();
+
+    @Override
+    public AliasMessageDTO deserialize(JsonParser jsonParser, DeserializationContext context)
+        throws IOException {
+      var alias = new ObjectMapper().readValue(
+          UrlEncodingDecodingUtils.urlDecodeString(jsonParser.getValueAsString()),
+          AliasMessageDTO.class);
+      if (alias.getVideoCallMessageDTO() != null) {
+        alias.getVideoCallMessageDTO().setInitiatorUserName(
+            userHelper.decodeUsername(alias.getVideoCallMessageDTO().getInitiatorUserName()));
+      }
+      return alias;
+    }
+  }
+}
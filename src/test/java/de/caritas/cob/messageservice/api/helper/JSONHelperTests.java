@@ -38,6 +38,17 @@ public class JSONHelperTests {
     assertThat(result.isPresent(), is(false));
   }
 
+  @Test
+  public void convertStringToAliasMessageDTO_Should_readAliasWrittenByConvertAliasMessageDTOToString() {
+    AliasMessageDTO aliasMessageDTO = new EasyRandom().nextObject(AliasMessageDTO.class);
+    String alias = JSONHelper.convertAliasMessageDTOToString(aliasMessageDTO).orElseThrow();
+
+    Optional<AliasMessageDTO> result = JSONHelper.convertStringToAliasMessageDTO(alias);
+
+    assertThat(result.isPresent(), is(true));
+    assertThat(result.get(), is(aliasMessageDTO));
+  }
+
   @Test
   public void serialize_Should_returnOptionalWithSerializedObject() {
 
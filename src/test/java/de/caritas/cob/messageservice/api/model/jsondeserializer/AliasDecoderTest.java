@@ -0,0 +1,96 @@
+package de.caritas.cob.messageservice.api.model.jsondeserializer;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import de.caritas.cob.messageservice.api.helper.JSONHelper;
+import de.caritas.cob.messageservice.api.helper.UserHelper;
+import de.caritas.cob.messageservice.api.model.AliasMessageDTO;
+import de.caritas.cob.messageservice.api.model.MessageType;
+import de.caritas.cob.messageservice.api.model.VideoCallMessageDTO;
+import de.caritas.cob.messageservice.api.model.VideoCallMessageDTO.EventTypeEnum;
+import java.util.stream.Stream;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.api.Test;
+
+class AliasDecoderTest {
+
+  private final UserHelper userHelper = new UserHelper();
+  private final AliasDecoder aliasDecoder = new AliasDecoder(userHelper, 100);
+
+  static Stream<String> aliases() {
+    var userHelper = new UserHelper();
+    return Stream.of(
+        encoded(new AliasMessageDTO().messageType(MessageType.USER_MUTED)),
+        encoded(new AliasMessageDTO().messageType(MessageType.REASSIGN_CONSULTANT)
+            .content("{\"toConsultantId\":\"id\",\"fromConsultantName\":\"Änne Müller\"}")),
+        encoded(new AliasMessageDTO().messageType(MessageType.FURTHER_STEPS)
+            .content("emoji 😀, plus + and percent % signs")),
+        encoded(new AliasMessageDTO().videoCallMessageDTO(new VideoCallMessageDTO()
+            .eventType(EventTypeEnum.IGNORED_CALL)
+            .initiatorUserName(userHelper.encodeUsername("username"))
+            .initiatorRcUserId("rcUserId"))),
+        "{\"messageType\":\"USER_MUTED\"}",
+        "%7B%22messageType%22%3A%22FURTHER_STEPS%22%2C%22content%22%3A%22a+b%22%7D",
+        "%7B%22content%22%3A%22broken %FF%FE bytes%22%7D");
+  }
+
+  @ParameterizedTest
+  @MethodSource("aliases")
+  void decode_Should_DecodeLikeUrlDecoderAndObjectMapper(String alias) {
+    var expected = JSONHelper.convertStringToAliasMessageDTO(alias).orElseThrow();
+    if (expected.getVideoCallMessageDTO() != null) {
+      expected.getVideoCallMessageDTO().setInitiatorUserName(
+          userHelper.decodeUsername(expected.getVideoCallMessageDTO().getInitiatorUserName()));
+    }
+
+    assertThat(aliasDecoder.decode(alias), is(expected));
+    assertThat("memoized", aliasDecoder.decode(alias), is(expected));
+  }
+
+  @Test
+  void decode_Should_ReturnCopyOfMemoizedAlias() {
+    var alias = encoded(new AliasMessageDTO().videoCallMessageDTO(new VideoCallMessageDTO()
+        .eventType(EventTypeEnum.IGNORED_CALL).initiatorUserName("username")));
+
+    var first = aliasDecoder.decode(alias);
+    first.setMessageType(MessageType.VIDEOCALL);
+    first.getVideoCallMessageDTO().setInitiatorUserName("changed");
+    var second = aliasDecoder.decode(alias);
+
+    assertThat(second, not(sameInstance(first)));
+    assertThat(second.getMessageType(), is(nullValue()));
+    assertThat(second.getVideoCallMessageDTO().getInitiatorUserName(), is("username"));
+  }
+
+  @Test
+  void decode_Should_ReturnNull_When_AliasIsBlankOrNotReadable() {
+    assertThat(aliasDecoder.decode(null), is(nullValue()));
+    assertThat(aliasDecoder.decode(" "), is(nullValue()));
+    assertThat(aliasDecoder.decode("alias"), is(nullValue()));
+  }
+
+  @Test
+  void decode_Should_ReadAliasesOfFormerVersions_When_IgnoringUnknownProperties() {
+    var alias = "{\"forwardMessageDTO\":null,\"messageType\":\"FURTHER_STEPS\"}";
+
+    assertThat(aliasDecoder.decode(alias), is(nullValue()));
+    assertThat(new AliasDecoder(userHelper, 100, true).decode(alias).getMessageType(),
+        is(MessageType.FURTHER_STEPS));
+  }
+
+  @Test
+  void decode_Should_Throw_When_EscapeIsIllegal() {
+    assertThrows(IllegalArgumentException.class, () -> aliasDecoder.decode("%7B%2"));
+    assertThrows(IllegalArgumentException.class, () -> aliasDecoder.decode("%7B%ZZ%7D"));
+  }
+
+  private static String encoded(AliasMessageDTO alias) {
+    return JSONHelper.convertAliasMessageDTOToString(alias).orElseThrow();
+  }
+}
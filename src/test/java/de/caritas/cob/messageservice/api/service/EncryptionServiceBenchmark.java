@@ -0,0 +1,96 @@
+package de.caritas.cob.messageservice.api.service;
+
+import static de.caritas.cob.messageservice.testhelper.TestCacheRegistry.cacheRegistryOf;
+import static de.caritas.cob.messageservice.testhelper.TestCacheRegistry.sizeBoundSpec;
+
+import de.caritas.cob.messageservice.api.exception.CustomCryptoException;
+import de.caritas.cob.messageservice.api.service.helper.CipherPool;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Compares a per call {@link Cipher#getInstance(String)} with the pooled ciphers of the
+ * {@link EncryptionService}. Run with {@code mvn test-compile exec:exec -Pbenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EncryptionServiceBenchmark {
+
+  private static final String CIPHER_METHODS = "AES/ECB/PKCS5PADDING";
+  private static final String SECRET = "fR2Rz7dmWmHdXE8uz";
+
+  @Param({"1024", "32768"})
+  private int messageSize;
+
+  private byte[] plainMessage;
+  private String plainText;
+  private String encryptedText;
+  private SecretKeySpec keySpec;
+  private CipherPool cipherPool;
+  private EncryptionService encryptionService;
+
+  @Setup
+  public void setup() throws GeneralSecurityException, CustomCryptoException {
+    plainText = RandomStringUtils.randomAlphanumeric(messageSize);
+    plainMessage = plainText.getBytes();
+    var keyBytes = MessageDigest.getInstance("SHA-1").digest(SECRET.getBytes());
+    keySpec = new SecretKeySpec(Arrays.copyOf(keyBytes, 16), "AES");
+    cipherPool = new CipherPool(CIPHER_METHODS, 4);
+
+    encryptionService = new EncryptionService(cacheRegistryOf(
+        EncryptionService.DERIVED_KEY_CACHE_NAME, sizeBoundSpec(100, Duration.ofHours(1))));
+    encryptionService.init();
+    ReflectionTestUtils.setField(encryptionService, "fragment_applicationKey", "applicationKey");
+    encryptionService.setApplicationEventPublisher(event -> {
+    });
+    encryptionService.updateMasterKey("masterKey");
+    encryptedText = encryptionService.encrypt(plainText, SECRET);
+  }
+
+  @Benchmark
+  public byte[] cipherGetInstancePerCall() throws GeneralSecurityException {
+    var cipher = Cipher.getInstance(CIPHER_METHODS);
+    cipher.init(Cipher.ENCRYPT_MODE, keySpec);
+    return cipher.doFinal(plainMessage);
+  }
+
+  @Benchmark
+  public byte[] cipherPooled() throws GeneralSecurityException {
+    return cipherPool.execute(cipher -> {
+      cipher.init(Cipher.ENCRYPT_MODE, keySpec);
+      return cipher.doFinal(plainMessage);
+    });
+  }
+
+  @Benchmark
+  public String encryptionServiceEncrypt() throws CustomCryptoException {
+    return encryptionService.encrypt(plainText, SECRET);
+  }
+
+  @Benchmark
+  public String encryptionServiceDecrypt() throws CustomCryptoException {
+    return encryptionService.decrypt(encryptedText, SECRET);
+  }
+}
@@ -1,17 +1,26 @@
 package de.caritas.cob.messageservice.api.service;
 
+import static de.caritas.cob.messageservice.testhelper.TestCacheRegistry.cacheRegistryOf;
+import static de.caritas.cob.messageservice.testhelper.TestCacheRegistry.sizeBoundSpec;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 import de.caritas.cob.messageservice.api.exception.CustomCryptoException;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.test.util.ReflectionTestUtils;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -26,14 +35,20 @@ public class EncryptionServiceTest {
   private final String MESSAGE_ENCRYPTED =
       "enc:uWHNUkWrQJikGnVpknvB3SkzT1RWHJuY0igDT9p7fGFHWECLBpV2+0eIZF6Qi7J0";
 
-  @InjectMocks
   private EncryptionService encryptionService;
 
   @Mock
   private LogService logService;
 
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
   @Before
   public void setup() throws NoSuchFieldException {
+    encryptionService = new EncryptionService(cacheRegistryOf(
+        EncryptionService.DERIVED_KEY_CACHE_NAME, sizeBoundSpec(100, Duration.ofHours(1))));
+    encryptionService.init();
+    encryptionService.setApplicationEventPublisher(eventPublisher);
     ReflectionTestUtils.setField(encryptionService, "fragment_applicationKey", KEY_APPLICATION);
 
 
@@ -85,6 +100,48 @@ public class EncryptionServiceTest {
     }
   }
 
+  @Test
+  public void encrypt_Should_NotReuseDerivedKey_When_MasterKeyWasUpdated()
+      throws CustomCryptoException {
+    encryptionService.encrypt(MESSAGE_PLAIN, KEY_SESSION);
+
+    encryptionService.updateMasterKey("UpdatedMasterKeyTestKey");
+    String encryptMessage = encryptionService.encrypt(MESSAGE_PLAIN, KEY_SESSION);
+    Assert.assertNotEquals("Derived key of previous master key was used.", MESSAGE_ENCRYPTED,
+        encryptMessage);
+
+    encryptionService.updateMasterKey(KEY_MASTER);
+    assertEquals("Did not get the expected encryption result.", MESSAGE_ENCRYPTED,
+        encryptionService.encrypt(MESSAGE_PLAIN, KEY_SESSION));
+  }
+
+  @Test
+  public void updateMasterKey_Should_PublishMasterKeyUpdatedEvent() {
+    encryptionService.updateMasterKey("UpdatedMasterKeyTestKey");
+
+    verify(eventPublisher, times(2)).publishEvent(any(MasterKeyUpdatedEvent.class));
+  }
+
+  @Test
+  public void decryptAll_Should_ReturnDecryptedTextsInOrder_WhenProvidedWithValidParameters()
+      throws CustomCryptoException {
+    String otherMessage = "Eine weitere, etwas laengere Test-Message";
+    String otherEncrypted = encryptionService.encrypt(otherMessage, KEY_SESSION);
+
+    List<String> decryptedMessages = encryptionService.decryptAll(
+        Arrays.asList(MESSAGE_ENCRYPTED, null, "plain", otherEncrypted, MESSAGE_ENCRYPTED),
+        KEY_SESSION);
+
+    assertEquals(Arrays.asList(MESSAGE_PLAIN, null, "plain", otherMessage, MESSAGE_PLAIN),
+        decryptedMessages);
+  }
+
+  @Test(expected = CustomCryptoException.class)
+  public void decryptAll_Should_ThrowCustomCryptoException_WhenProvidedWithInvalidParameters()
+      throws CustomCryptoException {
+    encryptionService.decryptAll(List.of(MESSAGE_ENCRYPTED), KEY_SESSION_WRONG);
+  }
+
   @Test
   public void decrypt_Should_ReturnNull_WhenMessageIsNull() throws CustomCryptoException {
     assertNull(encryptionService.decrypt(null, KEY_MASTER));
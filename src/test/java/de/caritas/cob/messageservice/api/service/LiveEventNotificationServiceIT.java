@@ -1,5 +1,6 @@
 package de.caritas.cob.messageservice.api.service;
 
+import static de.caritas.cob.messageservice.config.AsyncExecutorConfig.LIVE_EVENT_EXECUTOR;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
@@ -8,14 +9,15 @@ import static org.mockito.Mockito.when;
 import de.caritas.cob.messageservice.api.helper.AuthenticatedUser;
 import de.caritas.cob.messageservice.userservice.generated.ApiClient;
 import de.caritas.cob.messageservice.userservice.generated.web.LiveproxyControllerApi;
-import java.lang.management.ManagementFactory;
 import java.util.Optional;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.jeasy.random.EasyRandom;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.TestPropertySource;
@@ -31,6 +33,10 @@ class LiveEventNotificationServiceIT {
   @Autowired
   private LiveEventNotificationService underTest;
 
+  @Autowired
+  @Qualifier(LIVE_EVENT_EXECUTOR)
+  private ThreadPoolTaskExecutor liveEventExecutor;
+
   @MockBean
   @SuppressWarnings("unused")
   private LiveproxyControllerApi liveproxyControllerApi;
@@ -44,7 +50,7 @@ class LiveEventNotificationServiceIT {
   @Test
   void sendLiveEventShouldRunInAnotherThread() {
     when(liveproxyControllerApi.getApiClient()).thenReturn(apiClient);
-    var threadCount = ManagementFactory.getThreadMXBean().getThreadCount();
+    var taskCount = liveEventExecutor.getThreadPoolExecutor().getTaskCount();
 
     underTest.sendLiveEvent(
         RandomStringUtils.randomAlphanumeric(16),
@@ -52,7 +58,7 @@ class LiveEventNotificationServiceIT {
         Optional.of(easyRandom.nextLong())
     );
 
-    assertEquals(threadCount + 1, ManagementFactory.getThreadMXBean().getThreadCount());
+    assertEquals(taskCount + 1, liveEventExecutor.getThreadPoolExecutor().getTaskCount());
   }
 
   @Test
@@ -1,18 +1,22 @@
 package de.caritas.cob.messageservice.api.service;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
-import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 import de.caritas.cob.messageservice.api.service.helper.ServiceHelper;
+import de.caritas.cob.messageservice.config.apiclient.ApiClientRequestHeaders;
 import de.caritas.cob.messageservice.config.apiclient.ApiControllerFactory;
-import de.caritas.cob.messageservice.userservice.generated.ApiClient;
 import de.caritas.cob.messageservice.userservice.generated.web.LiveproxyControllerApi;
+import java.util.ArrayList;
 import java.util.Optional;
 import org.junit.Before;
 import org.junit.Test;
@@ -55,19 +59,21 @@ public class LiveEventNotificationServiceTest {
 
   @Test
   public void sendLiveEvent_Should_triggerLiveEventWithHeaders_When_rcGroupIdIsValid() {
-    ApiClient apiClient = mock(ApiClient.class);
-    when(this.liveproxyControllerApi.getApiClient()).thenReturn(apiClient);
     HttpHeaders headers = new HttpHeaders();
     headers.add("header 1", "value 1");
     headers.add("header 2", "value 2");
     when(serviceHelper.getKeycloakAndCsrfAndOriginHttpHeaders(anyString(), any(Optional.class)))
         .thenReturn(headers);
+    var requestHeaders = new ArrayList<HttpHeaders>();
+    doAnswer(invocation -> requestHeaders.add(ApiClientRequestHeaders.current()))
+        .when(this.liveproxyControllerApi).sendLiveEvent("valid");
 
     this.liveEventNotificationService.sendLiveEvent("valid", "", Optional.empty());
 
     verify(this.liveproxyControllerApi, times(1)).sendLiveEvent("valid");
     verify(this.serviceHelper, times(1)).getKeycloakAndCsrfAndOriginHttpHeaders(anyString(), any());
-    verify(apiClient, times(2)).addDefaultHeader(anyString(), anyString());
+    assertThat(requestHeaders, contains(headers));
+    assertThat(ApiClientRequestHeaders.current().isEmpty(), is(true));
   }
 
   @Test
@@ -75,7 +81,6 @@ public class LiveEventNotificationServiceTest {
     doThrow(new RestClientException(""))
         .when(this.liveproxyControllerApi)
         .sendLiveEvent(anyString());
-    when(this.liveproxyControllerApi.getApiClient()).thenReturn(mock(ApiClient.class));
     when(serviceHelper.getKeycloakAndCsrfAndOriginHttpHeaders(anyString(), any(Optional.class)))
         .thenReturn(new HttpHeaders());
 
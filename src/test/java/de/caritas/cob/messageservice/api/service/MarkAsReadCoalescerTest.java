@@ -0,0 +1,136 @@
+package de.caritas.cob.messageservice.api.service;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class MarkAsReadCoalescerTest {
+
+  private static final String RC_GROUP_ID = "fR2Rz7dmWmHdXE8uz";
+  private static final String OTHER_RC_GROUP_ID = "xGklslk2JJnmvbbM2";
+
+  @Mock
+  private RocketChatService rocketChatService;
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private MarkAsReadCoalescer markAsReadCoalescer;
+
+  @BeforeEach
+  void setup() {
+    markAsReadCoalescer = new MarkAsReadCoalescer(rocketChatService, meterRegistry);
+    ReflectionTestUtils.setField(markAsReadCoalescer, "debounceDelayMillis", 100L);
+    ReflectionTestUtils.setField(markAsReadCoalescer, "maxWaitMillis", 400L);
+    ReflectionTestUtils.setField(markAsReadCoalescer, "flushIntervalMillis", 10L);
+    ReflectionTestUtils.setField(markAsReadCoalescer, "threads", 2);
+    markAsReadCoalescer.init();
+  }
+
+  @AfterEach
+  void tearDown() {
+    markAsReadCoalescer.shutdown();
+  }
+
+  @Test
+  void markGroupAsRead_Should_MergeRequestsForSameGroupWithinDebounceDelay() {
+    markAsReadCoalescer.markGroupAsRead(RC_GROUP_ID);
+    markAsReadCoalescer.markGroupAsRead(RC_GROUP_ID);
+    markAsReadCoalescer.markGroupAsRead(RC_GROUP_ID);
+    markAsReadCoalescer.markGroupAsRead(OTHER_RC_GROUP_ID);
+
+    verify(rocketChatService, timeout(1000)).markGroupAsReadForSystemUser(RC_GROUP_ID);
+    verify(rocketChatService, timeout(1000)).markGroupAsReadForSystemUser(OTHER_RC_GROUP_ID);
+    verify(rocketChatService, after(300)).markGroupAsReadForSystemUser(RC_GROUP_ID);
+    assertThat(counter("requested"), is(4.0));
+    assertThat(counter("issued"), is(2.0));
+  }
+
+  @Test
+  void markGroupAsRead_Should_DelayMarkingGroup_While_RequestsKeepArriving()
+      throws InterruptedException {
+    for (var i = 0; i < 5; i++) {
+      markAsReadCoalescer.markGroupAsRead(RC_GROUP_ID);
+      Thread.sleep(40);
+    }
+
+    verify(rocketChatService, never()).markGroupAsReadForSystemUser(RC_GROUP_ID);
+    verify(rocketChatService, timeout(1000)).markGroupAsReadForSystemUser(RC_GROUP_ID);
+  }
+
+  @Test
+  void markGroupAsRead_Should_MarkGroup_When_MaxWaitIsReachedDespiteOngoingRequests()
+      throws InterruptedException {
+    var start = System.currentTimeMillis();
+    while (System.currentTimeMillis() - start < 700) {
+      markAsReadCoalescer.markGroupAsRead(RC_GROUP_ID);
+      Thread.sleep(20);
+    }
+
+    verify(rocketChatService, timeout(1000)).markGroupAsReadForSystemUser(RC_GROUP_ID);
+  }
+
+  @Test
+  void markGroupAsRead_Should_KeepWorking_When_MarkingGroupAsReadFails() {
+    doThrow(new RuntimeException()).when(rocketChatService)
+        .markGroupAsReadForSystemUser(RC_GROUP_ID);
+
+    markAsReadCoalescer.markGroupAsRead(RC_GROUP_ID);
+    verify(rocketChatService, timeout(1000)).markGroupAsReadForSystemUser(RC_GROUP_ID);
+    markAsReadCoalescer.markGroupAsRead(OTHER_RC_GROUP_ID);
+
+    verify(rocketChatService, timeout(1000)).markGroupAsReadForSystemUser(OTHER_RC_GROUP_ID);
+  }
+
+  @Test
+  void shutdown_Should_MarkPendingGroups() {
+    markAsReadCoalescer.markGroupAsRead(RC_GROUP_ID);
+
+    markAsReadCoalescer.shutdown();
+
+    verify(rocketChatService).markGroupAsReadForSystemUser(RC_GROUP_ID);
+  }
+
+  @Test
+  void shutdown_Should_MarkGroupsAlreadySubmitted() {
+    markAsReadCoalescer.shutdown();
+    ReflectionTestUtils.setField(markAsReadCoalescer, "threads", 1);
+    markAsReadCoalescer.init();
+    var blocked = new AtomicBoolean();
+    doAnswer(invocation -> {
+      // keeps the only thread busy, so the mark submitted next waits in the queue
+      if (blocked.compareAndSet(false, true)) {
+        Thread.sleep(300);
+      }
+      return null;
+    }).when(rocketChatService).markGroupAsReadForSystemUser(anyString());
+    markAsReadCoalescer.markGroupAsRead(RC_GROUP_ID);
+    markAsReadCoalescer.markGroupAsRead(OTHER_RC_GROUP_ID);
+    verify(rocketChatService, timeout(1000)).markGroupAsReadForSystemUser(anyString());
+
+    markAsReadCoalescer.shutdown();
+
+    verify(rocketChatService).markGroupAsReadForSystemUser(RC_GROUP_ID);
+    verify(rocketChatService).markGroupAsReadForSystemUser(OTHER_RC_GROUP_ID);
+  }
+
+  private double counter(String name) {
+    return meterRegistry.get("messageservice.rocketchat.markread." + name).counter().count();
+  }
+}
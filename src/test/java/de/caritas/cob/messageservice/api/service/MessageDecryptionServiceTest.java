@@ -0,0 +1,100 @@
+package de.caritas.cob.messageservice.api.service;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import de.caritas.cob.messageservice.api.exception.CustomCryptoException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class MessageDecryptionServiceTest {
+
+  private static final String RC_GROUP_ID = "rcGroupId";
+  private static final int THRESHOLD = 10;
+
+  @Mock
+  private EncryptionService encryptionService;
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private MessageDecryptionService messageDecryptionService;
+
+  @BeforeEach
+  void setup() {
+    messageDecryptionService = new MessageDecryptionService(encryptionService, meterRegistry);
+    ReflectionTestUtils.setField(messageDecryptionService, "parallelEnabled", true);
+    ReflectionTestUtils.setField(messageDecryptionService, "parallelThreshold", THRESHOLD);
+    ReflectionTestUtils.setField(messageDecryptionService, "parallelism", 3);
+    messageDecryptionService.init();
+  }
+
+  @AfterEach
+  void tearDown() {
+    messageDecryptionService.shutdown();
+  }
+
+  @Test
+  void decryptAll_Should_DecryptOnCallingThread_When_PageIsBelowThreshold()
+      throws CustomCryptoException {
+    var messages = messagesOf(THRESHOLD - 1);
+    when(encryptionService.decryptAll(messages, RC_GROUP_ID)).thenReturn(messages);
+
+    var decryptedMessages = messageDecryptionService.decryptAll(messages, RC_GROUP_ID);
+
+    assertThat(decryptedMessages, is(messages));
+    verify(encryptionService, times(1)).decryptAll(anyList(), eq(RC_GROUP_ID));
+    assertThat(meterRegistry.counter("messageservice.decryption.parallel.runs").count(), is(0.0));
+  }
+
+  @Test
+  void decryptAll_Should_DecryptChunksInParallelAndKeepOrder_When_PageReachesThreshold()
+      throws CustomCryptoException {
+    var messages = messagesOf(25);
+    when(encryptionService.decryptAll(anyList(), eq(RC_GROUP_ID))).thenAnswer(
+        invocation -> ((List<String>) invocation.getArgument(0)).stream()
+            .map(message -> "decrypted " + message)
+            .collect(Collectors.toList()));
+
+    var decryptedMessages = messageDecryptionService.decryptAll(messages, RC_GROUP_ID);
+
+    assertThat(decryptedMessages, is(messages.stream()
+        .map(message -> "decrypted " + message)
+        .collect(Collectors.toList())));
+    verify(encryptionService, times(3)).decryptAll(anyList(), eq(RC_GROUP_ID));
+    assertThat(meterRegistry.counter("messageservice.decryption.parallel.runs").count(), is(1.0));
+    assertThat(meterRegistry.timer("messageservice.decryption.parallel.saved").count(), is(1L));
+  }
+
+  @Test
+  void decryptAll_Should_ThrowCustomCryptoException_When_ChunkCouldNotBeDecrypted()
+      throws CustomCryptoException {
+    when(encryptionService.decryptAll(anyList(), eq(RC_GROUP_ID)))
+        .thenThrow(new CustomCryptoException(new Exception()));
+    var messages = messagesOf(THRESHOLD);
+
+    assertThrows(CustomCryptoException.class,
+        () -> messageDecryptionService.decryptAll(messages, RC_GROUP_ID));
+  }
+
+  private List<String> messagesOf(int count) {
+    return IntStream.range(0, count)
+        .mapToObj(i -> "enc:message" + i)
+        .collect(Collectors.toList());
+  }
+}
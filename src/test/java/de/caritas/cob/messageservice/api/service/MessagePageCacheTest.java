@@ -0,0 +1,226 @@
+package de.caritas.cob.messageservice.api.service;
+
+import static de.caritas.cob.messageservice.testhelper.TestCacheRegistry.cacheRegistryOf;
+import static de.caritas.cob.messageservice.testhelper.TestCacheRegistry.sizeBoundSpec;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+import de.caritas.cob.messageservice.api.model.rocket.chat.message.MessagesDTO;
+import de.caritas.cob.messageservice.config.CacheProperties.Spec;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.IntStream;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class MessagePageCacheTest {
+
+  private static final String RC_GROUP_ID = "fR2Rz7dmWmHdXE8uz";
+  private static final Instant SINCE = Instant.parse("2022-06-28T10:00:00.000Z");
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private MessagePageCache messagePageCache;
+
+  @BeforeEach
+  void setup() {
+    var spec = new Spec();
+    spec.setMaximumWeight(100L);
+    spec.setExpireAfterWrite(Duration.ofSeconds(60));
+    var cacheRegistry = cacheRegistryOf(Map.of(MessagePageCache.CACHE_NAME, spec,
+        MessagePageCache.OVERSIZED_CACHE_NAME, sizeBoundSpec(10, Duration.ofHours(1))),
+        meterRegistry);
+    messagePageCache = new MessagePageCache(cacheRegistry, meterRegistry);
+    messagePageCache.init();
+  }
+
+  @Test
+  void get_Should_ReturnEmpty_When_GroupIsNotCached() {
+    assertThat(messagePageCache.get(RC_GROUP_ID, SINCE).isPresent(), is(false));
+  }
+
+  @Test
+  void get_Should_ReturnEmpty_When_CachedMessagesDoNotCoverRequestedTimestamp() {
+    messagePageCache.merge(RC_GROUP_ID, SINCE, List.of(message("id1", "10:45:41.907")));
+
+    assertThat(messagePageCache.get(RC_GROUP_ID, SINCE.minusSeconds(1)).isPresent(), is(false));
+    assertThat(messagePageCache.get(RC_GROUP_ID, SINCE).isPresent(), is(true));
+    assertThat(messagePageCache.get(RC_GROUP_ID, SINCE.plusSeconds(1)).isPresent(), is(true));
+  }
+
+  @Test
+  void merge_Should_KeepMessagesOrderedByTimestampAndReplaceMessagesById() {
+    messagePageCache.merge(RC_GROUP_ID, SINCE,
+        List.of(message("id2", "10:45:42.000"), message("id1", "10:45:41.907")));
+    var updatedMessage = message("id2", "10:45:42.000");
+    updatedMessage.setMsg("updated");
+
+    var groupMessages = messagePageCache.merge(RC_GROUP_ID, SINCE,
+        List.of(updatedMessage, message("id3", "10:46:00.000"))).orElseThrow();
+
+    assertThat(idsOf(groupMessages.messagesSince(SINCE)), contains("id1", "id2", "id3"));
+    assertThat(groupMessages.messagesSince(SINCE).get(1).getMsg(), is("updated"));
+    assertThat(groupMessages.newestTs(), is(Optional.of(ts("10:46:00.000"))));
+  }
+
+  @Test
+  void messagesSince_Should_ReturnOnlyMessagesNewerThanTimestamp() {
+    var groupMessages = messagePageCache.merge(RC_GROUP_ID, SINCE,
+        List.of(message("id1", "10:45:41.907"), message("id2", "10:45:42.000"))).orElseThrow();
+
+    assertThat(idsOf(groupMessages.messagesSince(ts("10:45:41.907"))), contains("id2"));
+  }
+
+  @Test
+  void contains_Should_CompareIdAndUpdateTimestamp() {
+    var cachedMessage = message("id1", "10:45:41.907");
+    var groupMessages = messagePageCache.merge(RC_GROUP_ID, SINCE, List.of(cachedMessage))
+        .orElseThrow();
+    var editedMessage = message("id1", "10:45:41.907");
+    editedMessage.set_updatedAt("2022-06-28T11:00:00.000Z");
+
+    assertThat(groupMessages.contains(message("id1", "10:45:41.907")), is(true));
+    assertThat(groupMessages.contains(editedMessage), is(false));
+    assertThat(groupMessages.contains(message("id2", "10:45:41.907")), is(false));
+  }
+
+  @Test
+  void merge_Should_EvictGroup_When_MessageHasNoValidTimestamp() {
+    messagePageCache.merge(RC_GROUP_ID, SINCE, List.of(message("id1", "10:45:41.907")));
+    var invalidMessage = message("id2", "10:45:42.000");
+    invalidMessage.setTs("yesterday");
+
+    var groupMessages = messagePageCache.merge(RC_GROUP_ID, SINCE, List.of(invalidMessage));
+
+    assertThat(groupMessages.isPresent(), is(false));
+    assertThat(messagePageCache.get(RC_GROUP_ID, SINCE).isPresent(), is(false));
+  }
+
+  @Test
+  void merge_Should_NotCacheGroup_When_ItHasMoreMessagesThanCacheCanHold() {
+    var groupMessages = messagePageCache.merge(RC_GROUP_ID, SINCE, messages(0, 101));
+
+    assertThat(groupMessages.isPresent(), is(false));
+    assertThat(messagePageCache.get(RC_GROUP_ID, SINCE).isPresent(), is(false));
+    assertThat(oversizedGroups(), is(1.0));
+  }
+
+  @Test
+  void isOversized_Should_RememberGroupWithMoreMessagesThanCacheCanHold() {
+    messagePageCache.merge(RC_GROUP_ID, SINCE, messages(0, 100));
+    messagePageCache.merge("otherGroupId", SINCE, messages(0, 101));
+
+    assertThat(messagePageCache.isOversized(RC_GROUP_ID), is(false));
+    assertThat(messagePageCache.isOversized("otherGroupId"), is(true));
+  }
+
+  @Test
+  void merge_Should_EvictGroup_When_NewMessagesExceedWhatCacheCanHold() {
+    messagePageCache.merge(RC_GROUP_ID, SINCE, messages(0, 60));
+
+    var groupMessages = messagePageCache.merge(RC_GROUP_ID, SINCE, messages(60, 101));
+
+    assertThat(groupMessages.isPresent(), is(false));
+    assertThat(messagePageCache.get(RC_GROUP_ID, SINCE).isPresent(), is(false));
+    assertThat(oversizedGroups(), is(1.0));
+  }
+
+  @Test
+  void get_Should_ReturnEmpty_When_GroupWasLoadedLongerAgoThanExpiryDespitePolls() {
+    givenTimeAfterFirstLoad(Duration.ZERO);
+    messagePageCache.merge(RC_GROUP_ID, SINCE, List.of(message("id1", "10:45:41.907")));
+    givenTimeAfterFirstLoad(Duration.ofSeconds(30));
+    messagePageCache.merge(RC_GROUP_ID, SINCE, List.of());
+    givenTimeAfterFirstLoad(Duration.ofSeconds(59));
+    messagePageCache.merge(RC_GROUP_ID, SINCE, List.of());
+
+    assertThat(messagePageCache.get(RC_GROUP_ID, SINCE).isPresent(), is(true));
+
+    givenTimeAfterFirstLoad(Duration.ofSeconds(61));
+    assertThat(messagePageCache.get(RC_GROUP_ID, SINCE).isPresent(), is(false));
+  }
+
+  @Test
+  void merge_Should_ShowMessageEditedOutsideOfService_When_PolledPastExpiry() {
+    givenTimeAfterFirstLoad(Duration.ZERO);
+    messagePageCache.merge(RC_GROUP_ID, SINCE, List.of(message("id1", "10:45:41.907")));
+    var editedMessage = message("id1", "10:45:41.907");
+    editedMessage.setMsg("edited");
+
+    for (var seconds = 10; seconds <= 70; seconds += 10) {
+      givenTimeAfterFirstLoad(Duration.ofSeconds(seconds));
+      if (messagePageCache.get(RC_GROUP_ID, SINCE).isPresent()) {
+        messagePageCache.merge(RC_GROUP_ID, SINCE, List.of());
+      } else {
+        messagePageCache.merge(RC_GROUP_ID, SINCE, List.of(editedMessage));
+      }
+    }
+
+    var groupMessages = messagePageCache.get(RC_GROUP_ID, SINCE).orElseThrow();
+    assertThat(groupMessages.messagesSince(SINCE).get(0).getMsg(), is("edited"));
+  }
+
+  @Test
+  void evictGroupOfMessage_Should_EvictOnlyGroupContainingMessage() {
+    messagePageCache.merge(RC_GROUP_ID, SINCE, List.of(message("id1", "10:45:41.907")));
+    messagePageCache.merge("otherGroupId", SINCE, List.of(message("id2", "10:45:41.907")));
+
+    messagePageCache.evictGroupOfMessage("id1");
+
+    assertThat(messagePageCache.get(RC_GROUP_ID, SINCE).isPresent(), is(false));
+    assertThat(messagePageCache.get("otherGroupId", SINCE).isPresent(), is(true));
+  }
+
+  @Test
+  void evictAll_Should_EvictAllGroups() {
+    messagePageCache.merge(RC_GROUP_ID, SINCE, List.of(message("id1", "10:45:41.907")));
+    messagePageCache.merge("otherGroupId", SINCE, List.of(message("id2", "10:45:41.907")));
+
+    messagePageCache.evictAll();
+
+    assertThat(messagePageCache.get(RC_GROUP_ID, SINCE).isPresent(), is(false));
+    assertThat(messagePageCache.get("otherGroupId", SINCE).isPresent(), is(false));
+  }
+
+  private void givenTimeAfterFirstLoad(Duration duration) {
+    ReflectionTestUtils.setField(messagePageCache, "clock",
+        Clock.fixed(SINCE.plus(duration), ZoneOffset.UTC));
+  }
+
+  private double oversizedGroups() {
+    return meterRegistry.get(MessagePageCache.OVERSIZED_METRIC_NAME).counter().count();
+  }
+
+  private static List<MessagesDTO> messages(int from, int to) {
+    return IntStream.range(from, to)
+        .mapToObj(i -> message("id" + i, String.format("11:%02d:%02d.000", i / 60, i % 60)))
+        .collect(Collectors.toList());
+  }
+
+  private static MessagesDTO message(String id, String time) {
+    var message = new MessagesDTO();
+    message.set_id(id);
+    message.setRid(RC_GROUP_ID);
+    message.setMsg("message " + id);
+    message.setTs(ts(time).toString());
+    message.set_updatedAt(ts(time).toString());
+    return message;
+  }
+
+  private static Instant ts(String time) {
+    return Instant.parse("2022-06-28T" + time + "Z");
+  }
+
+  private static List<String> idsOf(List<MessagesDTO> messages) {
+    return messages.stream().map(MessagesDTO::get_id).collect(Collectors.toList());
+  }
+}
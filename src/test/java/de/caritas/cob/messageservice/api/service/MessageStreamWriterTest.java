@@ -0,0 +1,188 @@
+package de.caritas.cob.messageservice.api.service;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.caritas.cob.messageservice.api.exception.CustomCryptoException;
+import de.caritas.cob.messageservice.api.exception.InternalServerErrorException;
+import de.caritas.cob.messageservice.api.model.MessageType;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class MessageStreamWriterTest {
+
+  private static final String RC_GROUP_ID = "fR2Rz7dmWmHdXE8uz";
+  private static final String ALIAS_FURTHER_STEPS =
+      "%7B%22messageType%22%3A%22FURTHER_STEPS%22%7D";
+  private static final String ROCKET_CHAT_RESPONSE = "{"
+      + "\"messages\": ["
+      + message("id1", "enc:first", null, null) + ","
+      + message("id2", "enc:second", null, ALIAS_FURTHER_STEPS) + ","
+      + message("id3", "", "user-muted", null)
+      + "],"
+      + "\"count\": 3, \"offset\": 0, \"total\": 3, \"success\": true"
+      + "}";
+
+  @Mock
+  private MessageDecryptionService messageDecryptionService;
+
+  private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+  private MessageMapper mapper;
+
+  private MessageStreamWriter messageStreamWriter;
+
+  @BeforeEach
+  void setup() {
+    mapper = new MessageMapper(objectMapper, null);
+    messageStreamWriter = new MessageStreamWriter(objectMapper, messageDecryptionService, mapper);
+    ReflectionTestUtils.setField(messageStreamWriter, "decryptionBatchSize", 2);
+  }
+
+  @Test
+  void write_Should_WriteDecryptedAndTypedMessagesInOrder() throws Exception {
+    when(messageDecryptionService.decryptAll(anyList(), eq(RC_GROUP_ID))).thenAnswer(
+        invocation -> ((List<String>) invocation.getArgument(0)).stream()
+            .map(message -> message.replace("enc:", "decrypted "))
+            .collect(Collectors.toList()));
+
+    var messageStream = write(ROCKET_CHAT_RESPONSE);
+
+    var messages = messageStream.get("messages");
+    assertThat(messageStream.get("nextCursor").isNull(), is(true));
+    assertThat(messages.size(), is(3));
+    assertThat(messages.get(0).get("_id").asText(), is("id1"));
+    assertThat(messages.get(0).get("msg").asText(), is("decrypted first"));
+    assertThat(messages.get(0).get("alias").isNull(), is(true));
+    assertThat(messages.get(1).get("msg").asText(), is("decrypted second"));
+    assertThat(messages.get(1).at("/alias/messageType").asText(),
+        is(MessageType.FURTHER_STEPS.name()));
+    assertThat(messages.get(2).at("/alias/messageType").asText(),
+        is(MessageType.USER_MUTED.name()));
+    assertThat(messages.get(2).at("/u/username").asText(), is("user"));
+    verify(messageDecryptionService, times(2)).decryptAll(anyList(), eq(RC_GROUP_ID));
+  }
+
+  @Test
+  void write_Should_WriteEmptyMessageStream_When_RocketChatResponseHasNoMessages()
+      throws IOException {
+    var messageStream = write("{\"messages\": [], \"success\": true}");
+
+    assertThat(messageStream.get("messages").isEmpty(), is(true));
+    assertThat(messageStream.get("nextCursor").isNull(), is(true));
+  }
+
+  @Test
+  void write_Should_WriteNextCursorOfLastMessage_When_PageIsFull() throws Exception {
+    when(messageDecryptionService.decryptAll(anyList(), eq(RC_GROUP_ID)))
+        .thenAnswer(invocation -> invocation.getArgument(0));
+
+    var messageStream = write(ROCKET_CHAT_RESPONSE, 3);
+
+    var cursor = mapper.messageCursorOf(messageStream.get("nextCursor").asText());
+    assertThat(cursor.getId(), is("id3"));
+    assertThat(cursor.getTs(), is(Instant.parse("2022-06-28T10:45:41.907Z")));
+  }
+
+  @Test
+  void write_Should_WriteNoNextCursor_When_PageIsNotFull() throws Exception {
+    when(messageDecryptionService.decryptAll(anyList(), eq(RC_GROUP_ID)))
+        .thenAnswer(invocation -> invocation.getArgument(0));
+
+    var messageStream = write(ROCKET_CHAT_RESPONSE, 4);
+
+    assertThat(messageStream.get("messages").size(), is(3));
+    assertThat(messageStream.get("nextCursor").isNull(), is(true));
+  }
+
+  @Test
+  void write_Should_ThrowInternalServerErrorException_When_DecryptionFails() throws Exception {
+    when(messageDecryptionService.decryptAll(anyList(), eq(RC_GROUP_ID)))
+        .thenThrow(new CustomCryptoException(new Exception()));
+
+    assertThrows(InternalServerErrorException.class, () -> write(ROCKET_CHAT_RESPONSE));
+  }
+
+  @Test
+  void write_Should_NotOpenOutput_When_DecryptionOfFirstBatchFails() throws Exception {
+    when(messageDecryptionService.decryptAll(anyList(), eq(RC_GROUP_ID)))
+        .thenThrow(new CustomCryptoException(new Exception()));
+    var opened = new AtomicBoolean();
+
+    assertThrows(InternalServerErrorException.class, () -> messageStreamWriter.write(
+        inputOf(ROCKET_CHAT_RESPONSE), () -> {
+          opened.set(true);
+          return new ByteArrayOutputStream();
+        }, RC_GROUP_ID, 0));
+
+    assertThat(opened.get(), is(false));
+  }
+
+  @Test
+  void write_Should_LeaveJsonUnclosed_When_DecryptionOfLaterBatchFails() throws Exception {
+    when(messageDecryptionService.decryptAll(anyList(), eq(RC_GROUP_ID)))
+        .thenAnswer(invocation -> invocation.getArgument(0))
+        .thenThrow(new CustomCryptoException(new Exception()));
+    var output = new ByteArrayOutputStream();
+
+    assertThrows(InternalServerErrorException.class, () -> messageStreamWriter.write(
+        inputOf(ROCKET_CHAT_RESPONSE), () -> output, RC_GROUP_ID, 0));
+
+    var written = output.toString(StandardCharsets.UTF_8);
+    assertThat(written.contains("\"id1\""), is(true));
+    assertThat(written.contains("nextCursor"), is(false));
+    assertThrows(IOException.class, () -> objectMapper.readTree(output.toByteArray()));
+  }
+
+  private JsonNode write(String rocketChatResponse) throws IOException {
+    return write(rocketChatResponse, 0);
+  }
+
+  private JsonNode write(String rocketChatResponse, int count) throws IOException {
+    var output = new ByteArrayOutputStream();
+
+    messageStreamWriter.write(inputOf(rocketChatResponse), () -> output, RC_GROUP_ID, count);
+
+    return objectMapper.readTree(output.toByteArray());
+  }
+
+  private static ByteArrayInputStream inputOf(String rocketChatResponse) {
+    return new ByteArrayInputStream(rocketChatResponse.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static String message(String id, String msg, String t, String alias) {
+    return "{"
+        + "\"_id\": \"" + id + "\","
+        + "\"rid\": \"" + RC_GROUP_ID + "\","
+        + "\"msg\": \"" + msg + "\","
+        + (t == null ? "" : "\"t\": \"" + t + "\",")
+        + (alias == null ? "" : "\"alias\": \"" + alias + "\",")
+        + "\"ts\": \"2022-06-28T10:45:41.907Z\","
+        + "\"u\": {\"_id\": \"9DBgss9ns9ptPQhmA\", \"username\": \"user\"},"
+        + "\"mentions\": [], \"channels\": [],"
+        + "\"_updatedAt\": \"2022-06-28T19:37:24.192Z\""
+        + "}";
+  }
+}
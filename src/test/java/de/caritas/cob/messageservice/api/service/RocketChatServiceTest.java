@@ -14,9 +14,13 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -24,6 +28,7 @@ import static org.mockito.Mockito.when;
 
 import de.caritas.cob.messageservice.api.exception.CustomCryptoException;
 import de.caritas.cob.messageservice.api.exception.InternalServerErrorException;
+import de.caritas.cob.messageservice.api.exception.MessageStreamAbortedException;
 import de.caritas.cob.messageservice.api.exception.RocketChatBadRequestException;
 import de.caritas.cob.messageservice.api.exception.RocketChatSendMessageException;
 import de.caritas.cob.messageservice.api.exception.RocketChatUserNotInitializedException;
@@ -37,7 +42,10 @@ import de.caritas.cob.messageservice.api.model.rocket.chat.StandardResponseDTO;
 import de.caritas.cob.messageservice.api.model.rocket.chat.message.MessagesDTO;
 import de.caritas.cob.messageservice.api.model.rocket.chat.message.SendMessageResponseDTO;
 import de.caritas.cob.messageservice.api.model.rocket.chat.message.SendMessageResultDTO;
+import de.caritas.cob.messageservice.api.service.MessageStreamWriter.OutputStreamOpener;
 import de.caritas.cob.messageservice.api.service.helper.RocketChatCredentialsHelper;
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
@@ -55,9 +63,11 @@ import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -92,6 +102,15 @@ public class RocketChatServiceTest {
   @Mock
   private MessageMapper messageMapper;
 
+  @Mock
+  private MessageDecryptionService messageDecryptionService;
+
+  @Mock
+  private MessageStreamWriter messageStreamWriter;
+
+  @Mock
+  private MessagePageCache messagePageCache;
+
   @Mock
   private Logger logger;
 
@@ -145,7 +164,7 @@ public class RocketChatServiceTest {
 
     when(restTemplate.exchange(any(), any(HttpMethod.class), any(),
         ArgumentMatchers.<Class<MessageStreamDTO>>any())).thenReturn(response);
-    when(encryptionService.decrypt(anyString(), anyString())).thenThrow(exception);
+    when(messageDecryptionService.decryptAll(anyList(), anyString())).thenThrow(exception);
 
     rocketChatService.getGroupMessages(RC_TOKEN, RC_USER_ID, RC_GROUP_ID, 0, 0, Instant.now());
   }
@@ -180,14 +199,20 @@ public class RocketChatServiceTest {
     when(restTemplate.exchange(any(), any(HttpMethod.class), any(),
         ArgumentMatchers.<Class<MessageStreamDTO>>any())).thenReturn(response);
 
+    when(messageDecryptionService.decryptAll(anyList(), anyString()))
+        .thenAnswer(invocation -> invocation.getArgument(0));
+    List<String> encryptedMessages = messageStreamDTO.getMessages().stream()
+        .map(MessagesDTO::getMsg)
+        .collect(Collectors.toList());
+
     rocketChatService.getGroupMessages(RC_TOKEN, RC_USER_ID, RC_GROUP_ID, 0, 0, Instant.now());
 
-    verify(encryptionService, times(5)).decrypt(anyString(), anyString());
+    verify(messageDecryptionService, times(1)).decryptAll(encryptedMessages, RC_GROUP_ID);
   }
 
   @Test
   public void getGroupMessages_Should_SetVideocallAsMessageType_ForVideocallMessages()
-      throws NoSuchFieldException {
+      throws NoSuchFieldException, CustomCryptoException {
 
     ReflectionTestUtils.setField(rocketChatService, "rcGetGroupMessageUrl", "http://localhost/api/v1/groups.messages");
     EasyRandom easyRandom = new EasyRandom();
@@ -208,6 +233,8 @@ public class RocketChatServiceTest {
         ArgumentMatchers.<Class<MessageStreamDTO>>any()))
         .thenReturn(new ResponseEntity<>(messageStreamDTO,
             HttpStatus.OK));
+    when(messageDecryptionService.decryptAll(anyList(), anyString()))
+        .thenAnswer(invocation -> invocation.getArgument(0));
 
     MessageStreamDTO result = rocketChatService.getGroupMessages(RC_TOKEN, RC_USER_ID, RC_GROUP_ID,
         0, 0, Instant.now());
@@ -217,7 +244,7 @@ public class RocketChatServiceTest {
 
   @Test
   public void getGroupMessages_Should_SetFurtherStepsAsMessageType_ForFurtherStepsMessages()
-      throws NoSuchFieldException {
+      throws NoSuchFieldException, CustomCryptoException {
     ReflectionTestUtils.setField(rocketChatService, "rcGetGroupMessageUrl", "http://localhost/api/v1/groups.messages");
     EasyRandom easyRandom = new EasyRandom();
     MessageStreamDTO messageStreamDTO = easyRandom.nextObject(MessageStreamDTO.class);
@@ -238,6 +265,8 @@ public class RocketChatServiceTest {
         ArgumentMatchers.<Class<MessageStreamDTO>>any()))
         .thenReturn(new ResponseEntity<>(messageStreamDTO,
             HttpStatus.OK));
+    when(messageDecryptionService.decryptAll(anyList(), anyString()))
+        .thenAnswer(invocation -> invocation.getArgument(0));
 
     MessageStreamDTO result = rocketChatService.getGroupMessages(RC_TOKEN, RC_USER_ID, RC_GROUP_ID,
         0, 0, Instant.now());
@@ -394,4 +423,36 @@ public class RocketChatServiceTest {
 
     this.rocketChatService.postAliasOnlyMessageAsSystemUser(RC_GROUP_ID, aliasMessageDTO);
   }
+
+  @Test(expected = InternalServerErrorException.class)
+  public void streamGroupMessages_Should_ThrowInternalServerError_When_FailingBeforeOutputIsOpened()
+      throws Exception {
+    givenRocketChatStreamsMessages();
+    doThrow(new InternalServerErrorException())
+        .when(messageStreamWriter).write(any(), any(), eq(RC_GROUP_ID), eq(RC_COUNT));
+
+    rocketChatService.streamGroupMessages(RC_TOKEN, RC_USER_ID, RC_GROUP_ID, 0, RC_COUNT,
+        Instant.now(), null, ByteArrayOutputStream::new);
+  }
+
+  @Test(expected = MessageStreamAbortedException.class)
+  public void streamGroupMessages_Should_AbortStream_When_FailingAfterOutputIsOpened()
+      throws Exception {
+    givenRocketChatStreamsMessages();
+    doAnswer(invocation -> {
+      invocation.<OutputStreamOpener>getArgument(1).open();
+      throw new InternalServerErrorException();
+    }).when(messageStreamWriter).write(any(), any(), eq(RC_GROUP_ID), eq(RC_COUNT));
+
+    rocketChatService.streamGroupMessages(RC_TOKEN, RC_USER_ID, RC_GROUP_ID, 0, RC_COUNT,
+        Instant.now(), null, ByteArrayOutputStream::new);
+  }
+
+  private void givenRocketChatStreamsMessages() {
+    ReflectionTestUtils.setField(rocketChatService, "rcGetGroupMessageUrl",
+        "http://localhost/api/v1/groups.messages");
+    when(restTemplate.execute(any(URI.class), eq(HttpMethod.GET), any(), any()))
+        .thenAnswer(invocation -> invocation.<ResponseExtractor<?>>getArgument(3)
+            .extractData(mock(ClientHttpResponse.class)));
+  }
 }
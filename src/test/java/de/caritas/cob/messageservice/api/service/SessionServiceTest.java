@@ -0,0 +1,107 @@
+package de.caritas.cob.messageservice.api.service;
+
+import static de.caritas.cob.messageservice.testhelper.TestConstants.ADVICESEEKER_ID;
+import static de.caritas.cob.messageservice.testhelper.TestConstants.RC_GROUP_ID;
+import static de.caritas.cob.messageservice.testhelper.TestConstants.RC_TOKEN;
+import static de.caritas.cob.messageservice.testhelper.TestCacheRegistry.cacheRegistryOf;
+import static de.caritas.cob.messageservice.testhelper.TestCacheRegistry.sizeBoundSpec;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import de.caritas.cob.messageservice.api.service.helper.ServiceHelper;
+import de.caritas.cob.messageservice.config.apiclient.ApiControllerFactory;
+import de.caritas.cob.messageservice.userservice.generated.web.UserControllerApi;
+import de.caritas.cob.messageservice.userservice.generated.web.model.GroupSessionListResponseDTO;
+import de.caritas.cob.messageservice.userservice.generated.web.model.GroupSessionResponseDTO;
+import de.caritas.cob.messageservice.userservice.generated.web.model.SessionUserDTO;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.client.RestClientException;
+
+@ExtendWith(MockitoExtension.class)
+class SessionServiceTest {
+
+  private static final String ACCESS_TOKEN = "accessToken";
+
+  private SessionService sessionService;
+
+  @Mock
+  private ServiceHelper serviceHelper;
+
+  @Mock
+  private ApiControllerFactory clientFactory;
+
+  @Mock
+  private UserControllerApi userControllerApi;
+
+  @BeforeEach
+  void setup() {
+    sessionService = new SessionService(serviceHelper, clientFactory, cacheRegistryOf(
+        SessionService.SESSION_OWNER_CACHE_NAME, sizeBoundSpec(100, Duration.ofSeconds(60))));
+    sessionService.init();
+
+    when(clientFactory.userControllerApi()).thenReturn(userControllerApi);
+    when(serviceHelper.getKeycloakAndCsrfAndOriginHttpHeaders(ACCESS_TOKEN, Optional.of(1L)))
+        .thenReturn(new HttpHeaders());
+  }
+
+  @Test
+  void findAdviceseekerUserIdOfRcGroupId_Should_AskUserServiceOnlyOncePerGroup() {
+    when(userControllerApi.getSessionsForGroupIds(RC_TOKEN, List.of(RC_GROUP_ID)))
+        .thenReturn(sessionsOf(ADVICESEEKER_ID));
+
+    var first = findAdviceseekerUserId();
+    var second = findAdviceseekerUserId();
+
+    assertThat(first, is(Optional.of(ADVICESEEKER_ID)));
+    assertThat(second, is(Optional.of(ADVICESEEKER_ID)));
+    verify(userControllerApi, times(1)).getSessionsForGroupIds(anyString(), any());
+  }
+
+  @Test
+  void findAdviceseekerUserIdOfRcGroupId_Should_CacheGroupsWithoutAdviceseeker() {
+    when(userControllerApi.getSessionsForGroupIds(RC_TOKEN, List.of(RC_GROUP_ID)))
+        .thenReturn(new GroupSessionListResponseDTO());
+
+    var first = findAdviceseekerUserId();
+    var second = findAdviceseekerUserId();
+
+    assertThat(first, is(Optional.empty()));
+    assertThat(second, is(Optional.empty()));
+    verify(userControllerApi, times(1)).getSessionsForGroupIds(anyString(), any());
+  }
+
+  @Test
+  void findAdviceseekerUserIdOfRcGroupId_Should_NotCacheFailedLookups() {
+    when(userControllerApi.getSessionsForGroupIds(RC_TOKEN, List.of(RC_GROUP_ID)))
+        .thenThrow(new RestClientException("unavailable"))
+        .thenReturn(sessionsOf(ADVICESEEKER_ID));
+
+    assertThrows(RestClientException.class, this::findAdviceseekerUserId);
+
+    assertThat(findAdviceseekerUserId(), is(Optional.of(ADVICESEEKER_ID)));
+  }
+
+  private Optional<String> findAdviceseekerUserId() {
+    return sessionService.findAdviceseekerUserIdOfRcGroupId(RC_TOKEN, RC_GROUP_ID, ACCESS_TOKEN,
+        Optional.of(1L));
+  }
+
+  private static GroupSessionListResponseDTO sessionsOf(String userId) {
+    return new GroupSessionListResponseDTO().sessions(List.of(
+        new GroupSessionResponseDTO().user(new SessionUserDTO().id(userId))));
+  }
+}
@@ -0,0 +1,119 @@
+package de.caritas.cob.messageservice.api.service;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class SideEffectPipelineTest {
+
+  private static final String STEP = "step";
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final SideEffectPipeline sideEffectPipeline = new SideEffectPipeline(meterRegistry);
+
+  @BeforeEach
+  void setup() {
+    ReflectionTestUtils.setField(sideEffectPipeline, "timeoutMillis", 60_000L);
+  }
+
+  @Test
+  void dispatch_Should_RecordLatencyOnlyWhenStepCompleted() {
+    var completion = new CompletableFuture<Void>();
+
+    sideEffectPipeline.dispatch(STEP, () -> completion);
+
+    assertThat(timer("success"), is(nullValue()));
+    completion.complete(null);
+    assertThat(timer("success").count(), is(1L));
+  }
+
+  @Test
+  void dispatch_Should_RecordFailure_When_StepCompletesExceptionally() {
+    sideEffectPipeline.dispatch(STEP,
+        () -> CompletableFuture.failedFuture(new IllegalStateException("failed")));
+
+    assertThat(timer("failure").count(), is(1L));
+  }
+
+  @Test
+  void dispatch_Should_RecordFailureAndNotThrow_When_DispatchFails() {
+    sideEffectPipeline.dispatch(STEP, () -> {
+      throw new IllegalStateException("rejected");
+    });
+
+    assertThat(timer("failure").count(), is(1L));
+  }
+
+  @Test
+  void dispatch_Should_RecordRejection_When_ExecutorRejectsStep() {
+    sideEffectPipeline.dispatch(STEP, () -> {
+      throw new RejectedExecutionException("saturated");
+    });
+
+    assertThat(timer("rejected").count(), is(1L));
+    assertThat(timer("failure"), is(nullValue()));
+  }
+
+  @Test
+  void dispatch_Should_RecordRejection_When_StepCompletesWithRejection() {
+    sideEffectPipeline.dispatch(STEP,
+        () -> CompletableFuture.failedFuture(new RejectedExecutionException("saturated")));
+
+    assertThat(timer("rejected").count(), is(1L));
+  }
+
+  @Test
+  void dispatch_Should_RecordTimeout_When_StepDoesNotComplete() {
+    ReflectionTestUtils.setField(sideEffectPipeline, "timeoutMillis", 20L);
+    var completion = new CompletableFuture<Void>();
+
+    sideEffectPipeline.dispatch(STEP, () -> completion);
+
+    for (var i = 0; i < 100 && timer("timeout") == null; i++) {
+      sleep(10);
+    }
+    assertThat(timer("timeout").count(), is(1L));
+    assertThat(completion.isCompletedExceptionally(), is(true));
+  }
+
+  @Test
+  void run_Should_RecordLatencyOfStep() {
+    sideEffectPipeline.run(STEP, () -> sleep(20));
+
+    assertThat(timer("success").count(), is(1L));
+    assertThat(timer("success").totalTime(TimeUnit.MILLISECONDS) >= 20, is(true));
+  }
+
+  @Test
+  void run_Should_RecordFailureAndRethrow_When_StepFails() {
+    assertThrows(IllegalStateException.class, () -> sideEffectPipeline.run(STEP, () -> {
+      throw new IllegalStateException("failed");
+    }));
+
+    assertThat(timer("failure").count(), is(1L));
+  }
+
+  private Timer timer(String outcome) {
+    return meterRegistry.find(SideEffectPipeline.METRIC_NAME)
+        .tags("step", STEP, "outcome", outcome)
+        .timer();
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
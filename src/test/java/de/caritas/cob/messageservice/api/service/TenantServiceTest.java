@@ -0,0 +1,149 @@
+package de.caritas.cob.messageservice.api.service;
+
+import static de.caritas.cob.messageservice.testhelper.TestCacheRegistry.cacheRegistryOf;
+import static de.caritas.cob.messageservice.testhelper.TestCacheRegistry.sizeBoundSpec;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import de.caritas.cob.messageservice.config.apiclient.TenantServiceApiControllerFactory;
+import de.caritas.cob.messageservice.tenantservice.generated.web.TenantControllerApi;
+import de.caritas.cob.messageservice.tenantservice.generated.web.model.BasicTenantLicensingDTO;
+import de.caritas.cob.messageservice.tenantservice.generated.web.model.RestrictedTenantDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestClientException;
+
+@ExtendWith(MockitoExtension.class)
+class TenantServiceTest {
+
+  private static final String SUBDOMAIN = "mucoviscidose";
+  private static final String OTHER_SUBDOMAIN = "caritas";
+
+  @Mock
+  private TenantServiceApiControllerFactory tenantServiceApiControllerFactory;
+
+  @Mock
+  private TenantControllerApi tenantControllerApi;
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private TenantService tenantService;
+
+  @BeforeEach
+  void setup() {
+    var spec = sizeBoundSpec(100, Duration.ofHours(24));
+    spec.setRefreshAfterWrite(Duration.ofHours(20));
+    tenantService = new TenantService(tenantServiceApiControllerFactory,
+        cacheRegistryOf(TenantService.CACHE_NAME, spec, meterRegistry));
+    ReflectionTestUtils.setField(tenantService, "warmUpEnabled", true);
+    tenantService.init();
+  }
+
+  @Test
+  void getRestrictedTenantDataBySubdomain_Should_AskTenantServiceOnlyOncePerSubdomain() {
+    givenTenantServiceKnows(SUBDOMAIN, 1L);
+
+    var first = tenantService.getRestrictedTenantDataBySubdomain(SUBDOMAIN);
+    var second = tenantService.getRestrictedTenantDataBySubdomain(SUBDOMAIN);
+
+    assertThat(first.getId(), is(1L));
+    assertThat(second.getId(), is(1L));
+    verify(tenantControllerApi, times(1)).getRestrictedTenantDataBySubdomainWithHttpInfo(SUBDOMAIN);
+    assertThat(gets("hit"), is(1.0));
+    assertThat(gets("miss"), is(1.0));
+  }
+
+  @Test
+  void getRestrictedTenantDataBySubdomain_Should_LoadOnlyOnce_When_MissesAreConcurrent()
+      throws Exception {
+    var loadStarted = new CountDownLatch(1);
+    var releaseLoad = new CountDownLatch(1);
+    when(tenantServiceApiControllerFactory.createControllerApi()).thenReturn(tenantControllerApi);
+    when(tenantControllerApi.getRestrictedTenantDataBySubdomainWithHttpInfo(SUBDOMAIN))
+        .thenAnswer(invocation -> {
+          loadStarted.countDown();
+          releaseLoad.await(5, TimeUnit.SECONDS);
+          return ResponseEntity.ok(new RestrictedTenantDTO().id(1L));
+        });
+
+    var requests = new ArrayList<CompletableFuture<RestrictedTenantDTO>>();
+    for (int i = 0; i < 8; i++) {
+      requests.add(CompletableFuture.supplyAsync(
+          () -> tenantService.getRestrictedTenantDataBySubdomain(SUBDOMAIN)));
+    }
+    assertThat(loadStarted.await(5, TimeUnit.SECONDS), is(true));
+    releaseLoad.countDown();
+
+    for (var request : requests) {
+      assertThat(request.get(5, TimeUnit.SECONDS).getId(), is(1L));
+    }
+    verify(tenantControllerApi, times(1)).getRestrictedTenantDataBySubdomainWithHttpInfo(SUBDOMAIN);
+  }
+
+  @Test
+  void warmUp_Should_LoadAllTenantsOfTenantService() {
+    givenTenantServiceKnows(SUBDOMAIN, 1L);
+    givenTenantServiceKnows(OTHER_SUBDOMAIN, 2L);
+    when(tenantControllerApi.getAllTenants()).thenReturn(List.of(
+        new BasicTenantLicensingDTO().id(1L).subdomain(SUBDOMAIN),
+        new BasicTenantLicensingDTO().id(2L).subdomain(OTHER_SUBDOMAIN),
+        new BasicTenantLicensingDTO().id(3L)));
+
+    tenantService.warmUp();
+    var tenant = tenantService.getRestrictedTenantDataBySubdomain(OTHER_SUBDOMAIN);
+
+    assertThat(tenant.getId(), is(2L));
+    verify(tenantControllerApi, times(1))
+        .getRestrictedTenantDataBySubdomainWithHttpInfo(OTHER_SUBDOMAIN);
+    assertThat(gets("hit"), is(1.0));
+  }
+
+  @Test
+  void warmUp_Should_KeepLoadingOnDemand_When_TenantServiceFails() {
+    when(tenantServiceApiControllerFactory.createControllerApi()).thenReturn(tenantControllerApi);
+    when(tenantControllerApi.getAllTenants()).thenThrow(new RestClientException("unavailable"));
+
+    tenantService.warmUp();
+
+    givenTenantServiceKnows(SUBDOMAIN, 1L);
+    assertThat(tenantService.getRestrictedTenantDataBySubdomain(SUBDOMAIN).getId(), is(1L));
+  }
+
+  @Test
+  void warmUp_Should_NotCallTenantService_When_Disabled() {
+    ReflectionTestUtils.setField(tenantService, "warmUpEnabled", false);
+
+    tenantService.warmUp();
+
+    verifyNoInteractions(tenantServiceApiControllerFactory);
+  }
+
+  private void givenTenantServiceKnows(String subdomain, Long tenantId) {
+    when(tenantServiceApiControllerFactory.createControllerApi()).thenReturn(tenantControllerApi);
+    when(tenantControllerApi.getRestrictedTenantDataBySubdomainWithHttpInfo(subdomain))
+        .thenReturn(ResponseEntity.ok(new RestrictedTenantDTO().id(tenantId)));
+  }
+
+  private double gets(String result) {
+    return meterRegistry.get("cache.gets")
+        .tags("cache", TenantService.CACHE_NAME, "result", result)
+        .functionCounter()
+        .count();
+  }
+}
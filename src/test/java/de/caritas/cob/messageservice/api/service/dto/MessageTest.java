@@ -9,6 +9,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import de.caritas.cob.messageservice.api.model.AliasArgs;
+import de.caritas.cob.messageservice.api.model.AliasMessageDTO;
 import de.caritas.cob.messageservice.api.model.MessageType;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -127,6 +128,46 @@ class MessageTest {
     assertFalse(message.isA(MessageType.REASSIGN_CONSULTANT));
   }
 
+  @Test
+  void messageShouldParseAliasOnceAndAgainWhenAliasChanged() {
+    var message = new Message();
+    message.setAlias(ALIAS_FURTHER_STEPS);
+
+    var typedAlias = message.getTypedAlias().orElseThrow();
+    assertThat(message.getTypedAlias().orElseThrow(), Matchers.sameInstance(typedAlias));
+    assertTrue(message.isA(MessageType.FURTHER_STEPS));
+
+    message.setAlias(ALIAS_FURTHER_STEPS.replace("FURTHER_STEPS", "USER_MUTED"));
+    assertTrue(message.isA(MessageType.USER_MUTED));
+    assertFalse(message.isA(MessageType.FURTHER_STEPS));
+
+    message.setAlias(null);
+    assertTrue(message.getTypedAlias().isEmpty());
+  }
+
+  @Test
+  void messageShouldUseGivenTypedAlias() {
+    var message = new Message();
+    var typedAlias = new AliasMessageDTO().messageType(MessageType.USER_MUTED);
+
+    message.setAlias("{\"messageType\":\"USER_MUTED\"}", typedAlias);
+
+    assertThat(message.getTypedAlias().orElseThrow(), Matchers.sameInstance(typedAlias));
+    assertTrue(message.isA(MessageType.USER_MUTED));
+  }
+
+  @Test
+  void messageShouldNotCompareTypedAlias() {
+    var message = new Message();
+    message.setAlias(ALIAS_FURTHER_STEPS);
+    var other = new Message();
+    other.setAlias(ALIAS_FURTHER_STEPS);
+
+    message.getTypedAlias();
+
+    assertEquals(message, other);
+  }
+
   @Test
   void objectMapperTest() throws JsonProcessingException {
     var stored = "{&quot;toConsultantId&quot;:&quot;8a81117b-d875-4ba4-8696-d62c3a2dae91&quot;,&quot;status&quot;:&quot;REQUESTED&quot;}";
@@ -0,0 +1,86 @@
+package de.caritas.cob.messageservice.api.service.dto;
+
+import de.caritas.cob.messageservice.api.helper.JSONHelper;
+import de.caritas.cob.messageservice.api.model.AliasMessageDTO;
+import de.caritas.cob.messageservice.api.model.MessageType;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Checks the type of a message with a large reassignment alias three times, as callers checking
+ * for several types do. Once by URL decoding and searching the alias per check, as before, once on
+ * a new message which parses the alias on the first check, and once on a message which already
+ * parsed it. Run with
+ * {@code mvn test-compile exec:exec -Pbenchmark -Dbenchmark.include=MessageTypeDetection}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class MessageTypeDetectionBenchmark {
+
+  private static final int CONTENT_LENGTH = 8 * 1024;
+
+  private String alias;
+  private Message parsedMessage;
+
+  @Setup
+  public void setup() {
+    var content = new StringBuilder("{\"toConsultantId\":\"d63f4cc0-215d-40e2-a866-2d3e910f0590\","
+        + "\"status\":\"REQUESTED\",\"text\":\"");
+    while (content.length() < CONTENT_LENGTH) {
+      content.append("Grüße, lorem ipsum dolor sit amet & co. ");
+    }
+    alias = JSONHelper.convertAliasMessageDTOToString(new AliasMessageDTO()
+        .content(content.append("\"}").toString())
+        .messageType(MessageType.REASSIGN_CONSULTANT)).orElseThrow();
+
+    parsedMessage = new Message();
+    parsedMessage.setAlias(alias);
+    parsedMessage.isA(MessageType.REASSIGN_CONSULTANT);
+  }
+
+  @Benchmark
+  public boolean urlDecodingPerCheck() {
+    return isAByUrlDecoding(MessageType.USER_MUTED)
+        || isAByUrlDecoding(MessageType.FURTHER_STEPS)
+        || isAByUrlDecoding(MessageType.REASSIGN_CONSULTANT);
+  }
+
+  @Benchmark
+  public boolean parsedOnFirstCheck() {
+    var message = new Message();
+    message.setAlias(alias);
+    return isOneOfTheTypes(message);
+  }
+
+  @Benchmark
+  public boolean alreadyParsed() {
+    return isOneOfTheTypes(parsedMessage);
+  }
+
+  private static boolean isOneOfTheTypes(Message message) {
+    return message.isA(MessageType.USER_MUTED)
+        || message.isA(MessageType.FURTHER_STEPS)
+        || message.isA(MessageType.REASSIGN_CONSULTANT);
+  }
+
+  /** The type check of {@link Message} before the alias was parsed once. */
+  private boolean isAByUrlDecoding(MessageType messageType) {
+    return URLDecoder.decode(alias, StandardCharsets.UTF_8)
+        .contains("\"messageType\":\"" + messageType + "\"");
+  }
+}
@@ -0,0 +1,53 @@
+package de.caritas.cob.messageservice.api.service.helper;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.security.GeneralSecurityException;
+import javax.crypto.Cipher;
+import org.junit.jupiter.api.Test;
+
+class CipherPoolTest {
+
+  private static final String TRANSFORMATION = "AES/ECB/PKCS5PADDING";
+
+  @Test
+  void execute_Should_ReuseCipher_When_PreviousOperationFinished()
+      throws GeneralSecurityException {
+    var cipherPool = new CipherPool(TRANSFORMATION, 1);
+
+    Cipher first = cipherPool.execute(cipher -> cipher);
+    Cipher second = cipherPool.execute(cipher -> cipher);
+
+    assertSame(first, second);
+  }
+
+  @Test
+  void execute_Should_UseDifferentCiphers_When_OperationsAreNested()
+      throws GeneralSecurityException {
+    var cipherPool = new CipherPool(TRANSFORMATION, 2);
+
+    cipherPool.execute(outer -> {
+      Cipher inner = cipherPool.execute(cipher -> cipher);
+      assertNotSame(outer, inner);
+      return outer;
+    });
+  }
+
+  @Test
+  void execute_Should_NotKeepMoreIdleCiphersThanConfigured() throws GeneralSecurityException {
+    var cipherPool = new CipherPool(TRANSFORMATION, 1);
+
+    Cipher[] nested = new Cipher[2];
+    cipherPool.execute(outer -> {
+      nested[0] = outer;
+      nested[1] = cipherPool.execute(cipher -> cipher);
+      return outer;
+    });
+
+    Cipher reused = cipherPool.execute(cipher -> cipher);
+    Cipher afterwards = cipherPool.execute(cipher -> cipher);
+    assertSame(nested[1], reused);
+    assertSame(reused, afterwards);
+  }
+}
@@ -0,0 +1,292 @@
+package de.caritas.cob.messageservice.api.service.outbox;
+
+import static de.caritas.cob.messageservice.api.model.outbox.OutboxEventType.CREATE_MESSAGE_STATISTICS;
+import static de.caritas.cob.messageservice.api.model.outbox.OutboxEventType.LIVE_EVENT;
+import static de.caritas.cob.messageservice.api.model.outbox.OutboxEventType.NEW_MESSAGE_EMAIL;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import de.caritas.cob.messageservice.api.exception.CustomCryptoException;
+import de.caritas.cob.messageservice.api.facade.EmailNotificationFacade;
+import de.caritas.cob.messageservice.api.model.outbox.OutboxPayload;
+import de.caritas.cob.messageservice.api.model.outbox.entity.OutboxEvent;
+import de.caritas.cob.messageservice.api.repository.OutboxEventRepository;
+import de.caritas.cob.messageservice.api.service.EncryptionService;
+import de.caritas.cob.messageservice.api.service.LiveEventNotificationService;
+import de.caritas.cob.messageservice.api.service.statistics.StatisticsService;
+import de.caritas.cob.messageservice.api.service.statistics.event.CreateMessageStatisticsEvent;
+import de.caritas.cob.messageservice.config.AsyncExecutorConfig;
+import de.caritas.cob.messageservice.statisticsservice.generated.web.model.UserRole;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.AmqpTimeoutException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+
+/**
+ * Relays outbox events stored in the in-memory database of the testing profile.
+ */
+@SpringBootTest
+@ActiveProfiles("testing")
+@TestPropertySource(properties = {
+    "outbox.enabled=true",
+    "outbox.relay.interval.millis=3600000",
+    "outbox.relay.batch.size=10",
+    "outbox.relay.max.attempts=3"
+})
+class OutboxRelayIT {
+
+  private static final String RC_GROUP_ID = "rcGroupId";
+  private static final String INITIAL_MASTER_KEY = "initialMasterKey";
+  private static final String ACCESS_TOKEN = "accessToken";
+  private static final OutboxPayload NOTIFICATION_PAYLOAD =
+      new OutboxPayload(ACCESS_TOKEN, null, null, null);
+
+  @Autowired
+  private OutboxRelay outboxRelay;
+
+  @Autowired
+  private OutboxService outboxService;
+
+  @Autowired
+  private OutboxEventRepository outboxEventRepository;
+
+  @Autowired
+  private EncryptionService encryptionService;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @MockBean
+  private LiveEventNotificationService liveEventNotificationService;
+
+  @MockBean
+  private EmailNotificationFacade emailNotificationFacade;
+
+  @MockBean
+  private StatisticsService statisticsService;
+
+  @BeforeEach
+  void setup() {
+    encryptionService.updateMasterKey("masterKey");
+  }
+
+  @AfterEach
+  void tearDown() {
+    outboxEventRepository.deleteAll();
+  }
+
+  @Test
+  void relay_Should_DeliverAllDueEventsInBatches() {
+    var events = new ArrayList<OutboxEvent>();
+    IntStream.range(0, 25).forEach(i -> events.add(
+        outboxService.eventOf(LIVE_EVENT, RC_GROUP_ID + i, Optional.empty(),
+            NOTIFICATION_PAYLOAD)));
+    outboxService.enqueue(events);
+
+    outboxRelay.relay();
+
+    IntStream.range(0, 25).forEach(i -> verify(liveEventNotificationService)
+        .sendLiveEventNow(RC_GROUP_ID + i, ACCESS_TOKEN, Optional.empty()));
+    assertThat(outboxEventRepository.count(), is(0L));
+  }
+
+  @Test
+  void relay_Should_DeliverEachTypeWithItsPayload() {
+    outboxService.enqueue(List.of(
+        outboxService.eventOf(NEW_MESSAGE_EMAIL, RC_GROUP_ID, Optional.of(1L),
+            NOTIFICATION_PAYLOAD),
+        outboxService.eventOf(CREATE_MESSAGE_STATISTICS, RC_GROUP_ID, Optional.of(1L),
+            new OutboxPayload(null, "userId", UserRole.CONSULTANT, "receiverId"))));
+
+    outboxRelay.relay();
+
+    verify(emailNotificationFacade).sendEmailAboutNewChatMessageNow(RC_GROUP_ID, Optional.of(1L),
+        ACCESS_TOKEN);
+    var captor = ArgumentCaptor.forClass(CreateMessageStatisticsEvent.class);
+    verify(statisticsService).fireEventNow(captor.capture());
+    var payload = captor.getValue().getPayload().orElseThrow();
+    assertThat(payload, containsString("\"userId\":\"userId\""));
+    assertThat(payload, containsString("\"receiverId\":\"receiverId\""));
+    assertThat(payload, containsString("\"tenantId\":1"));
+    assertThat(outboxEventRepository.count(), is(0L));
+  }
+
+  @Test
+  void enqueueAsync_Should_StoreEventWithPayloadLookedUpOnStatisticsExecutor() throws Exception {
+    var lookupThread = new AtomicReference<String>();
+
+    outboxService.enqueueAsync(CREATE_MESSAGE_STATISTICS, RC_GROUP_ID, Optional.empty(), () -> {
+      lookupThread.set(Thread.currentThread().getName());
+      return new OutboxPayload(null, "userId", UserRole.CONSULTANT, "receiverId");
+    }).get(5, TimeUnit.SECONDS);
+    outboxRelay.relay();
+
+    assertThat(lookupThread.get(), startsWith(AsyncExecutorConfig.STATISTICS_EXECUTOR));
+    var captor = ArgumentCaptor.forClass(CreateMessageStatisticsEvent.class);
+    verify(statisticsService).fireEventNow(captor.capture());
+    assertThat(captor.getValue().getPayload().orElseThrow(),
+        containsString("\"receiverId\":\"receiverId\""));
+  }
+
+  @Test
+  void enqueue_Should_StoreAccessTokenEncrypted() throws CustomCryptoException {
+    outboxService.enqueue(List.of(outboxService.eventOf(LIVE_EVENT, RC_GROUP_ID,
+        Optional.empty(), NOTIFICATION_PAYLOAD)));
+
+    var stored = outboxEventRepository.findAll().iterator().next();
+    assertThat(stored.getPayload(), not(containsString(ACCESS_TOKEN)));
+    assertThat(outboxService.payloadOf(stored), is(NOTIFICATION_PAYLOAD));
+  }
+
+  @Test
+  void relay_Should_KeepEventForRetryWithBackoff_When_DeliveryFails() {
+    doThrow(new RestClientException("user service unavailable"))
+        .when(liveEventNotificationService).sendLiveEventNow(anyString(), any(), any());
+    outboxService.enqueue(List.of(outboxService.eventOf(LIVE_EVENT, RC_GROUP_ID,
+        Optional.empty(), NOTIFICATION_PAYLOAD)));
+
+    outboxRelay.relay();
+    outboxRelay.relay();
+
+    verify(liveEventNotificationService, times(1)).sendLiveEventNow(anyString(), any(), any());
+    var stored = outboxEventRepository.findAll().iterator().next();
+    assertThat(stored.getAttempts(), is(1));
+    assertThat(stored.getNextAttemptDate().isAfter(LocalDateTime.now()), is(true));
+
+    doNothing().when(liveEventNotificationService).sendLiveEventNow(anyString(), any(), any());
+    stored.setNextAttemptDate(LocalDateTime.now().minusSeconds(1));
+    outboxEventRepository.save(stored);
+    outboxRelay.relay();
+
+    assertThat(outboxEventRepository.count(), is(0L));
+  }
+
+  @Test
+  void relay_Should_LeaseEventsWhileDeliveringThem() {
+    var nextAttemptDuringDelivery = new ArrayList<LocalDateTime>();
+    doAnswer(invocation -> {
+      outboxEventRepository.findAll()
+          .forEach(stored -> nextAttemptDuringDelivery.add(stored.getNextAttemptDate()));
+      return null;
+    }).when(liveEventNotificationService).sendLiveEventNow(anyString(), any(), any());
+    outboxService.enqueue(List.of(outboxService.eventOf(LIVE_EVENT, RC_GROUP_ID,
+        Optional.empty(), NOTIFICATION_PAYLOAD)));
+
+    outboxRelay.relay();
+
+    assertThat(nextAttemptDuringDelivery.size(), is(1));
+    assertThat(nextAttemptDuringDelivery.get(0).isAfter(LocalDateTime.now()), is(true));
+    assertThat(outboxEventRepository.count(), is(0L));
+  }
+
+  @Test
+  void relay_Should_DropEventWithoutRetry_When_AccessTokenIsRejected() {
+    doThrow(HttpClientErrorException.create(HttpStatus.UNAUTHORIZED, "Unauthorized", null, null,
+        null)).when(liveEventNotificationService).sendLiveEventNow(anyString(), any(), any());
+    outboxService.enqueue(List.of(outboxService.eventOf(LIVE_EVENT, RC_GROUP_ID,
+        Optional.empty(), NOTIFICATION_PAYLOAD)));
+
+    outboxRelay.relay();
+
+    verify(liveEventNotificationService, times(1)).sendLiveEventNow(anyString(), any(), any());
+    assertThat(outboxEventRepository.count(), is(0L));
+    var unauthorized = meterRegistry.find(OutboxRelay.METRIC_NAME)
+        .tags("type", LIVE_EVENT.name(), "outcome", "unauthorized").counter();
+    assertThat(unauthorized.count(), greaterThan(0.0));
+  }
+
+  @Test
+  void relay_Should_KeepStatisticsEvent_When_BrokerDoesNotConfirmIt() {
+    doThrow(new AmqpTimeoutException("no confirms")).when(statisticsService).fireEventNow(any());
+    outboxService.enqueue(List.of(outboxService.eventOf(CREATE_MESSAGE_STATISTICS, RC_GROUP_ID,
+        Optional.empty(), new OutboxPayload(null, "userId", UserRole.ASKER, null))));
+
+    outboxRelay.relay();
+
+    var stored = outboxEventRepository.findAll().iterator().next();
+    assertThat(stored.getAttempts(), is(1));
+  }
+
+  @Test
+  void relay_Should_KeepEventsWithoutCountingAttempts_When_MasterKeyIsMissingAfterRestart() {
+    var events = new ArrayList<OutboxEvent>();
+    IntStream.range(0, 11).forEach(i -> events.add(
+        outboxService.eventOf(LIVE_EVENT, RC_GROUP_ID + i, Optional.empty(),
+            NOTIFICATION_PAYLOAD)));
+    outboxService.enqueue(events);
+    encryptionService.updateMasterKey(INITIAL_MASTER_KEY);
+
+    IntStream.range(0, 5).forEach(i -> outboxRelay.relay());
+
+    verify(liveEventNotificationService, never()).sendLiveEventNow(anyString(), any(), any());
+    assertThat(outboxEventRepository.count(), is(11L));
+    outboxEventRepository.findAll().forEach(event -> assertThat(event.getAttempts(), is(0)));
+
+    encryptionService.updateMasterKey("masterKey");
+    outboxRelay.relay();
+
+    verify(liveEventNotificationService, times(11)).sendLiveEventNow(anyString(), any(), any());
+    assertThat(outboxEventRepository.count(), is(0L));
+  }
+
+  @Test
+  void relay_Should_DropEventWithoutDelivery_When_MasterKeyWasReplaced() {
+    outboxService.enqueue(List.of(outboxService.eventOf(LIVE_EVENT, RC_GROUP_ID,
+        Optional.empty(), NOTIFICATION_PAYLOAD)));
+    encryptionService.updateMasterKey("replacedMasterKey");
+
+    outboxRelay.relay();
+
+    verify(liveEventNotificationService, never()).sendLiveEventNow(anyString(), any(), any());
+    assertThat(outboxEventRepository.count(), is(0L));
+    var unreadable = meterRegistry.find(OutboxRelay.METRIC_NAME)
+        .tags("type", LIVE_EVENT.name(), "outcome", "unreadable").counter();
+    assertThat(unreadable.count(), greaterThan(0.0));
+  }
+
+  @Test
+  void relay_Should_DropEvent_When_MaxAttemptsAreReached() {
+    doThrow(new RestClientException("user service unavailable"))
+        .when(liveEventNotificationService).sendLiveEventNow(anyString(), any(), any());
+    var event = outboxService.eventOf(LIVE_EVENT, RC_GROUP_ID, Optional.empty(),
+        NOTIFICATION_PAYLOAD);
+    event.setAttempts(2);
+    outboxService.enqueue(List.of(event));
+
+    outboxRelay.relay();
+
+    assertThat(outboxEventRepository.count(), is(0L));
+    var dropped = meterRegistry.find(OutboxRelay.METRIC_NAME)
+        .tags("type", LIVE_EVENT.name(), "outcome", "dropped").counter();
+    assertThat(dropped.count(), greaterThan(0.0));
+  }
+}
@@ -0,0 +1,150 @@
+package de.caritas.cob.messageservice.api.service.statistics;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.AmqpTimeoutException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitOperations.OperationsCallback;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+class StatisticsEventPublisherTest {
+
+  private static final String EXCHANGE = "statistics.topic";
+  private static final String ROUTING_KEY = "CREATE_MESSAGE";
+  private static final int BATCH_SIZE = 3;
+
+  private final RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+  private final RabbitOperations operations = mock(RabbitOperations.class);
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private StatisticsEventPublisher publisher;
+
+  @AfterEach
+  void tearDown() {
+    publisher.shutdown();
+  }
+
+  @Test
+  void publish_Should_SendFullBatchAndWaitOnceForConfirms() {
+    givenPublisher(60_000, 10);
+
+    for (var i = 0; i < BATCH_SIZE; i++) {
+      publisher.publish(ROUTING_KEY, message(i));
+    }
+
+    verify(operations, timeout(5000)).waitForConfirmsOrDie(5000);
+    verify(operations, times(BATCH_SIZE)).send(any(String.class), any(String.class),
+        any(Message.class));
+    verify(rabbitTemplate, times(1)).invoke(any());
+    assertThat(counter("published"), is((double) BATCH_SIZE));
+  }
+
+  @Test
+  void publish_Should_SendPartialBatch_When_MaxDelayPassed() {
+    givenPublisher(50, 10);
+
+    publisher.publish(ROUTING_KEY, message(1));
+
+    verify(operations, timeout(5000)).send(EXCHANGE, ROUTING_KEY, message(1));
+    verify(operations, timeout(5000)).waitForConfirmsOrDie(5000);
+  }
+
+  @Test
+  void publish_Should_CountFailedMessages_When_BatchIsNotConfirmed() {
+    givenPublisher(60_000, 10);
+    doThrow(new AmqpTimeoutException("no confirms")).when(operations)
+        .waitForConfirmsOrDie(anyLong());
+
+    publisher.publish(ROUTING_KEY, message(1));
+    publisher.flush();
+
+    assertThat(counter("failed"), is(1.0));
+    assertThat(counter("published"), is(0.0));
+  }
+
+  @Test
+  void publishNow_Should_SendMessageAndWaitForConfirm() {
+    givenPublisher(60_000, 10);
+
+    publisher.publishNow(ROUTING_KEY, message(1));
+
+    verify(operations).send(EXCHANGE, ROUTING_KEY, message(1));
+    verify(operations).waitForConfirmsOrDie(5000);
+    assertThat(counter("published"), is(1.0));
+  }
+
+  @Test
+  void publishNow_Should_Throw_When_MessageIsNotConfirmed() {
+    givenPublisher(60_000, 10);
+    doThrow(new AmqpTimeoutException("no confirms")).when(operations)
+        .waitForConfirmsOrDie(anyLong());
+
+    assertThrows(AmqpException.class, () -> publisher.publishNow(ROUTING_KEY, message(1)));
+
+    assertThat(counter("failed"), is(1.0));
+    assertThat(counter("published"), is(0.0));
+  }
+
+  @Test
+  void publish_Should_DropMessage_When_BufferIsFull() {
+    givenPublisher(60_000, 1);
+
+    publisher.publish(ROUTING_KEY, message(1));
+    publisher.publish(ROUTING_KEY, message(2));
+
+    assertThat(counter("dropped"), is(1.0));
+  }
+
+  @Test
+  void shutdown_Should_SendBufferedMessages() {
+    givenPublisher(60_000, 10);
+    publisher.publish(ROUTING_KEY, message(1));
+    verifyNoInteractions(rabbitTemplate);
+
+    publisher.shutdown();
+
+    verify(operations).send(EXCHANGE, ROUTING_KEY, message(1));
+  }
+
+  @SuppressWarnings("unchecked")
+  private void givenPublisher(long maxDelayMillis, int bufferCapacity) {
+    when(rabbitTemplate.invoke(any())).thenAnswer(invocation ->
+        ((OperationsCallback<Object>) invocation.getArgument(0)).doInRabbit(operations));
+
+    publisher = new StatisticsEventPublisher(rabbitTemplate, meterRegistry);
+    setField(publisher, "rabbitMqExchangeName", EXCHANGE);
+    setField(publisher, "batchSize", BATCH_SIZE);
+    setField(publisher, "maxDelayMillis", maxDelayMillis);
+    setField(publisher, "bufferCapacity", bufferCapacity);
+    setField(publisher, "confirmTimeoutMillis", 5000L);
+    publisher.init();
+  }
+
+  private double counter(String name) {
+    return meterRegistry.find(StatisticsEventPublisher.METRIC_PREFIX + "." + name).counter()
+        .count();
+  }
+
+  private static Message message(int number) {
+    return MessageBuilder.withBody(("message " + number).getBytes(StandardCharsets.UTF_8))
+        .build();
+  }
+}
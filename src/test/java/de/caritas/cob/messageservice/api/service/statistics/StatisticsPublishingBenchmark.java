@@ -0,0 +1,115 @@
+package de.caritas.cob.messageservice.api.service.statistics;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.fridujo.rabbitmq.mock.MockConnectionFactory;
+import de.caritas.cob.messageservice.api.helper.json.OffsetDateTimeToStringSerializer;
+import de.caritas.cob.messageservice.api.service.statistics.event.CreateMessageStatisticsEvent;
+import de.caritas.cob.messageservice.statisticsservice.generated.web.model.EventType;
+import de.caritas.cob.messageservice.statisticsservice.generated.web.model.UserRole;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory.ConfirmType;
+import org.springframework.amqp.rabbit.core.RabbitAdmin;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Compares publishing statistics events one by one, serialized with a new object mapper each, with
+ * the batched {@link StatisticsEventPublisher} and the shared writer, against an in-memory broker.
+ * Scores are events per millisecond. The in-memory broker confirms instantly, so the gain of
+ * waiting once per batch on a real broker comes on top. Run with
+ * {@code mvn test-compile exec:exec -Pbenchmark -Dbenchmark.include=StatisticsPublishing}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StatisticsPublishingBenchmark {
+
+  private static final String EXCHANGE = "statistics.topic";
+  private static final int EVENTS = 100;
+
+  private CachingConnectionFactory connectionFactory;
+  private RabbitTemplate rabbitTemplate;
+  private StatisticsEventPublisher publisher;
+  private CreateMessageStatisticsEvent event;
+
+  @Setup
+  public void setup() {
+    connectionFactory = new CachingConnectionFactory(new MockConnectionFactory());
+    connectionFactory.setPublisherConfirmType(ConfirmType.SIMPLE);
+    // without bound queues the in-memory broker discards the messages
+    new RabbitAdmin(connectionFactory).declareExchange(new FanoutExchange(EXCHANGE));
+    rabbitTemplate = new RabbitTemplate(connectionFactory);
+
+    publisher = new StatisticsEventPublisher(rabbitTemplate, new SimpleMeterRegistry());
+    ReflectionTestUtils.setField(publisher, "rabbitMqExchangeName", EXCHANGE);
+    ReflectionTestUtils.setField(publisher, "batchSize", 50);
+    ReflectionTestUtils.setField(publisher, "maxDelayMillis", 60_000L);
+    ReflectionTestUtils.setField(publisher, "bufferCapacity", EVENTS);
+    ReflectionTestUtils.setField(publisher, "confirmTimeoutMillis", 5000L);
+    publisher.init();
+
+    event = new CreateMessageStatisticsEvent("userId", UserRole.CONSULTANT, "rcGroupId", false,
+        "receiverId", 1L);
+  }
+
+  @TearDown
+  public void tearDown() {
+    publisher.shutdown();
+    connectionFactory.destroy();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(EVENTS)
+  public void perEventWithNewObjectMapper() throws JsonProcessingException {
+    for (var i = 0; i < EVENTS; i++) {
+      var objectMapper = new ObjectMapper()
+          .registerModule(new JavaTimeModule())
+          .registerModule(new SimpleModule()
+              .addSerializer(OffsetDateTime.class, new OffsetDateTimeToStringSerializer()));
+      var payload = objectMapper.writeValueAsString(ReflectionTestUtils.invokeMethod(event,
+          "createCreateMessageStatisticsEventMessage"));
+      rabbitTemplate.convertAndSend(EXCHANGE, EventType.CREATE_MESSAGE.toString(),
+          MessageBuilder.withBody(payload.getBytes(StandardCharsets.UTF_8))
+              .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+              .build());
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(EVENTS)
+  public void batchedWithSharedWriter() {
+    for (var i = 0; i < EVENTS; i++) {
+      var payload = event.getPayload().orElseThrow();
+      publisher.publish(EventType.CREATE_MESSAGE.toString(),
+          MessageBuilder.withBody(payload.getBytes(StandardCharsets.UTF_8))
+              .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+              .build());
+    }
+    publisher.flush();
+  }
+}
@@ -38,6 +38,7 @@ public class StatisticsServiceTest {
   private EventType eventType = EventType.ASSIGN_SESSION;
   @InjectMocks private StatisticsService statisticsService;
   @Mock private AmqpTemplate amqpTemplate;
+  @Mock private StatisticsEventPublisher statisticsEventPublisher;
 
   @Before
   public void setup() {
@@ -93,6 +94,28 @@ public class StatisticsServiceTest {
             buildPayloadMessage());
   }
 
+  @Test
+  public void fireEvent_Should_HandMessageToBatchPublisher_WhenBatchPublishingIsEnabled() {
+
+    setField(statisticsService, FIELD_NAME_STATISTICS_ENABLED, true);
+    setField(statisticsService, "batchPublishingEnabled", true);
+    statisticsService.fireEvent(createMessageStatisticsEvent);
+
+    verify(statisticsEventPublisher).publish(eventType.toString(), buildPayloadMessage());
+    verifyNoInteractions(amqpTemplate);
+  }
+
+  @Test
+  public void fireEventNow_Should_SendMessageConfirmed_WhenBatchPublishingIsEnabled() {
+
+    setField(statisticsService, FIELD_NAME_STATISTICS_ENABLED, true);
+    setField(statisticsService, "batchPublishingEnabled", true);
+    statisticsService.fireEventNow(createMessageStatisticsEvent);
+
+    verify(statisticsEventPublisher).publishNow(eventType.toString(), buildPayloadMessage());
+    verifyNoInteractions(amqpTemplate);
+  }
+
   private org.springframework.amqp.core.Message buildPayloadMessage() {
     return MessageBuilder.withBody(PAYLOAD.getBytes(StandardCharsets.UTF_8))
         .setContentType(MessageProperties.CONTENT_TYPE_JSON)
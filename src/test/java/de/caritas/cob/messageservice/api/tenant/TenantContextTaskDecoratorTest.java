@@ -0,0 +1,55 @@
+package de.caritas.cob.messageservice.api.tenant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class TenantContextTaskDecoratorTest {
+
+  private final TenantContextTaskDecorator tenantContextTaskDecorator =
+      new TenantContextTaskDecorator();
+
+  @AfterEach
+  void tearDown() {
+    TenantContext.clear();
+  }
+
+  @Test
+  void decorate_Should_RunTaskWithTenantOfSubmittingThread() throws InterruptedException {
+    var tenantId = new AtomicReference<Long>();
+    TenantContext.setCurrentTenant(1L);
+    var task = tenantContextTaskDecorator.decorate(
+        () -> tenantId.set(TenantContext.getCurrentTenant()));
+    TenantContext.clear();
+
+    var thread = new Thread(task);
+    thread.start();
+    thread.join();
+
+    assertThat(tenantId.get()).isEqualTo(1L);
+  }
+
+  @Test
+  void decorate_Should_RestoreTenantOfExecutingThread_When_TaskRunsOnCaller() {
+    TenantContext.setCurrentTenant(1L);
+    var task = tenantContextTaskDecorator.decorate(() -> TenantContext.setCurrentTenant(2L));
+
+    task.run();
+
+    assertThat(TenantContext.getCurrentTenant()).isEqualTo(1L);
+  }
+
+  @Test
+  void decorate_Should_ClearTenantAfterTask_When_ExecutingThreadHadNoTenant() {
+    TenantContext.setCurrentTenant(1L);
+    var task = tenantContextTaskDecorator.decorate(() -> {
+    });
+    TenantContext.clear();
+
+    task.run();
+
+    assertThat(TenantContext.getCurrentTenant()).isNull();
+  }
+}
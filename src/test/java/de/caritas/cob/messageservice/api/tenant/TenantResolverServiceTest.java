@@ -1,18 +1,27 @@
 package de.caritas.cob.messageservice.api.tenant;
 
+import static de.caritas.cob.messageservice.testhelper.TestCacheRegistry.cacheRegistryOf;
+import static de.caritas.cob.messageservice.testhelper.TestCacheRegistry.sizeBoundSpec;
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
 import java.util.Optional;
 import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Answers;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,7 +44,6 @@ class TenantResolverServiceTest {
   @Mock(answer = Answers.RETURNS_DEEP_STUBS)
   JwtAuthenticationToken token;
 
-  @InjectMocks
   TenantResolverService tenantResolverService;
 
   @Mock
@@ -47,13 +55,20 @@ class TenantResolverServiceTest {
   @Mock
   private MultitenancyWithSingleDomainTenantResolver multitenancyWithSingleDomainTenantResolver;
 
+  @BeforeEach
+  void setup() {
+    tenantResolverService = new TenantResolverService(customHeaderTenantResolver,
+        subdomainTenantResolver, technicalUserTenantResolver, accessTokenTenantResolver,
+        cacheRegistryOf(TenantResolverService.RESOLVED_TENANTS_CACHE_NAME,
+            sizeBoundSpec(100, Duration.ofSeconds(60))));
+    tenantResolverService.init();
+  }
+
   @Test
   void resolve_Should_ResolveFromAccessTokenForAuthenticatedUser_And_PassValidation() {
     // given
     givenUserIsAuthenticated();
-    when(accessTokenTenantResolver.canResolve(authenticatedRequest)).thenReturn(true);
     when(accessTokenTenantResolver.resolve(authenticatedRequest)).thenReturn(Optional.of(1L));
-    when(subdomainTenantResolver.canResolve(authenticatedRequest)).thenReturn(true);
     when(subdomainTenantResolver.resolve(authenticatedRequest)).thenReturn(Optional.of(1L));
 
     // when
@@ -72,9 +87,7 @@ class TenantResolverServiceTest {
     // given
 
     givenUserIsAuthenticated();
-    when(accessTokenTenantResolver.canResolve(authenticatedRequest)).thenReturn(true);
     when(accessTokenTenantResolver.resolve(authenticatedRequest)).thenReturn(Optional.of(1L));
-    when(subdomainTenantResolver.canResolve(authenticatedRequest)).thenReturn(true);
     when(subdomainTenantResolver.resolve(authenticatedRequest)).thenReturn(Optional.of(2L));
 
     // when, then
@@ -85,7 +98,6 @@ class TenantResolverServiceTest {
   void resolve_Should_ThrowAccessDeniedExceptionForAuthenticatedUser_IfAccessTokenResolverCannotResolveTenant() {
     // given
     givenUserIsAuthenticated();
-    when(accessTokenTenantResolver.canResolve(authenticatedRequest)).thenReturn(false);
 
     // when, then
     assertThrows(AccessDeniedException.class, () -> tenantResolverService.resolve(authenticatedRequest));
@@ -94,7 +106,6 @@ class TenantResolverServiceTest {
   @Test
   void resolve_Should_ThrowAccessDeniedExceptionForNotAuthenticatedUser_IfSubdomainCouldNotBeDetermined() {
     // given
-    when(subdomainTenantResolver.canResolve(nonAuthenticatedRequest)).thenReturn(false);
     // when, then
     assertThrows(AccessDeniedException.class,
         () -> tenantResolverService.resolve(nonAuthenticatedRequest));
@@ -103,7 +114,6 @@ class TenantResolverServiceTest {
   @Test
   void resolve_Should_ResolveTenantId_IfSubdomainCouldBeDetermined() {
     // given
-    when(subdomainTenantResolver.canResolve(nonAuthenticatedRequest)).thenReturn(true);
     when(subdomainTenantResolver.resolve(nonAuthenticatedRequest)).thenReturn(Optional.of(1L));
     // when
     Long resolved = tenantResolverService.resolve(nonAuthenticatedRequest);
@@ -115,7 +125,6 @@ class TenantResolverServiceTest {
   void resolve_Should_ResolveTenantId_ForTechnicalUserRole() {
     // given
     givenUserIsAuthenticated();
-    when(technicalUserTenantResolver.canResolve(authenticatedRequest)).thenReturn(true);
     when(technicalUserTenantResolver.resolve(authenticatedRequest)).thenReturn(Optional.of(TECHNICAL_CONTEXT));
 
     Long resolved = tenantResolverService.resolve(authenticatedRequest);
@@ -126,7 +135,6 @@ class TenantResolverServiceTest {
   @Test
   void resolve_Should_ResolveTenantId_FromHeader() {
     // given
-    when(customHeaderTenantResolver.canResolve(authenticatedRequest)).thenReturn(true);
     when(customHeaderTenantResolver.resolve(authenticatedRequest)).thenReturn(Optional.of(2L));
 
     // when
@@ -136,4 +144,68 @@ class TenantResolverServiceTest {
     assertThat(resolved).isEqualTo(2L);
   }
 
-}
\ No newline at end of file
+  @Test
+  void resolve_Should_AskEachResolverOnlyOnce() {
+    givenUserIsAuthenticated();
+    when(accessTokenTenantResolver.resolve(authenticatedRequest)).thenReturn(Optional.of(1L));
+    when(subdomainTenantResolver.resolve(authenticatedRequest)).thenReturn(Optional.of(1L));
+
+    tenantResolverService.resolve(authenticatedRequest);
+
+    verify(technicalUserTenantResolver).resolve(authenticatedRequest);
+    verify(accessTokenTenantResolver).resolve(authenticatedRequest);
+    verify(customHeaderTenantResolver).resolve(authenticatedRequest);
+    verify(subdomainTenantResolver).resolve(authenticatedRequest);
+    verify(subdomainTenantResolver, never()).canResolve(any());
+    verify(accessTokenTenantResolver, never()).canResolve(any());
+  }
+
+  @Test
+  void resolve_Should_ReuseResolvedTenant_When_TokenAndHostAreTheSame() {
+    var request = authenticatedRequestOf("jti", "tenant.example.com");
+    when(accessTokenTenantResolver.resolve(request)).thenReturn(Optional.of(1L));
+    when(subdomainTenantResolver.resolve(request)).thenReturn(Optional.of(1L));
+
+    assertThat(tenantResolverService.resolve(request)).isEqualTo(1L);
+    assertThat(tenantResolverService.resolve(request)).isEqualTo(1L);
+
+    verify(accessTokenTenantResolver, times(1)).resolve(request);
+    verify(subdomainTenantResolver, times(1)).resolve(request);
+  }
+
+  @Test
+  void resolve_Should_ResolveAgain_When_HostDiffers() {
+    var request = authenticatedRequestOf("jti", "tenant.example.com");
+    var otherHostRequest = authenticatedRequestOf("jti", "other.example.com");
+    when(accessTokenTenantResolver.resolve(any())).thenReturn(Optional.of(1L));
+    when(subdomainTenantResolver.resolve(request)).thenReturn(Optional.of(1L));
+    when(subdomainTenantResolver.resolve(otherHostRequest)).thenReturn(Optional.of(2L));
+
+    assertThat(tenantResolverService.resolve(request)).isEqualTo(1L);
+    assertThrows(AccessDeniedException.class,
+        () -> tenantResolverService.resolve(otherHostRequest));
+  }
+
+  @Test
+  void resolve_Should_NotRememberFailedResolution() {
+    var request = authenticatedRequestOf("jti", "tenant.example.com");
+    when(accessTokenTenantResolver.resolve(request)).thenReturn(Optional.of(1L));
+    when(subdomainTenantResolver.resolve(request))
+        .thenReturn(Optional.empty(), Optional.of(1L));
+
+    assertThrows(AccessDeniedException.class, () -> tenantResolverService.resolve(request));
+    assertThat(tenantResolverService.resolve(request)).isEqualTo(1L);
+  }
+
+  private HttpServletRequest authenticatedRequestOf(String tokenId, String serverName) {
+    var jwt = Jwt.withTokenValue("token")
+        .header("alg", "none")
+        .jti(tokenId)
+        .subject("subject")
+        .build();
+    var request = new MockHttpServletRequest();
+    request.setServerName(serverName);
+    request.setUserPrincipal(new JwtAuthenticationToken(jwt));
+    return request;
+  }
+}
@@ -0,0 +1,132 @@
+package de.caritas.cob.messageservice.config;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import de.caritas.cob.messageservice.api.tenant.TenantContext;
+import de.caritas.cob.messageservice.config.AsyncExecutorProperties.Pool;
+import de.caritas.cob.messageservice.config.AsyncExecutorProperties.RejectionPolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+class AsyncExecutorConfigTest {
+
+  private static final String EXECUTOR_NAME = "testExecutor";
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final CountDownLatch release = new CountDownLatch(1);
+
+  private ThreadPoolTaskExecutor executor;
+
+  @AfterEach
+  void tearDown() {
+    release.countDown();
+    executor.shutdown();
+  }
+
+  @Test
+  void buildPlatformExecutor_Should_RunTaskOnCaller_When_SaturatedWithCallerRunsPolicy() {
+    givenSaturatedExecutor(RejectionPolicy.CALLER_RUNS);
+    var thread = new AtomicReference<Thread>();
+
+    executor.execute(() -> thread.set(Thread.currentThread()));
+
+    assertThat(thread.get(), is(Thread.currentThread()));
+    assertThat(rejections(), is(1.0));
+  }
+
+  @Test
+  void buildPlatformExecutor_Should_RejectTask_When_SaturatedWithAbortPolicy() {
+    givenSaturatedExecutor(RejectionPolicy.ABORT);
+    var executed = new AtomicBoolean();
+
+    assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> executed.set(true)));
+
+    assertThat(executed.get(), is(false));
+    assertThat(rejections(), is(1.0));
+  }
+
+  @Test
+  void buildPlatformExecutor_Should_RejectCompletableFuture_When_SaturatedWithAbortPolicy() {
+    givenSaturatedExecutor(RejectionPolicy.ABORT);
+
+    // the way @Async methods returning a CompletableFuture are submitted
+    assertThrows(RejectedExecutionException.class, () -> executor.submitCompletable(() -> { }));
+    assertThat(rejections(), is(1.0));
+  }
+
+  @Test
+  void buildPlatformExecutor_Should_UseExecutorNameAsThreadPrefix() throws Exception {
+    givenExecutor(RejectionPolicy.ABORT);
+    var thread = new AtomicReference<Thread>();
+    var done = new CountDownLatch(1);
+
+    executor.execute(() -> {
+      thread.set(Thread.currentThread());
+      done.countDown();
+    });
+    done.await(1, TimeUnit.SECONDS);
+
+    assertThat(thread.get(), is(not(Thread.currentThread())));
+    assertThat(thread.get().getName(), startsWith(EXECUTOR_NAME + "-"));
+  }
+
+  @Test
+  void buildPlatformExecutor_Should_RunTaskWithTenantOfSubmittingThread() throws Exception {
+    givenExecutor(RejectionPolicy.ABORT);
+    var tenantId = new AtomicReference<Long>();
+    var done = new CountDownLatch(1);
+
+    TenantContext.setCurrentTenant(42L);
+    try {
+      executor.execute(() -> {
+        tenantId.set(TenantContext.getCurrentTenant());
+        done.countDown();
+      });
+    } finally {
+      TenantContext.clear();
+    }
+    done.await(1, TimeUnit.SECONDS);
+
+    assertThat(tenantId.get(), is(42L));
+  }
+
+  private void givenSaturatedExecutor(RejectionPolicy rejectionPolicy) {
+    givenExecutor(rejectionPolicy);
+    executor.execute(this::awaitRelease);
+    executor.execute(() -> {
+    });
+  }
+
+  private void givenExecutor(RejectionPolicy rejectionPolicy) {
+    var pool = new Pool();
+    pool.setCorePoolSize(1);
+    pool.setMaxPoolSize(1);
+    pool.setQueueCapacity(1);
+    pool.setRejectionPolicy(rejectionPolicy);
+    executor = AsyncExecutorConfig.buildPlatformExecutor(EXECUTOR_NAME, pool, meterRegistry);
+    executor.initialize();
+  }
+
+  private void awaitRelease() {
+    try {
+      release.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private double rejections() {
+    return meterRegistry.get("executor.rejected").tag("name", EXECUTOR_NAME).counter().count();
+  }
+}
@@ -0,0 +1,121 @@
+package de.caritas.cob.messageservice.config;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import de.caritas.cob.messageservice.config.CacheProperties.Spec;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CacheRegistryTest {
+
+  private static final String CACHE_NAME = "test";
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final CacheProperties cacheProperties = new CacheProperties();
+  private final CacheRegistry cacheRegistry = new CacheRegistry(cacheProperties, meterRegistry);
+
+  private final Spec spec = new Spec();
+
+  @BeforeEach
+  void setup() {
+    cacheProperties.getSpecs().put(CACHE_NAME, spec);
+  }
+
+  @Test
+  void cache_Should_ApplyMaximumSizeAndExpiryOfSpec() {
+    spec.setMaximumSize(10L);
+    spec.setExpireAfterWrite(Duration.ofMinutes(5));
+    spec.setExpireAfterAccess(Duration.ofMinutes(1));
+
+    var policy = cacheRegistry.<String, String>cache(CACHE_NAME).policy();
+
+    assertThat(policy.eviction().orElseThrow().getMaximum(), is(10L));
+    assertThat(policy.expireAfterWrite().orElseThrow().getExpiresAfter(TimeUnit.MINUTES), is(5L));
+    assertThat(policy.expireAfterAccess().orElseThrow().getExpiresAfter(TimeUnit.MINUTES),
+        is(1L));
+  }
+
+  @Test
+  void cache_Should_BoundByWeight_When_WeigherIsGiven() {
+    spec.setMaximumWeight(10L);
+    var cache = cacheRegistry.<String, String>cache(CACHE_NAME, (key, value) -> value.length());
+
+    cache.put("key", "0123456789");
+    cache.put("other", "0123456789");
+    cache.cleanUp();
+
+    assertThat(cache.estimatedSize(), is(1L));
+  }
+
+  @Test
+  void loadingCache_Should_ApplyRefreshAfterWriteOfSpec() {
+    spec.setMaximumSize(10L);
+    spec.setRefreshAfterWrite(Duration.ofMinutes(1));
+
+    var cache = cacheRegistry.<String, String>loadingCache(CACHE_NAME, key -> key + "-value");
+
+    assertThat(cache.get("key"), is("key-value"));
+    assertThat(cache.policy().refreshAfterWrite().orElseThrow()
+        .getRefreshesAfter(TimeUnit.MINUTES), is(1L));
+  }
+
+  @Test
+  void cache_Should_PublishStatisticsTaggedWithCacheName() {
+    spec.setMaximumSize(10L);
+    var cache = cacheRegistry.<String, String>cache(CACHE_NAME);
+
+    cache.put("key", "value");
+    cache.getIfPresent("key");
+    cache.getIfPresent("key");
+    cache.getIfPresent("absent");
+
+    assertThat(meterRegistry.get("cache.gets").tags("cache", CACHE_NAME, "result", "hit")
+        .functionCounter().count(), is(2.0));
+    assertThat(meterRegistry.get(CacheRegistry.HIT_RATIO_METRIC_NAME).tag("cache", CACHE_NAME)
+        .gauge().value(), is(2.0 / 3));
+    assertThat(meterRegistry.find("cache.size").tag("cache", CACHE_NAME).gauge(),
+        is(notNullValue()));
+  }
+
+  @Test
+  void cache_Should_Fail_When_NoSpecIsDeclared() {
+    assertThrows(IllegalStateException.class, () -> cacheRegistry.cache("undeclared"));
+  }
+
+  @Test
+  void cache_Should_Fail_When_NameIsAlreadyRegistered() {
+    cacheRegistry.cache(CACHE_NAME);
+
+    assertThrows(IllegalStateException.class, () -> cacheRegistry.cache(CACHE_NAME));
+  }
+
+  @Test
+  void adopt_Should_ApplyMaximumSizeOfSpecAndPublishStatistics() {
+    spec.setMaximumSize(10L);
+    var cache = Caffeine.newBuilder().maximumSize(1000).recordStats().<String, String>build();
+
+    cacheRegistry.adopt(CACHE_NAME, cache);
+    cache.put("key", "value");
+    cache.getIfPresent("key");
+
+    assertThat(cache.policy().eviction().orElseThrow().getMaximum(), is(10L));
+    assertThat(meterRegistry.get("cache.gets").tags("cache", CACHE_NAME, "result", "hit")
+        .functionCounter().count(), is(1.0));
+  }
+
+  @Test
+  void adopt_Should_Fail_When_SpecDeclaresSettingsWhichCanNotBeApplied() {
+    spec.setMaximumSize(10L);
+    spec.setExpireAfterWrite(Duration.ofMinutes(5));
+    var cache = Caffeine.newBuilder().maximumSize(1000).<String, String>build();
+
+    assertThrows(IllegalStateException.class, () -> cacheRegistry.adopt(CACHE_NAME, cache));
+  }
+}
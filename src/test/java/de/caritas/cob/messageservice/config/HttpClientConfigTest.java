@@ -0,0 +1,55 @@
+package de.caritas.cob.messageservice.config;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class HttpClientConfigTest {
+
+  private final HttpClientConfig httpClientConfig = new HttpClientConfig();
+
+  private PoolingHttpClientConnectionManager connectionManager;
+
+  @BeforeEach
+  void setup() {
+    ReflectionTestUtils.setField(httpClientConfig, "maxTotal", 40);
+    ReflectionTestUtils.setField(httpClientConfig, "maxPerRoute", 10);
+    ReflectionTestUtils.setField(httpClientConfig, "connectionTimeToLiveSeconds", 300L);
+    ReflectionTestUtils.setField(httpClientConfig, "readTimeoutMillis", 30000L);
+    connectionManager = httpClientConfig.httpClientConnectionManager();
+  }
+
+  @AfterEach
+  void tearDown() {
+    connectionManager.close();
+  }
+
+  @Test
+  void httpClientConnectionManager_Should_UseConfiguredPoolLimits() {
+    assertThat(connectionManager.getMaxTotal(), is(40));
+    assertThat(connectionManager.getDefaultMaxPerRoute(), is(10));
+  }
+
+  @Test
+  void httpClientConnectionPoolMetrics_Should_ExportPoolStats() {
+    var registry = new SimpleMeterRegistry();
+
+    httpClientConfig.httpClientConnectionPoolMetrics(connectionManager).bindTo(registry);
+
+    assertThat(registry.get("httpcomponents.httpclient.pool.total.max").gauge().value(), is(40.0));
+    assertThat(registry.get("httpcomponents.httpclient.pool.route.max.default").gauge().value(),
+        is(10.0));
+    assertThat(registry.get("httpcomponents.httpclient.pool.total.connections")
+        .tag("state", "leased").gauge().value(), is(0.0));
+    assertThat(registry.get("httpcomponents.httpclient.pool.total.connections")
+        .tag("state", "available").gauge().value(), is(0.0));
+    assertThat(registry.get("httpcomponents.httpclient.pool.total.pending").gauge().value(),
+        is(0.0));
+  }
+}
@@ -0,0 +1,35 @@
+package de.caritas.cob.messageservice.config;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class VirtualThreadSupportTest {
+
+  private final VirtualThreadSupport virtualThreadSupport = new VirtualThreadSupport();
+
+  @Test
+  void threadFactory_Should_ReturnEmpty_When_VirtualThreadsAreDisabled() {
+    ReflectionTestUtils.setField(virtualThreadSupport, "virtualThreadsEnabled", false);
+
+    assertThat(virtualThreadSupport.threadFactory("test-").isPresent(), is(false));
+  }
+
+  @Test
+  void threadFactory_Should_ProvideVirtualThreads_When_EnabledAndSupportedByRuntime() {
+    ReflectionTestUtils.setField(virtualThreadSupport, "virtualThreadsEnabled", true);
+
+    var threadFactory = virtualThreadSupport.threadFactory("test-");
+
+    assertThat(threadFactory.isPresent(), is(Runtime.version().feature() >= 21));
+    threadFactory.ifPresent(factory -> {
+      var thread = factory.newThread(() -> {
+      });
+      assertThat(thread.getName(), startsWith("test-"));
+      assertThat(ReflectionTestUtils.invokeMethod(thread, "isVirtual"), is(true));
+    });
+  }
+}
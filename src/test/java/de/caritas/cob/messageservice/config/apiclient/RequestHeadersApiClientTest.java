@@ -0,0 +1,78 @@
+package de.caritas.cob.messageservice.config.apiclient;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.headerDoesNotExist;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import de.caritas.cob.messageservice.userservice.generated.web.LiveproxyControllerApi;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+class RequestHeadersApiClientTest {
+
+  private static final String LIVE_EVENT_URL = "http://user-service/liveproxy/send?rcGroupId=";
+
+  private MockRestServiceServer server;
+  private LiveproxyControllerApi liveproxyControllerApi;
+
+  @BeforeEach
+  void setup() {
+    var restTemplate = new RestTemplate();
+    server = MockRestServiceServer.bindTo(restTemplate).build();
+    liveproxyControllerApi = new LiveproxyControllerApi(
+        new RequestHeadersApiClient(restTemplate).setBasePath("http://user-service"));
+  }
+
+  @Test
+  void invokeAPI_Should_AddHeadersOfCurrentThreadOnlyToRequestsWithinScope() {
+    server.expect(requestTo(LIVE_EVENT_URL + "first"))
+        .andExpect(method(HttpMethod.POST))
+        .andExpect(header("Authorization", "Bearer first"))
+        .andExpect(header("X-Tenant-Id", "1"))
+        .andRespond(withSuccess());
+    server.expect(requestTo(LIVE_EVENT_URL + "second"))
+        .andExpect(header("Authorization", "Bearer second"))
+        .andExpect(headerDoesNotExist("X-Tenant-Id"))
+        .andRespond(withSuccess());
+    server.expect(requestTo(LIVE_EVENT_URL + "third"))
+        .andExpect(headerDoesNotExist("Authorization"))
+        .andRespond(withSuccess());
+
+    ApiClientRequestHeaders.runWith(headers("first", "1"),
+        () -> liveproxyControllerApi.sendLiveEvent("first"));
+    ApiClientRequestHeaders.runWith(headers("second", null),
+        () -> liveproxyControllerApi.sendLiveEvent("second"));
+    liveproxyControllerApi.sendLiveEvent("third");
+
+    server.verify();
+  }
+
+  @Test
+  void callWith_Should_RestoreHeadersOfEnclosingScope() {
+    var outer = headers("outer", null);
+
+    ApiClientRequestHeaders.runWith(outer, () -> {
+      ApiClientRequestHeaders.runWith(headers("inner", null), () -> { });
+      assertThat(ApiClientRequestHeaders.current(), is(outer));
+    });
+
+    assertThat(ApiClientRequestHeaders.current().isEmpty(), is(true));
+  }
+
+  private static HttpHeaders headers(String token, String tenantId) {
+    var headers = new HttpHeaders();
+    headers.add("Authorization", "Bearer " + token);
+    if (tenantId != null) {
+      headers.add("X-Tenant-Id", tenantId);
+    }
+    return headers;
+  }
+}
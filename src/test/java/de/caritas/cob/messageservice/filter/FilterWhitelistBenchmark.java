@@ -0,0 +1,68 @@
+package de.caritas.cob.messageservice.filter;
+
+import de.caritas.cob.messageservice.config.SecurityConfig;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+/**
+ * Checks per request whether the CSRF and the tenant filter apply, once with the precompiled
+ * {@link PathWhitelist} and once with a parallel stream over the whitelists, as before. Runs on
+ * several threads, as requests do, which share the common fork join pool of the parallel streams.
+ * Run with {@code mvn test-compile exec:exec -Pbenchmark -Dbenchmark.include=FilterWhitelist}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Threads(4)
+@Fork(1)
+public class FilterWhitelistBenchmark {
+
+  private static final String[] TENANCY_FILTER_WHITELIST =
+      new String[]{"/actuator/health", "/actuator/health/**", "/swagger-ui.html", "/favicon.ico"};
+
+  @Param({"/messages/draft", "/actuator/health/liveness"})
+  private String requestUri;
+
+  private MockHttpServletRequest request;
+  private PathWhitelist csrfWhitelist;
+  private PathWhitelist tenancyWhitelist;
+
+  @Setup
+  public void setup() {
+    request = new MockHttpServletRequest("POST", requestUri);
+    csrfWhitelist = new PathWhitelist(SecurityConfig.WHITE_LIST);
+    tenancyWhitelist = new PathWhitelist(TENANCY_FILTER_WHITELIST);
+  }
+
+  @Benchmark
+  public boolean precompiledWhitelists() {
+    return csrfWhitelist.contains(request) | tenancyWhitelist.contains(request);
+  }
+
+  @Benchmark
+  public boolean parallelStreamWhitelists() {
+    return parallelStreamContains(SecurityConfig.WHITE_LIST)
+        | parallelStreamContains(TENANCY_FILTER_WHITELIST);
+  }
+
+  /** The whitelist check of both filters before the patterns were precompiled. */
+  private boolean parallelStreamContains(String[] whitelist) {
+    return Arrays.asList(whitelist).parallelStream()
+        .anyMatch(request.getRequestURI().toLowerCase()::contains);
+  }
+}
@@ -1,31 +1,45 @@
 package de.caritas.cob.messageservice.filter;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
 import de.caritas.cob.messageservice.api.tenant.TenantResolverService;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.io.IOException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.access.AccessDeniedException;
 
 @ExtendWith(MockitoExtension.class)
 class HttpTenantFilterTest {
 
-  @InjectMocks HttpTenantFilter httpTenantFilter;
-
   @Mock private TenantResolverService tenantResolverService;
 
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private HttpTenantFilter httpTenantFilter;
+
   @Mock HttpServletRequest request;
 
   @Mock HttpServletResponse response;
 
   @Mock FilterChain filterChain;
 
+  @BeforeEach
+  void setup() {
+    httpTenantFilter = new HttpTenantFilter(tenantResolverService, meterRegistry);
+  }
+
   @Test
   void doFilterInternal_Should_NotApply_When_RequestBelongsToTenancyWhiteList()
       throws ServletException, IOException {
@@ -51,5 +65,25 @@ class HttpTenantFilterTest {
 
     // then
     Mockito.verify(tenantResolverService).resolve(request);
+    assertThat(timer("success").count(), is(1L));
+  }
+
+  @Test
+  void doFilterInternal_Should_RecordFailedResolution_When_TenantCouldNotBeResolved()
+      throws ServletException, IOException {
+    // given
+    Mockito.when(request.getRequestURI()).thenReturn("/messages/1");
+    Mockito.when(tenantResolverService.resolve(request))
+        .thenThrow(new AccessDeniedException("Tenant id could not be resolved"));
+
+    // when, then
+    assertThrows(AccessDeniedException.class,
+        () -> httpTenantFilter.doFilterInternal(request, response, filterChain));
+    Mockito.verifyNoInteractions(filterChain);
+    assertThat(timer("failure").count(), is(1L));
+  }
+
+  private Timer timer(String outcome) {
+    return meterRegistry.find(HttpTenantFilter.METRIC_NAME).tag("outcome", outcome).timer();
   }
 }
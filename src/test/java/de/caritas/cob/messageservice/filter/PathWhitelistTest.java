@@ -0,0 +1,44 @@
+package de.caritas.cob.messageservice.filter;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+class PathWhitelistTest {
+
+  private final PathWhitelist pathWhitelist =
+      new PathWhitelist("/actuator/health", "/actuator/health/**", "/swagger-ui.html");
+
+  @ParameterizedTest
+  @CsvSource({
+      "/actuator/health, true",
+      "/actuator/health/, true",
+      "/actuator/health/liveness, true",
+      "/Actuator/Health/Readiness, true",
+      "/swagger-ui.html, true",
+      "/actuator/info, false",
+      "/messages, false",
+      "/messages/actuator/health, false",
+      "/actuator/healthy, false"
+  })
+  void contains_Should_MatchPathOfRequestAgainstPatterns(String requestUri, boolean expected) {
+    var request = new MockHttpServletRequest("GET", requestUri);
+
+    assertThat(pathWhitelist.contains(request), is(expected));
+  }
+
+  @ParameterizedTest
+  @CsvSource({
+      "/service/actuator/health/liveness, true",
+      "/service/messages, false"
+  })
+  void contains_Should_MatchPathWithinContextPath(String requestUri, boolean expected) {
+    var request = new MockHttpServletRequest("GET", requestUri);
+    request.setContextPath("/service");
+
+    assertThat(pathWhitelist.contains(request), is(expected));
+  }
+}
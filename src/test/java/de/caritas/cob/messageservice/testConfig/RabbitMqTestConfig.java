@@ -7,6 +7,7 @@ import org.springframework.amqp.core.Declarables;
 import org.springframework.amqp.core.Queue;
 import org.springframework.amqp.core.TopicExchange;
 import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory.ConfirmType;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
@@ -19,7 +20,9 @@ public class RabbitMqTestConfig {
   public static final String QUEUE_NAME_ASSIGN_SESSION = QUEUE_PREFIX + EventType.CREATE_MESSAGE;
 
   @Bean ConnectionFactory connectionFactory() {
-    return new CachingConnectionFactory(new MockConnectionFactory());
+    var connectionFactory = new CachingConnectionFactory(new MockConnectionFactory());
+    connectionFactory.setPublisherConfirmType(ConfirmType.SIMPLE);
+    return connectionFactory;
   }
 
   @Bean
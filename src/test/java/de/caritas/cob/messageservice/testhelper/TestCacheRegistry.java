@@ -0,0 +1,38 @@
+package de.caritas.cob.messageservice.testhelper;
+
+import de.caritas.cob.messageservice.config.CacheProperties;
+import de.caritas.cob.messageservice.config.CacheProperties.Spec;
+import de.caritas.cob.messageservice.config.CacheRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Map;
+
+public class TestCacheRegistry {
+
+  private TestCacheRegistry() {
+  }
+
+  public static CacheRegistry cacheRegistryOf(String name, Spec spec) {
+    return cacheRegistryOf(name, spec, new SimpleMeterRegistry());
+  }
+
+  public static CacheRegistry cacheRegistryOf(String name, Spec spec,
+      MeterRegistry meterRegistry) {
+    return cacheRegistryOf(Map.of(name, spec), meterRegistry);
+  }
+
+  public static CacheRegistry cacheRegistryOf(Map<String, Spec> specs,
+      MeterRegistry meterRegistry) {
+    var cacheProperties = new CacheProperties();
+    cacheProperties.getSpecs().putAll(specs);
+    return new CacheRegistry(cacheProperties, meterRegistry);
+  }
+
+  public static Spec sizeBoundSpec(long maximumSize, Duration expireAfterWrite) {
+    var spec = new Spec();
+    spec.setMaximumSize(maximumSize);
+    spec.setExpireAfterWrite(expireAfterWrite);
+    return spec;
+  }
+}
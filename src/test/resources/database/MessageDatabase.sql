@@ -11,3 +11,18 @@ CREATE TABLE IF NOT EXISTS DRAFTMESSAGE
 CREATE SEQUENCE IF NOT EXISTS SEQUENCE_DRAFTMESSAGE
     START WITH 100000
     INCREMENT BY 1;
+CREATE TABLE IF NOT EXISTS OUTBOX_EVENT
+(
+    ID                bigint NOT NULL,
+    TYPE              varchar(50) NOT NULL,
+    RC_GROUP_ID       varchar(255) NOT NULL,
+    TENANT_ID         bigint,
+    PAYLOAD           clob NOT NULL,
+    ATTEMPTS          int NOT NULL DEFAULT 0,
+    NEXT_ATTEMPT_DATE timestamp NOT NULL,
+    CREATE_DATE       timestamp NOT NULL,
+    PRIMARY KEY (ID)
+);
+CREATE SEQUENCE IF NOT EXISTS SEQUENCE_OUTBOX_EVENT
+    START WITH 100000
+    INCREMENT BY 1;